@@ -40,7 +40,6 @@ public class ChicagoPizzaActivity extends AppCompatActivity {
     private RecyclerView toppingsRecyclerView;
 
     private ToppingAdapter toppingsAdapter;
-    private List<String> availableToppings;
 
     private PizzaFactory pizzaFactory;
     private Pizza currentPizza;
@@ -60,7 +59,7 @@ public class ChicagoPizzaActivity extends AppCompatActivity {
     protected void onCreate(Bundle savedInstanceState) {
         super.onCreate(savedInstanceState);
         setContentView(R.layout.chicago_style);
-       pizzaFactory = new ChicagoPizza();
+       pizzaFactory = PizzaFactoryRegistry.forStyle(Style.CHICAGO);
 
         // Initialize UI components
         pizzaTypeSpinner = findViewById(R.id.spinner1);
@@ -80,8 +79,7 @@ public class ChicagoPizzaActivity extends AppCompatActivity {
         RecyclerView toppingsRecyclerView = findViewById(R.id.recyclerView);
 
         // Setup RecyclerView for toppings
-        List<String> availableToppings = new ArrayList<>();
-        setRecyclerView(toppingsRecyclerView, availableToppings);
+        setRecyclerView(toppingsRecyclerView);
 
         // Setup Spinner for Pizza Types
         setupPizzaTypeSpinner();
@@ -103,11 +101,10 @@ public class ChicagoPizzaActivity extends AppCompatActivity {
      * Sets up the RecyclerView for managing toppings.
      *
      * @param recyclerView The RecyclerView for displaying toppings.
-     * @param availableToppings The list of available toppings.
      */
-    private void setRecyclerView(RecyclerView recyclerView, List<String> availableToppings) {
-        // Initialize the ToppingAdapter with the list of available toppings
-        toppingsAdapter = new ToppingAdapter(availableToppings, selectedToppings -> {
+    private void setRecyclerView(RecyclerView recyclerView) {
+        // Initialize the ToppingAdapter; the pizza type decides which toppings it shows
+        toppingsAdapter = new ToppingAdapter(selectedToppings -> {
             updateToppingsInPizza(selectedToppings);
             updatePizzaPrice();
         });
@@ -196,23 +193,12 @@ public class ChicagoPizzaActivity extends AppCompatActivity {
         if (pizzaType.equals("Build Your Own")) {
             // Enable customization for Build Your Own
             toppingsAdapter.setCustomizable(true);
-            List<String> availableToppings = new ArrayList<>(List.of(
-                    "Sausage", "Pepperoni", "Green Pepper", "Onion", "Mushroom",
-                    "BBQ Chicken", "Beef", "Ham", "Provolone", "Cheddar",
-                    "Pineapple", "Olive", "Spinach", "Tomato"
-            ));
-            toppingsAdapter.updateToppingsList(availableToppings);
+            toppingsAdapter.setToppings(Toppings.ALL, currentPizza.getToppingMask());
 
         } else {
             // Predefined pizzas: Disable customization and show selected toppings
             toppingsAdapter.setCustomizable(false);
-            if (pizzaType.equals("Deluxe")) {
-                toppingsAdapter.setToppings(new ArrayList<>(List.of("Sausage", "Pepperoni", "Green Pepper", "Onion", "Mushroom")));
-            } else if (pizzaType.equals("BBQ Chicken")) {
-                toppingsAdapter.setToppings(new ArrayList<>(List.of("BBQ Chicken", "Onion", "Provolone", "Cheddar")));
-            } else if (pizzaType.equals("Meatzza")) {
-                toppingsAdapter.setToppings(new ArrayList<>(List.of("Sausage", "Pepperoni", "Beef", "Ham")));
-            }
+            toppingsAdapter.setToppings(currentPizza.getToppingMask());
         }
     }
 
@@ -226,7 +212,7 @@ public class ChicagoPizzaActivity extends AppCompatActivity {
     public void smallChicagoPizza(View view) {
         if (currentPizza == null) return;
 
-        currentPizza.setSize(Size.SMALL);
+        currentPizza = currentPizza.withSize(Size.SMALL);
         updatePizzaPrice();
     }
 
@@ -238,7 +224,7 @@ public class ChicagoPizzaActivity extends AppCompatActivity {
     public void mediumChicagoPizza(View view) {
         if (currentPizza == null) return;
 
-        currentPizza.setSize(Size.MEDIUM);
+        currentPizza = currentPizza.withSize(Size.MEDIUM);
         updatePizzaPrice();
     }
 
@@ -250,7 +236,7 @@ public class ChicagoPizzaActivity extends AppCompatActivity {
     public void largeChicagoPizza(View view) {
         if (currentPizza == null) return;
 
-        currentPizza.setSize(Size.LARGE);
+        currentPizza = currentPizza.withSize(Size.LARGE);
         updatePizzaPrice();
     }
 
@@ -281,10 +267,11 @@ public class ChicagoPizzaActivity extends AppCompatActivity {
         crustTypeTextView.setText("");
         pizzaCostTextView.setText("0.00");
 
-        toppingsAdapter.updateToppingsList(new ArrayList<>());
+        toppingsAdapter.setToppings(0);
         toppingsAdapter.setCustomizable(false);
         imageView.setImageResource(R.drawable.chicago_pizza);
-        // Clear current pizza object
+        // Clear current pizza object; it now belongs to the order, so the next one starts afresh
+        currentPizza = null;
 
     }
 
@@ -294,17 +281,11 @@ public class ChicagoPizzaActivity extends AppCompatActivity {
     /**
      * Updates the toppings in the current pizza based on the selected toppings.
      *
-     * @param selectedToppings The selected toppings to add.
+     * @param selectedToppings The {@link Toppings} mask of the selected toppings.
      */
-    private void updateToppingsInPizza(List<String> selectedToppings) {
+    private void updateToppingsInPizza(int selectedToppings) {
         if (currentPizza instanceof BuildYourOwn) {
-            BuildYourOwn buildYourOwnPizza = (BuildYourOwn) currentPizza;
-            buildYourOwnPizza.clearToppings(); // Clear existing toppings
-
-            // Add selected toppings to the pizza
-            for (String topping : selectedToppings) {
-                buildYourOwnPizza.addTopping(Topping.valueOf(topping.toUpperCase().replace(" ", "_")));
-            }
+            ((BuildYourOwn) currentPizza).setToppings(selectedToppings);
         }
     }
 
@@ -324,7 +305,7 @@ public class ChicagoPizzaActivity extends AppCompatActivity {
      */
     private void addToOrder() {
 
-        if (pizzaTypeSpinner.getSelectedItem() == null || pizzaTypeSpinner.getSelectedItem().toString().equals("Select Pizza Type")) {
+        if (currentPizza == null || pizzaTypeSpinner.getSelectedItem() == null || pizzaTypeSpinner.getSelectedItem().toString().equals("Select Pizza Type")) {
             Toast.makeText(this, "Please select a pizza type!", Toast.LENGTH_SHORT).show();
             return;
         }
@@ -336,28 +317,19 @@ public class ChicagoPizzaActivity extends AppCompatActivity {
         }
 
         if (currentPizza instanceof BuildYourOwn) {
-            BuildYourOwn buildYourOwnPizza = (BuildYourOwn) currentPizza;
-            buildYourOwnPizza.clearToppings();
-
             // Get selected toppings from the adapter
-            List<String> selectedToppings = toppingsAdapter.getSelectedToppings();
+            int selectedToppings = toppingsAdapter.getSelectedToppings();
 
-            if (selectedToppings.isEmpty()) {
+            if (selectedToppings == 0) {
                 Toast.makeText(this, "Please select at least one topping.", Toast.LENGTH_SHORT).show();
                 return;
             }
 
             // Add selected toppings to the pizza
-            for (String topping : selectedToppings) {
-                buildYourOwnPizza.addTopping(Topping.valueOf(topping.toUpperCase().replace(" ", "_")));
-            }
-
-
-            // Add selected toppings to the pizza
-
+            ((BuildYourOwn) currentPizza).setToppings(selectedToppings);
         }
         // Logic to add pizza to the order
-        CurrentOrdersManager.getInstance().getCurrentOrder().addPizza(currentPizza);
+        CurrentOrdersManager.getInstance().addPizza(currentPizza);
         Toast.makeText(this, "Pizza added to order!", Toast.LENGTH_SHORT).show();
 
         resetUI();
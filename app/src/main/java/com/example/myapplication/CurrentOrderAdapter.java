@@ -59,7 +59,7 @@ public class CurrentOrderAdapter extends ArrayAdapter<Pizza> {
             textStyle.setText("Style: " + pizza.getStyle());
             textCrust.setText("Crust: " + pizza.getCrust());
             textSize.setText("Size: " + pizza.getSize());
-            textToppings.setText("Toppings: " + pizza.getToppings().toString());
+            textToppings.setText(ToppingCatalog.appendNames(new StringBuilder("Toppings: "), pizza.getToppingMask()));
         }
 
         return convertView;
@@ -1,6 +1,7 @@
 package com.example.myapplication;
 
 import android.os.Bundle;
+import android.util.Log;
 import android.widget.AdapterView;
 import android.widget.Button;
 import android.widget.ListView;
@@ -9,18 +10,26 @@ import android.widget.Toast;
 import androidx.appcompat.app.AppCompatActivity;
 import p5.*;
 
-import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 /**
  * Activity for managing the current order in the cart view.
  * Displays the details of the current order, allows placing orders,
  * clearing the order, removing items, and navigating back to the main menu.
+ * Changes go through the {@link CurrentOrdersManager}, and the screen redraws when the
+ * {@link OrderEventBus} reports a change to the app's session.
  *
  * @author Siddharth,Ibtesaam
  */
 public class CurrentOrdersActivity extends AppCompatActivity {
 
+    /** Tag used for log messages from this activity. */
+    private static final String TAG = "CurrentOrdersActivity";
+
+    /** Number of session events buffered while the screen catches up; older ones are dropped. */
+    private static final int EVENT_BUFFER = 16;
+
     // UI Components
     private ListView ordersListView;
     private TextView subtotalTextView, taxTextView, totalTextView, orderNumberTextView;
@@ -28,15 +37,18 @@ public class CurrentOrdersActivity extends AppCompatActivity {
 
     // Singleton Managers
     private CurrentOrdersManager currentOrdersManager;
-    private StoreOrdersManager storeOrdersManager;
 
     // Current Order and Adapter
     private Order currentOrder;
     private CurrentOrderAdapter pizzaArrayAdapter;
 
+    // Order events
+    private OrderEventBus.Subscription orderEvents;
+    private final AtomicBoolean refreshPending = new AtomicBoolean();
+
     /**
      * Called when the activity is created.
-     * Initializes the UI components, sets up listeners, and populates the order details.
+     * Initializes the UI components and sets up listeners.
      *
      * @param savedInstanceState If the activity is being re-initialized, contains the previous state.
      */
@@ -47,7 +59,6 @@ public class CurrentOrdersActivity extends AppCompatActivity {
 
         // Initialize Singleton Managers
         currentOrdersManager = CurrentOrdersManager.getInstance();
-        storeOrdersManager = StoreOrdersManager.getInstance();
 
         // Initialize UI Components
         ordersListView = findViewById(R.id.listView);
@@ -60,14 +71,41 @@ public class CurrentOrdersActivity extends AppCompatActivity {
         removeOrderbutton = findViewById(R.id.button4);
         backButton = findViewById(R.id.button6);
 
-        // Retrieve the current order
-        currentOrder = currentOrdersManager.getCurrentOrder();
+        // Set up event listeners for the buttons; onStart() populates the order details
+        setupEventListeners();
+    }
 
-        // Populate the order details in the UI
+    /**
+     * Starts following changes to the app's session, and catches up on any made while the
+     * screen was not visible.
+     */
+    @Override
+    protected void onStart() {
+        super.onStart();
+        orderEvents = OrderEventBus.getInstance().subscribe("current-order-screen", EVENT_BUFFER,
+                OrderEventBus.Backpressure.DROP_OLDEST, event -> {
+                    // Bursts of events, such as clearing an order, coalesce into one redraw
+                    if (CurrentOrdersManager.DEFAULT_SESSION.equals(event.getSessionId())
+                            && refreshPending.compareAndSet(false, true)) {
+                        runOnUiThread(() -> {
+                            refreshPending.set(false);
+                            currentOrder = currentOrdersManager.getCurrentOrder();
+                            updateOrderDetails();
+                        });
+                    }
+                });
+        currentOrder = currentOrdersManager.getCurrentOrder();
         updateOrderDetails();
+    }
 
-        // Set up event listeners for the buttons
-        setupEventListeners();
+    /**
+     * Stops following the session while the screen is not visible.
+     */
+    @Override
+    protected void onStop() {
+        orderEvents.close();
+        orderEvents = null;
+        super.onStop();
     }
 
     /**
@@ -77,8 +115,7 @@ public class CurrentOrdersActivity extends AppCompatActivity {
     private void setupEventListeners() {
         // Clear Order Button
         clearOrderButton.setOnClickListener(v -> {
-            currentOrder.clearOrder(); // Clear all pizzas in the current order
-            updateOrderDetails(); // Refresh the order details in the UI
+            currentOrdersManager.clearCurrentOrder(); // The removal events refresh the order details
             Toast.makeText(this, "Order cleared.", Toast.LENGTH_SHORT).show();
         });
 
@@ -89,12 +126,18 @@ public class CurrentOrdersActivity extends AppCompatActivity {
                 return;
             }
 
-            // Add the current order to store orders and reset the current order
-            storeOrdersManager.addOrder(currentOrdersManager.getCurrentOrder());
-            currentOrdersManager.resetCurrentOrder();
-            updateOrderDetails(); // Refresh the UI after placing the order
-
-            Toast.makeText(this, "Order placed successfully!", Toast.LENGTH_SHORT).show();
+            // Hand the current order to the store orders and start a new one on the storage
+            // thread, since placing waits for the journal; the new order's event refreshes the UI
+            StorageExecutor.getInstance().execute(() -> {
+                try {
+                    currentOrdersManager.placeCurrentOrder();
+                    currentOrdersManager.resetCurrentOrder();
+                    runOnUiThread(() -> Toast.makeText(this, "Order placed successfully!", Toast.LENGTH_SHORT).show());
+                } catch (RuntimeException e) {
+                    Log.e(TAG, "Could not place the order", e);
+                    runOnUiThread(() -> Toast.makeText(this, "Could not place the order.", Toast.LENGTH_SHORT).show());
+                }
+            });
         });
 
         ordersListView.setOnItemClickListener((parent, view, position, id) -> {
@@ -121,10 +164,7 @@ public class CurrentOrdersActivity extends AppCompatActivity {
             } else {
                 // Get the selected pizza and remove it from the current order
                 Pizza selectedPizza = (Pizza) ordersListView.getItemAtPosition(selectedPosition);
-                currentOrder.removePizza(selectedPizza);
-
-                // Update the UI
-                updateOrderDetails();
+                currentOrdersManager.removePizza(selectedPizza); // The removal event updates the UI
 
                 // Show success message
                 Toast.makeText(this, "Item removed from the order.", Toast.LENGTH_SHORT).show();
@@ -2,6 +2,7 @@ package com.example.myapplication;
 
 import android.content.Intent;
 import android.os.Bundle;
+import android.util.Log;
 import android.view.View;
 
 import androidx.activity.EdgeToEdge;
@@ -9,6 +10,15 @@ import androidx.appcompat.app.AppCompatActivity;
 import androidx.core.graphics.Insets;
 import androidx.core.view.ViewCompat;
 import androidx.core.view.WindowInsetsCompat;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import p5.OrderJournal;
+import p5.OrderNumberAllocator;
+import p5.StoreOrdersManager;
+
 /**
  * MainActivity serves as the entry point of the application.
  * It provides navigation to various pizza-related screens such as New York Style, Chicago Style,
@@ -18,6 +28,12 @@ import androidx.core.view.WindowInsetsCompat;
  */
 public class MainActivity extends AppCompatActivity {
 
+    /** Tag used for log messages from this activity. */
+    private static final String TAG = "MainActivity";
+
+    /** Time between checkpoints of the store orders. */
+    private static final long CHECKPOINT_INTERVAL_MINUTES = 5;
+
     @Override
     protected void onCreate(Bundle savedInstanceState) {
         super.onCreate(savedInstanceState);
@@ -28,6 +44,28 @@ public class MainActivity extends AppCompatActivity {
             v.setPadding(systemBars.left, systemBars.top, systemBars.right, systemBars.bottom);
             return insets;
         });
+
+        // Reading the files and replaying the journal happen off the UI thread; placements and
+        // removals go through the same thread, so they wait until the store has been restored
+        File filesDir = getFilesDir();
+        StorageExecutor.getInstance().execute(() -> {
+            // Keep order numbers unique across restarts of the app
+            try {
+                OrderNumberAllocator.persistTo(new File(filesDir, "order-numbers"),
+                        OrderNumberAllocator.DEFAULT_BLOCK_SIZE);
+            } catch (IOException e) {
+                Log.e(TAG, "Could not open the order number file", e);
+            }
+
+            // Restore placed orders, journal every new change, and checkpoint so restarts stay fast
+            try {
+                StoreOrdersManager storeOrdersManager = StoreOrdersManager.getInstance();
+                storeOrdersManager.openJournal(new File(filesDir, "orders"), OrderJournal.Durability.GROUP);
+                storeOrdersManager.scheduleCheckpoints(CHECKPOINT_INTERVAL_MINUTES, TimeUnit.MINUTES);
+            } catch (IOException e) {
+                Log.e(TAG, "Could not open the order journal", e);
+            }
+        });
     }
 
     /**
@@ -35,7 +35,6 @@ public class NewYorkPizzaActivity extends AppCompatActivity {
         private ToppingAdapter toppingsAdapter;
 
         private PizzaFactory pizzaFactory;
-        private List<String> availableToppings;
         private Pizza currentPizza;
 
         private ImageView imageView;
@@ -46,7 +45,7 @@ public class NewYorkPizzaActivity extends AppCompatActivity {
         protected void onCreate(Bundle savedInstanceState) {
             super.onCreate(savedInstanceState);
             setContentView(R.layout.ny_style);
-            pizzaFactory = new NYPizza();
+            pizzaFactory = PizzaFactoryRegistry.forStyle(Style.NY);
 
             // Initialize UI components
             pizzaTypeSpinner = findViewById(R.id.spinner1);
@@ -64,12 +63,11 @@ public class NewYorkPizzaActivity extends AppCompatActivity {
 
 
             // Initialize available toppings
-            List<String> availableToppings = new ArrayList<>();
             RecyclerView toppingsRecyclerView = findViewById(R.id.recyclerView);
 
 
             // Setup RecyclerView for toppings
-            setRecyclerView(toppingsRecyclerView, availableToppings);
+            setRecyclerView(toppingsRecyclerView);
 
 
 
@@ -91,12 +89,11 @@ public class NewYorkPizzaActivity extends AppCompatActivity {
         /**
          * Sets up the RecyclerView for managing toppings.
          *
-         * @param recyclerView      The RecyclerView to set up.
-         * @param availableToppings List of available toppings.
+         * @param recyclerView The RecyclerView to set up.
          */
-        private void setRecyclerView(RecyclerView recyclerView, List<String> availableToppings) {
-            // Initialize the ToppingAdapter with the list of available toppings
-            toppingsAdapter = new ToppingAdapter(availableToppings, selectedToppings -> {
+        private void setRecyclerView(RecyclerView recyclerView) {
+            // Initialize the ToppingAdapter; the pizza type decides which toppings it shows
+            toppingsAdapter = new ToppingAdapter(selectedToppings -> {
                 updateToppingsInPizza(selectedToppings);
                 updatePizzaPrice();
             });
@@ -188,25 +185,14 @@ public class NewYorkPizzaActivity extends AppCompatActivity {
          */
         private void updateRecyclerViewForPizzaType(String pizzaType) {
             if (pizzaType.equals("Build Your Own")) {
-                List<String> availableToppings = new ArrayList<>(List.of(
-                        "Sausage", "Pepperoni", "Green Pepper", "Onion", "Mushroom",
-                        "BBQ Chicken", "Beef", "Ham", "Provolone", "Cheddar",
-                        "Pineapple", "Olive", "Spinach", "Tomato"
-                ));
                 // Enable customization for Build Your Own
                 toppingsAdapter.setCustomizable(true);
-                toppingsAdapter.updateToppingsList(availableToppings);
+                toppingsAdapter.setToppings(Toppings.ALL, currentPizza.getToppingMask());
 
             } else {
                 // Predefined pizzas: Disable customization and show selected toppings
                 toppingsAdapter.setCustomizable(false);
-                if (pizzaType.equals("Deluxe")) {
-                    toppingsAdapter.setToppings(new ArrayList<>(List.of("Sausage", "Pepperoni", "Green Pepper", "Onion", "Mushroom")));
-                } else if (pizzaType.equals("BBQ Chicken")) {
-                    toppingsAdapter.setToppings(new ArrayList<>(List.of("BBQ Chicken", "Onion", "Provolone", "Cheddar")));
-                } else if (pizzaType.equals("Meatzza")) {
-                    toppingsAdapter.setToppings(new ArrayList<>(List.of("Sausage", "Pepperoni", "Beef", "Ham")));
-                }
+                toppingsAdapter.setToppings(currentPizza.getToppingMask());
             }
         }
 
@@ -219,7 +205,7 @@ public class NewYorkPizzaActivity extends AppCompatActivity {
         public void smallNYPizza(View view) {
             if (currentPizza == null) return;
 
-            currentPizza.setSize(Size.SMALL);
+            currentPizza = currentPizza.withSize(Size.SMALL);
             updatePizzaPrice();
         }
 
@@ -231,7 +217,7 @@ public class NewYorkPizzaActivity extends AppCompatActivity {
         public void mediumNYPizza(View view) {
             if (currentPizza == null) return;
 
-            currentPizza.setSize(Size.MEDIUM);
+            currentPizza = currentPizza.withSize(Size.MEDIUM);
             updatePizzaPrice();
         }
 
@@ -243,7 +229,7 @@ public class NewYorkPizzaActivity extends AppCompatActivity {
         public void largeNYPizza(View view) {
             if (currentPizza == null) return;
 
-            currentPizza.setSize(Size.LARGE);
+            currentPizza = currentPizza.withSize(Size.LARGE);
             updatePizzaPrice();
         }
 
@@ -278,10 +264,11 @@ public class NewYorkPizzaActivity extends AppCompatActivity {
             crustTypeTextView.setText("");
             pizzaCostTextView.setText("0.00");
 
-            toppingsAdapter.updateToppingsList(new ArrayList<>());
+            toppingsAdapter.setToppings(0);
             toppingsAdapter.setCustomizable(false);
             imageView.setImageResource(R.drawable.ny_pizza);
-            // Clear current pizza object
+            // Clear current pizza object; it now belongs to the order, so the next one starts afresh
+            currentPizza = null;
 
         }
 
@@ -289,18 +276,12 @@ public class NewYorkPizzaActivity extends AppCompatActivity {
         /**
          * Updates the toppings in the pizza for "Build Your Own".
          *
-         * @param selectedToppings List of selected toppings.
+         * @param selectedToppings The {@link Toppings} mask of the selected toppings.
          */
 
-        private void updateToppingsInPizza(List<String> selectedToppings) {
+        private void updateToppingsInPizza(int selectedToppings) {
             if (currentPizza instanceof BuildYourOwn) {
-                BuildYourOwn buildYourOwnPizza = (BuildYourOwn) currentPizza;
-                buildYourOwnPizza.clearToppings(); // Clear existing toppings
-
-                // Add selected toppings to the pizza
-                for (String topping : selectedToppings) {
-                    buildYourOwnPizza.addTopping(Topping.valueOf(topping.toUpperCase().replace(" ", "_")));
-                }
+                ((BuildYourOwn) currentPizza).setToppings(selectedToppings);
             }
         }
 
@@ -320,7 +301,7 @@ public class NewYorkPizzaActivity extends AppCompatActivity {
          */
         private void addToOrder() {
 
-            if (pizzaTypeSpinner.getSelectedItem() == null || pizzaTypeSpinner.getSelectedItem().toString().equals("Select Pizza Type")) {
+            if (currentPizza == null || pizzaTypeSpinner.getSelectedItem() == null || pizzaTypeSpinner.getSelectedItem().toString().equals("Select Pizza Type")) {
                 Toast.makeText(this, "Please select a pizza type!", Toast.LENGTH_SHORT).show();
                 return;
             }
@@ -332,31 +313,20 @@ public class NewYorkPizzaActivity extends AppCompatActivity {
             }
 
             if (currentPizza instanceof BuildYourOwn) {
-                BuildYourOwn buildYourOwnPizza = (BuildYourOwn) currentPizza;
-                buildYourOwnPizza.clearToppings();
-
                 // Get selected toppings from the adapter
-                List<String> selectedToppings = toppingsAdapter.getSelectedToppings();
+                int selectedToppings = toppingsAdapter.getSelectedToppings();
 
-                if (selectedToppings.isEmpty()) {
+                if (selectedToppings == 0) {
                     Toast.makeText(this, "Please select at least one topping.", Toast.LENGTH_SHORT).show();
                     return;
                 }
 
                 // Add selected toppings to the pizza
-                for (String topping : selectedToppings) {
-                    buildYourOwnPizza.addTopping(Topping.valueOf(topping.toUpperCase().replace(" ", "_")));
-                }
-
-
-
-
-                // Add selected toppings to the pizza
-
+                ((BuildYourOwn) currentPizza).setToppings(selectedToppings);
             }
 
                 // Logic to add pizza to the order
-                CurrentOrdersManager.getInstance().getCurrentOrder().addPizza(currentPizza);
+                CurrentOrdersManager.getInstance().addPizza(currentPizza);
                 Toast.makeText(this, "Pizza added to order!", Toast.LENGTH_SHORT).show();
 
                 resetUI();
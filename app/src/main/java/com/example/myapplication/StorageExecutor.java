@@ -0,0 +1,49 @@
+package com.example.myapplication;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Singleton running the app's storage work on one background thread: opening the order journal,
+ * and placing and removing orders, which write to it and may wait for an fsync.
+ * Tasks run one at a time in the order they were submitted, so the UI thread never waits for the
+ * disk, and no order is placed or removed before the journal has been replayed.
+ * @author Siddharth, Ibtesaam
+ */
+public final class StorageExecutor {
+
+    /** Singleton instance of the StorageExecutor. */
+    private static final StorageExecutor instance = new StorageExecutor();
+
+    /** The background thread and its queue of tasks. */
+    private final ExecutorService executor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "order-storage");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    /**
+     * Private constructor to enforce the singleton pattern.
+     */
+    private StorageExecutor() {
+    }
+
+    /**
+     * Provides access to the singleton instance of StorageExecutor.
+     *
+     * @return The singleton instance of StorageExecutor.
+     */
+    public static StorageExecutor getInstance() {
+        return instance;
+    }
+
+    /**
+     * Runs a task on the storage thread after every task submitted before it.
+     * Post results back with {@link android.app.Activity#runOnUiThread(Runnable)}.
+     *
+     * @param task The task.
+     */
+    public void execute(Runnable task) {
+        executor.execute(task);
+    }
+}
@@ -1,6 +1,7 @@
 package com.example.myapplication;
 
 import android.os.Bundle;
+import android.util.Log;
 import android.view.View;
 import android.widget.AdapterView;
 import android.widget.ArrayAdapter;
@@ -12,25 +13,40 @@ import android.widget.Toast;
 import androidx.appcompat.app.AppCompatActivity;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
 import p5.*;
 
 /**
  * StoreOrdersActivity manages and displays all placed orders in the store.
  * Users can view the list of pizzas in a selected order, remove an order, or navigate back to the main menu.
+ * While visible, the screen follows the {@link OrderEventBus}, so orders placed or removed anywhere,
+ * including from this screen, show up without it re-reading the store after every action.
  *
  * @author Siddharth, Ibtesaam
  */
 public class StoreOrdersActivity extends AppCompatActivity {
 
+    /** Tag used for log messages from this activity. */
+    private static final String TAG = "StoreOrdersActivity";
+
+    /** Number of store events buffered while the screen catches up; older ones are dropped. */
+    private static final int EVENT_BUFFER = 16;
+
     private ListView listView;
     private TextView totalTextView;
     private Button backButton, removeButton;
     private Spinner orderNumberSpinner;
 
     private StoreOrdersManager storeOrdersManager;
-    private List<Order> storeOrders;
+    private final List<Integer> orderNumbers = new ArrayList<>();
+    private ArrayAdapter<Integer> spinnerAdapter;
     private int selectedOrderIndex = -1;
 
+    private OrderEventBus.Subscription orderEvents;
+
+    /** Whether a refresh has been posted to the UI thread and not yet run, so bursts of events coalesce. */
+    private final AtomicBoolean refreshPending = new AtomicBoolean();
+
     @Override
     protected void onCreate(Bundle savedInstanceState) {
         super.onCreate(savedInstanceState);
@@ -46,9 +62,6 @@ public class StoreOrdersActivity extends AppCompatActivity {
         // Initialize the singleton manager
         storeOrdersManager = StoreOrdersManager.getInstance();
 
-        // Retrieve the list of orders
-        storeOrders = storeOrdersManager.getStoreOrders();
-
         // Populate Spinner and ListView
         setupOrderNumberSpinner();
 
@@ -56,21 +69,44 @@ public class StoreOrdersActivity extends AppCompatActivity {
         setupEventListeners();
     }
 
+    /**
+     * Starts following placed and removed orders, and catches up on any changes made while
+     * the screen was not visible.
+     */
+    @Override
+    protected void onStart() {
+        super.onStart();
+        orderEvents = OrderEventBus.getInstance().subscribe("store-orders-screen", EVENT_BUFFER,
+                OrderEventBus.Backpressure.DROP_OLDEST, event -> {
+                    OrderEvent.Type type = event.getType();
+                    if ((type == OrderEvent.Type.ORDER_PLACED || type == OrderEvent.Type.ORDER_REMOVED)
+                            && refreshPending.compareAndSet(false, true)) {
+                        runOnUiThread(() -> {
+                            refreshPending.set(false);
+                            refreshOrderNumbers();
+                        });
+                    }
+                });
+        refreshOrderNumbers();
+    }
+
+    /**
+     * Stops following orders while the screen is not visible.
+     */
+    @Override
+    protected void onStop() {
+        orderEvents.close();
+        orderEvents = null;
+        super.onStop();
+    }
+
     /**
      * Configures the Spinner to display order numbers.
      * When a number is selected, the corresponding order details are shown in the ListView.
      */
     private void setupOrderNumberSpinner() {
-        // Retrieve all orders from the manager
-        List<Order> allOrders = storeOrdersManager.getStoreOrders();
-        List<Integer> orderNumbers = new ArrayList<>();
-
-        // Populate Spinner with order numbers
-        for (Order order : allOrders) {
-            orderNumbers.add(order.getNumber());
-        }
-
-        ArrayAdapter<Integer> spinnerAdapter = new ArrayAdapter<>(
+        // The Spinner shows the order numbers kept up to date by refreshOrderNumbers()
+        spinnerAdapter = new ArrayAdapter<>(
                 this, android.R.layout.simple_spinner_item, orderNumbers);
         spinnerAdapter.setDropDownViewResource(android.R.layout.simple_spinner_dropdown_item);
         orderNumberSpinner.setAdapter(spinnerAdapter);
@@ -82,8 +118,8 @@ public class StoreOrdersActivity extends AppCompatActivity {
         orderNumberSpinner.setOnItemSelectedListener(new AdapterView.OnItemSelectedListener() {
             @Override
             public void onItemSelected(AdapterView<?> parent, View view, int position, long id) {
-                // Get the selected order and update the ListView
-                Order selectedOrder = allOrders.get(position);
+                // Look up the selected order by number and update the ListView
+                Order selectedOrder = storeOrdersManager.getOrder(orderNumbers.get(position));
                 updateListViewWithOrder(selectedOrder);
             }
 
@@ -94,6 +130,24 @@ public class StoreOrdersActivity extends AppCompatActivity {
         });
     }
 
+    /**
+     * Reloads the order numbers from the store and shows the order now selected, if any.
+     */
+    private void refreshOrderNumbers() {
+        orderNumbers.clear();
+        for (Order order : storeOrdersManager.getStoreOrders()) {
+            orderNumbers.add(order.getNumber());
+        }
+        spinnerAdapter.notifyDataSetChanged();
+
+        int position = orderNumberSpinner.getSelectedItemPosition();
+        if (position >= 0 && position < orderNumbers.size()) {
+            updateListViewWithOrder(storeOrdersManager.getOrder(orderNumbers.get(position)));
+        } else {
+            updateListViewWithOrder(null);
+        }
+    }
+
     /**
      * Updates the ListView to display the pizzas in the selected order.
      *
@@ -132,21 +186,24 @@ public class StoreOrdersActivity extends AppCompatActivity {
 
         // Remove Button
         removeButton.setOnClickListener(v -> {
-            if (!storeOrdersManager.getStoreOrders().isEmpty()) {
+            if (storeOrdersManager.getOrderCount() > 0) {
                 // Get the selected order index from the Spinner
                 selectedOrderIndex = orderNumberSpinner.getSelectedItemPosition();
 
                 if (selectedOrderIndex != -1) {
-                    // Remove the selected order
-                    storeOrdersManager.removeOrder(storeOrders.get(selectedOrderIndex));
-                    storeOrders.remove(selectedOrderIndex);
-
-                    // Reset selection and update UI
+                    // Remove the selected order by its number on the storage thread, since removing
+                    // waits for the journal; the removal event refreshes the screen
+                    int number = orderNumbers.get(selectedOrderIndex);
                     selectedOrderIndex = -1;
-                    setupOrderNumberSpinner();
-                    resetUI();
-
-                    Toast.makeText(this, "Order removed.", Toast.LENGTH_SHORT).show();
+                    StorageExecutor.getInstance().execute(() -> {
+                        try {
+                            storeOrdersManager.removeOrder(number);
+                            runOnUiThread(() -> Toast.makeText(this, "Order removed.", Toast.LENGTH_SHORT).show());
+                        } catch (RuntimeException e) {
+                            Log.e(TAG, "Could not remove order " + number, e);
+                            runOnUiThread(() -> Toast.makeText(this, "Could not remove the order.", Toast.LENGTH_SHORT).show());
+                        }
+                    });
                 } else {
                     Toast.makeText(this, "Please select an order to remove.", Toast.LENGTH_SHORT).show();
                 }
@@ -160,14 +217,8 @@ public class StoreOrdersActivity extends AppCompatActivity {
      * Updates the total cost of all orders displayed in the TextView.
      */
     private void updateTotal() {
-        double total = 0.0;
-
-        // Calculate the total cost of all orders
-        for (Order order : storeOrders) {
-            total += order.getTotal();
-        }
-
-        // Display the total cost
-        totalTextView.setText(String.format("$%.2f", total));
+        // Read the running total instead of summing every order
+        long totalCents = storeOrdersManager.getAnalytics().getTotalCents();
+        totalTextView.setText(String.format("$%.2f", Money.toDollars(totalCents)));
     }
 }
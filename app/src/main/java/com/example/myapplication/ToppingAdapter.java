@@ -10,58 +10,59 @@ import android.widget.Toast;
 import androidx.annotation.NonNull;
 import androidx.recyclerview.widget.RecyclerView;
 
-import java.util.ArrayList;
-import java.util.HashMap;
 import java.util.List;
-import java.util.Map;
+
+import p5.Toppings;
 
 /**
  * Adapter class for managing the RecyclerView of toppings.
  * Handles displaying topping names, images, and selection states.
+ * The toppings shown and the toppings selected are both {@link Toppings} masks, and names and
+ * pictures come from the shared {@link ToppingCatalog}.
+ * Rows have stable IDs, the topping ordinals. Changes are diffed against the previous masks, so only
+ * rows that appear, disappear, or change state are touched. State changes are rebound with a payload
+ * that updates the check box and leaves the name and picture alone.
  * @author Siddharth, Ibtesaam
  */
 public class ToppingAdapter extends RecyclerView.Adapter<ToppingAdapter.ToppingsViewHolder> {
 
-    private List<String> toppingsList; // List of available toppings
-    private final List<String> selectedToppings; // List of selected toppings
+    /** Payload for rebinding only a row's check box state. */
+    private static final Object PAYLOAD_STATE = new Object();
+
+    /** Ordinals of every topping, in menu order. */
+    private static final int[] MENU = new int[ToppingCatalog.SIZE];
+
+    static {
+        ToppingCatalog.menuOrder(Toppings.ALL, MENU);
+    }
+
+    private final int[] rows = new int[ToppingCatalog.SIZE]; // Ordinal of the topping in each row, in menu order
+    private int rowCount; // Number of rows in use
+    private int availableToppings; // Mask of the toppings shown
+    private int selectedToppings; // Mask of the selected toppings
     private boolean isCustomizable; // Whether the toppings can be customized
-    private final Map<String, Integer> toppingImages; // Mapping of topping names to drawable resources
     private final ToppingSelectionListener listener; // Callback listener for topping selection changes
 
     /**
-     * Constructor to initialize the adapter with toppings and a listener.
+     * Constructor to initialize the adapter with a listener and no toppings shown.
      *
-     * @param toppingsList List of available toppings.
      * @param listener Callback listener for topping selection changes.
      */
-    public ToppingAdapter(List<String> toppingsList, ToppingSelectionListener listener) {
-        this.toppingsList = toppingsList;
+    public ToppingAdapter(ToppingSelectionListener listener) {
         this.listener = listener;
-        this.selectedToppings = new ArrayList<>();
         this.isCustomizable = true;
-        this.toppingImages = createToppingImageMap(); // Initialize image mapping
+        setHasStableIds(true);
     }
 
     /**
-     * Returns the list of selected toppings.
+     * Returns the selected toppings.
      *
-     * @return List of selected toppings.
+     * @return The {@link Toppings} mask of the selected toppings.
      */
-    public List<String> getSelectedToppings() {
+    public int getSelectedToppings() {
         return selectedToppings;
     }
 
-    /**
-     * Updates the list of available toppings and refreshes the RecyclerView.
-     *
-     * @param newToppings List of new available toppings.
-     */
-    public void updateToppingsList(List<String> newToppings) {
-        toppingsList.clear();
-        toppingsList.addAll(newToppings);
-        notifyDataSetChanged(); // Notify RecyclerView to refresh its display
-    }
-
     /**
      * Interface for handling topping selection changes.
      */
@@ -69,31 +70,70 @@ public class ToppingAdapter extends RecyclerView.Adapter<ToppingAdapter.Toppings
         /**
          * Called when the topping selection changes.
          *
-         * @param selectedToppings List of selected toppings.
+         * @param selectedToppings The {@link Toppings} mask of the selected toppings.
          */
-        void onToppingSelectionChanged(List<String> selectedToppings);
+        void onToppingSelectionChanged(int selectedToppings);
     }
 
     /**
-     * Sets whether the toppings are customizable.
+     * Sets whether the toppings are customizable, rebinding only the check boxes.
      *
      * @param customizable True if customizable, false otherwise.
      */
     public void setCustomizable(boolean customizable) {
+        if (isCustomizable == customizable) {
+            return;
+        }
         this.isCustomizable = customizable;
-        notifyDataSetChanged(); // Update the RecyclerView
+        notifyItemRangeChanged(0, rowCount, PAYLOAD_STATE);
     }
 
     /**
-     * Sets the toppings for predefined pizzas and updates the RecyclerView.
+     * Shows exactly the given toppings, all selected, as for a predefined pizza.
      *
-     * @param toppings List of toppings to set.
+     * @param toppings The {@link Toppings} mask of the pizza's toppings.
      */
-    public void setToppings(List<String> toppings) {
-        this.toppingsList = toppings;
-        this.selectedToppings.clear();
-        this.selectedToppings.addAll(toppings);
-        notifyDataSetChanged(); // Refresh the RecyclerView
+    public void setToppings(int toppings) {
+        setToppings(toppings, toppings);
+    }
+
+    /**
+     * Updates the toppings shown and the toppings selected. Rows are inserted, removed, or have
+     * their check box rebound only where the masks differ from the current ones.
+     *
+     * @param available The {@link Toppings} mask of the toppings to show.
+     * @param selected  The {@link Toppings} mask of the toppings to check; only those shown are kept.
+     */
+    public void setToppings(int available, int selected) {
+        int oldAvailable = availableToppings;
+        int oldSelected = selectedToppings;
+        availableToppings = available & Toppings.ALL;
+        selectedToppings = selected & availableToppings;
+        rowCount = ToppingCatalog.menuOrder(availableToppings, rows);
+
+        // Both row lists follow menu order, so one walk over the menu finds every difference;
+        // each notification is relative to the rows as left by the previous one
+        int position = 0;
+        for (int ordinal : MENU) {
+            int bit = 1 << ordinal;
+            boolean wasShown = (oldAvailable & bit) != 0;
+            boolean isShown = (availableToppings & bit) != 0;
+            if (wasShown && !isShown) {
+                notifyItemRemoved(position);
+            } else if (!wasShown && isShown) {
+                notifyItemInserted(position++);
+            } else if (isShown) {
+                if (((oldSelected ^ selectedToppings) & bit) != 0) {
+                    notifyItemChanged(position, PAYLOAD_STATE);
+                }
+                position++;
+            }
+        }
+    }
+
+    @Override
+    public long getItemId(int position) {
+        return rows[position];
     }
 
     @NonNull
@@ -101,78 +141,79 @@ public class ToppingAdapter extends RecyclerView.Adapter<ToppingAdapter.Toppings
     public ToppingsViewHolder onCreateViewHolder(@NonNull ViewGroup parent, int viewType) {
         View view = LayoutInflater.from(parent.getContext())
                 .inflate(R.layout.item_topping, parent, false); // Inflate the item_topping layout
-        return new ToppingsViewHolder(view);
+        ToppingsViewHolder holder = new ToppingsViewHolder(view);
+
+        // One listener per holder; it finds its topping through the holder's stable ID, and only
+        // fires on taps, so binding a row never reports a selection change
+        holder.toppingCheckBox.setOnClickListener(v -> onToppingClicked(holder));
+        return holder;
     }
 
     @Override
     public void onBindViewHolder(@NonNull ToppingsViewHolder holder, int position) {
-        String topping = toppingsList.get(position);
-        holder.toppingName.setText(topping);
+        int ordinal = rows[position];
+        holder.toppingName.setText(ToppingCatalog.name(ordinal));
+        holder.toppingImage.setImageResource(ToppingCatalog.drawable(ordinal));
+        bindState(holder, ordinal);
+    }
 
-        // Set the topping image if available
-        if (toppingImages.containsKey(topping)) {
-            holder.toppingImage.setImageResource(toppingImages.get(topping));
+    @Override
+    public void onBindViewHolder(@NonNull ToppingsViewHolder holder, int position, @NonNull List<Object> payloads) {
+        if (payloads.isEmpty()) {
+            onBindViewHolder(holder, position);
         } else {
-            holder.toppingImage.setImageResource(R.drawable.sausage); // Default image
+            bindState(holder, rows[position]);
         }
+    }
 
-        // Set the CheckBox state and enable/disable based on customization
-        holder.toppingCheckBox.setChecked(selectedToppings.contains(topping));
+    /**
+     * Sets a row's check box from the selection and whether the toppings can be customized.
+     *
+     * @param holder  The row.
+     * @param ordinal The ordinal of the row's topping.
+     */
+    private void bindState(ToppingsViewHolder holder, int ordinal) {
+        holder.toppingCheckBox.setChecked((selectedToppings & (1 << ordinal)) != 0);
         holder.toppingCheckBox.setEnabled(isCustomizable);
+    }
 
-        // Handle CheckBox click events
-        holder.toppingCheckBox.setOnCheckedChangeListener((buttonView, isChecked) -> {
-            if (isCustomizable) {
-                if (isChecked) {
-                    // Add to selected toppings if the limit is not exceeded
-                    if (selectedToppings.size() < 7) {
-                        if (!selectedToppings.contains(topping)) {
-                            selectedToppings.add(topping);
-                            listener.onToppingSelectionChanged(selectedToppings);
-                        }
-                    } else {
-                        // Uncheck the CheckBox and notify user about the limit
-                        buttonView.setChecked(false);
-                        Toast.makeText(buttonView.getContext(), "You can select up to 7 toppings only!", Toast.LENGTH_SHORT).show();
-                    }
-                } else {
-                    // Remove from selected toppings
-                    selectedToppings.remove(topping);
-                    listener.onToppingSelectionChanged(selectedToppings);
-                }
+    /**
+     * Handles a tap on a row's check box, which has already toggled itself.
+     *
+     * @param holder The row.
+     */
+    private void onToppingClicked(ToppingsViewHolder holder) {
+        long id = holder.getItemId();
+        if (id == RecyclerView.NO_ID) {
+            return; // The row is being removed
+        }
+        int ordinal = (int) id;
+        CheckBox checkBox = holder.toppingCheckBox;
+        if (!isCustomizable) {
+            bindState(holder, ordinal);
+            return;
+        }
+        int bit = 1 << ordinal;
+        if (checkBox.isChecked()) {
+            // Add to selected toppings if the limit is not exceeded
+            if (Toppings.count(selectedToppings) < Toppings.MAX_TOPPINGS) {
+                selectedToppings |= bit;
+                listener.onToppingSelectionChanged(selectedToppings);
+            } else {
+                // Uncheck the CheckBox and notify user about the limit
+                checkBox.setChecked(false);
+                Toast.makeText(checkBox.getContext(), "You can select up to " + Toppings.MAX_TOPPINGS + " toppings only!", Toast.LENGTH_SHORT).show();
             }
-        });
+        } else {
+            // Remove from selected toppings
+            selectedToppings &= ~bit;
+            listener.onToppingSelectionChanged(selectedToppings);
+        }
     }
 
     @Override
     public int getItemCount() {
-        return toppingsList.size();
-    }
-
-    /**
-     * Creates a mapping of topping names to their corresponding drawable resources.
-     *
-     * @return Map of topping names and drawable resources.
-     */
-    private Map<String, Integer> createToppingImageMap() {
-        Map<String, Integer> map = new HashMap<>();
-        map.put("Sausage", R.drawable.sausage);
-        map.put("Pepperoni", R.drawable.pepperoni);
-        map.put("Mushroom", R.drawable.mushroom);
-        map.put("Onion", R.drawable.onion);
-        map.put("Green Pepper", R.drawable.greenpepper);
-        map.put("BBQ Chicken", R.drawable.bbqchicken);
-        map.put("Provolone", R.drawable.provolone);
-        map.put("Olive", R.drawable.olive);
-        map.put("Spinach", R.drawable.spinach);
-        map.put("Pineapple", R.drawable.pineapple);
-        map.put("Tomato", R.drawable.tomato);
-        map.put("Beef", R.drawable.beef);
-        map.put("Ham", R.drawable.ham);
-        map.put("Cheddar", R.drawable.cheddar);
-
-        // Add more toppings and their corresponding images here
-        return map;
+        return rowCount;
     }
 
     /**
@@ -0,0 +1,126 @@
+package com.example.myapplication;
+
+import p5.Topping;
+import p5.Toppings;
+
+/**
+ * The toppings as the app shows them: display name and picture, each held in an array
+ * indexed by {@link Topping} ordinal.
+ * Built once and shared by every screen, so showing or selecting a topping never parses
+ * or compares strings; selections are {@link Toppings} masks.
+ * @author Siddharth, Ibtesaam
+ */
+public final class ToppingCatalog {
+
+    /** Number of toppings in the catalog. */
+    public static final int SIZE = Topping.values().length;
+
+    /** Display name of each topping, by ordinal. */
+    private static final String[] NAMES = new String[SIZE];
+
+    /** Drawable resource of each topping, by ordinal. */
+    private static final int[] DRAWABLES = new int[SIZE];
+
+    /** Ordinals of the toppings in the order the menu lists them. */
+    private static final int[] MENU_ORDER = new int[SIZE];
+
+    static {
+        // Listed in menu order
+        int position = 0;
+        position = add(position, Topping.SAUSAGE, "Sausage", R.drawable.sausage);
+        position = add(position, Topping.PEPPERONI, "Pepperoni", R.drawable.pepperoni);
+        position = add(position, Topping.GREEN_PEPPER, "Green Pepper", R.drawable.greenpepper);
+        position = add(position, Topping.ONION, "Onion", R.drawable.onion);
+        position = add(position, Topping.MUSHROOM, "Mushroom", R.drawable.mushroom);
+        position = add(position, Topping.BBQ_CHICKEN, "BBQ Chicken", R.drawable.bbqchicken);
+        position = add(position, Topping.BEEF, "Beef", R.drawable.beef);
+        position = add(position, Topping.HAM, "Ham", R.drawable.ham);
+        position = add(position, Topping.PROVOLONE, "Provolone", R.drawable.provolone);
+        position = add(position, Topping.CHEDDAR, "Cheddar", R.drawable.cheddar);
+        position = add(position, Topping.PINEAPPLE, "Pineapple", R.drawable.pineapple);
+        position = add(position, Topping.OLIVE, "Olive", R.drawable.olive);
+        position = add(position, Topping.SPINACH, "Spinach", R.drawable.spinach);
+        add(position, Topping.TOMATO, "Tomato", R.drawable.tomato);
+    }
+
+    /**
+     * Private constructor to prevent instantiation of this utility class.
+     */
+    private ToppingCatalog() {
+    }
+
+    /**
+     * Adds a topping to the catalog.
+     *
+     * @param position Where the topping appears in the menu.
+     * @param topping  The topping.
+     * @param name     The display name.
+     * @param drawable The drawable resource of its picture.
+     * @return The next menu position.
+     */
+    private static int add(int position, Topping topping, String name, int drawable) {
+        int ordinal = topping.ordinal();
+        NAMES[ordinal] = name;
+        DRAWABLES[ordinal] = drawable;
+        MENU_ORDER[position] = ordinal;
+        return position + 1;
+    }
+
+    /**
+     * Gets the display name of a topping.
+     *
+     * @param ordinal The ordinal of the topping.
+     * @return The display name.
+     */
+    public static String name(int ordinal) {
+        return NAMES[ordinal];
+    }
+
+    /**
+     * Gets the picture of a topping.
+     *
+     * @param ordinal The ordinal of the topping.
+     * @return The drawable resource.
+     */
+    public static int drawable(int ordinal) {
+        return DRAWABLES[ordinal];
+    }
+
+    /**
+     * Lists the ordinals of the toppings in a mask, in menu order.
+     *
+     * @param mask The toppings, as a {@link Toppings} mask.
+     * @param out  The array to fill; must hold at least {@link #SIZE} entries.
+     * @return The number of ordinals written.
+     */
+    public static int menuOrder(int mask, int[] out) {
+        int count = 0;
+        for (int ordinal : MENU_ORDER) {
+            if ((mask & (1 << ordinal)) != 0) {
+                out[count++] = ordinal;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Appends the display names of the toppings in a mask, in menu order, separated by commas.
+     *
+     * @param out  The builder to append to.
+     * @param mask The toppings, as a {@link Toppings} mask.
+     * @return The builder.
+     */
+    public static StringBuilder appendNames(StringBuilder out, int mask) {
+        boolean first = true;
+        for (int ordinal : MENU_ORDER) {
+            if ((mask & (1 << ordinal)) != 0) {
+                if (!first) {
+                    out.append(", ");
+                }
+                out.append(NAMES[ordinal]);
+                first = false;
+            }
+        }
+        return out;
+    }
+}
@@ -0,0 +1,46 @@
+plugins {
+    java
+    alias(libs.plugins.jmh)
+}
+
+// Microbenchmarks of the core module. Run them all with ./gradlew :benchmarks:jmh
+// The load generator runs with ./gradlew :benchmarks:loadTest --args="--threads=8 --rate=20000"
+// The HTTP intake is loaded with ./gradlew :benchmarks:httpLoadTest once ./gradlew :server:run is up
+// The oven policies are compared with ./gradlew :benchmarks:ovenSimulation --args="--ovens=12 --rate=15"
+tasks.withType<JavaCompile>().configureEach {
+    options.release.set(11)
+}
+
+dependencies {
+    implementation(project(":core"))
+}
+
+jmh {
+    jmhVersion.set(libs.versions.jmh)
+    fork.set(1)
+    warmupIterations.set(3)
+    iterations.set(5)
+    resultFormat.set("JSON")
+}
+
+tasks.register<JavaExec>("loadTest") {
+    description = "Pushes a seeded order workload through the core and reports throughput and latency."
+    group = "verification"
+    classpath = sourceSets["main"].runtimeClasspath
+    mainClass.set("p5.benchmarks.LoadGenerator")
+    jvmArgs("-Xmx2g")
+}
+
+tasks.register<JavaExec>("httpLoadTest") {
+    description = "Posts a seeded order workload to the intake server and reports throughput and latency."
+    group = "verification"
+    classpath = sourceSets["main"].runtimeClasspath
+    mainClass.set("p5.benchmarks.HttpLoadGenerator")
+}
+
+tasks.register<JavaExec>("ovenSimulation") {
+    description = "Compares oven scheduling policies on a simulated stream of orders."
+    group = "verification"
+    classpath = sourceSets["main"].runtimeClasspath
+    mainClass.set("p5.benchmarks.OvenPolicyComparison")
+}
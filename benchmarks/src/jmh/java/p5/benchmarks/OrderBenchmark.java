@@ -0,0 +1,118 @@
+package p5.benchmarks;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import p5.Order;
+import p5.Pizza;
+import p5.PizzaFactory;
+import p5.PizzaFactoryRegistry;
+import p5.ReceiptRenderer;
+import p5.Style;
+import p5.Topping;
+
+/**
+ * Benchmarks totaling and printing an order.
+ * @author Siddharth, Ibtesaam
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class OrderBenchmark {
+
+    /** Number of pizzas in the order. */
+    @Param({"1", "4", "20"})
+    public int pizzas;
+
+    /** The order under test. */
+    private Order order;
+
+    /** Renderer reused across receipts. */
+    private final ReceiptRenderer renderer = new ReceiptRenderer();
+
+    /** Buffer reused across receipts. */
+    private final ByteBuffer receipt = ByteBuffer.allocateDirect(16 * 1024);
+
+    /**
+     * Builds an order with a mix of specialty and build-your-own pizzas.
+     */
+    @Setup
+    public void setUp() {
+        order = newOrder(pizzas);
+    }
+
+    /**
+     * Builds an order with a mix of both styles, specialty pizzas, and build-your-own pizzas.
+     *
+     * @param count The number of pizzas.
+     * @return The order.
+     */
+    static Order newOrder(int count) {
+        PizzaFactory newYork = PizzaFactoryRegistry.forStyle(Style.NY);
+        PizzaFactory chicago = PizzaFactoryRegistry.forStyle(Style.CHICAGO);
+        Order order = new Order();
+        for (int i = 0; i < count; i++) {
+            PizzaFactory factory = i % 2 == 0 ? newYork : chicago;
+            switch (i % 4) {
+                case 0:
+                    order.addPizza(factory.createDeluxe());
+                    break;
+                case 1:
+                    order.addPizza(factory.createMeatzza());
+                    break;
+                case 2:
+                    order.addPizza(factory.createBBQChicken());
+                    break;
+                default:
+                    Pizza pizza = factory.createBuildYourOwn();
+                    pizza.addTopping(Topping.PEPPERONI);
+                    pizza.addTopping(Topping.MUSHROOM);
+                    pizza.addTopping(Topping.OLIVE);
+                    order.addPizza(pizza);
+                    break;
+            }
+        }
+        return order;
+    }
+
+    /**
+     * Gets the order total.
+     *
+     * @return The total.
+     */
+    @Benchmark
+    public double getTotal() {
+        return order.getTotal();
+    }
+
+    /**
+     * Renders the order as text.
+     *
+     * @return The text.
+     */
+    @Benchmark
+    public String orderToString() {
+        return order.toString();
+    }
+
+    /**
+     * Renders the order's receipt into a reused buffer, as a printer or log writer would.
+     *
+     * @return The buffer.
+     */
+    @Benchmark
+    public ByteBuffer renderReceipt() {
+        receipt.clear();
+        renderer.render(order, receipt);
+        return receipt;
+    }
+}
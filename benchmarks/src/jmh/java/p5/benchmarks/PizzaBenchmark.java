@@ -0,0 +1,101 @@
+package p5.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import p5.Pizza;
+import p5.PizzaFactory;
+import p5.PizzaFactoryRegistry;
+import p5.Style;
+import p5.Topping;
+
+/**
+ * Benchmarks creating, pricing, and topping single pizzas.
+ * @author Siddharth, Ibtesaam
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class PizzaBenchmark {
+
+    /** Factory for the pizzas under test. */
+    private PizzaFactory factory;
+
+    /** A specialty pizza to price. */
+    private Pizza deluxe;
+
+    /** A build-your-own pizza to price and top. */
+    private Pizza buildYourOwn;
+
+    /**
+     * Creates the pizzas under test.
+     */
+    @Setup
+    public void setUp() {
+        factory = PizzaFactoryRegistry.forStyle(Style.CHICAGO);
+        deluxe = factory.createDeluxe();
+        buildYourOwn = factory.createBuildYourOwn();
+        buildYourOwn.addTopping(Topping.SAUSAGE);
+        buildYourOwn.addTopping(Topping.ONION);
+    }
+
+    /**
+     * Creates an interned specialty pizza through the factory.
+     *
+     * @return The pizza.
+     */
+    @Benchmark
+    public Pizza createDeluxe() {
+        return factory.createDeluxe();
+    }
+
+    /**
+     * Creates a new build-your-own pizza through the factory.
+     *
+     * @return The pizza.
+     */
+    @Benchmark
+    public Pizza createBuildYourOwn() {
+        return factory.createBuildYourOwn();
+    }
+
+    /**
+     * Prices a specialty pizza.
+     *
+     * @return The price.
+     */
+    @Benchmark
+    public double priceDeluxe() {
+        return deluxe.price();
+    }
+
+    /**
+     * Prices a build-your-own pizza.
+     *
+     * @return The price.
+     */
+    @Benchmark
+    public double priceBuildYourOwn() {
+        return buildYourOwn.price();
+    }
+
+    /**
+     * Adds a topping and takes it off again, so the pizza is unchanged between invocations.
+     *
+     * @return The price after adding the topping.
+     */
+    @Benchmark
+    public long addAndRemoveTopping() {
+        buildYourOwn.addTopping(Topping.MUSHROOM);
+        long price = buildYourOwn.priceCents();
+        buildYourOwn.removeTopping(Topping.MUSHROOM);
+        return price;
+    }
+}
@@ -0,0 +1,90 @@
+package p5.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import p5.Order;
+import p5.StoreOrdersManager;
+
+/**
+ * Benchmarks adding, removing, and scanning store orders with a store of realistic size.
+ * The store is kept in memory; no journal is opened.
+ * @author Siddharth, Ibtesaam
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class StoreBenchmark {
+
+    /** Number of orders already in the store. */
+    @Param({"1000", "100000"})
+    public int storeSize;
+
+    /** The store under test. */
+    private StoreOrdersManager store;
+
+    /**
+     * Fills the store with orders of three pizzas each.
+     */
+    @Setup
+    public void setUp() {
+        store = StoreOrdersManager.getInstance();
+        while (store.getOrderCount() < storeSize) {
+            store.addOrder(OrderBenchmark.newOrder(3));
+        }
+    }
+
+    /**
+     * Places a new order and removes it again, so the store size stays constant.
+     *
+     * @return The removed order.
+     */
+    @Benchmark
+    public Order addAndRemove() {
+        Order order = OrderBenchmark.newOrder(3);
+        store.addOrder(order);
+        return store.removeOrder(order.getNumber());
+    }
+
+    /**
+     * Looks up an order by its number.
+     *
+     * @return The order.
+     */
+    @Benchmark
+    public Order lookUp() {
+        return store.getOrder(storeSize / 2);
+    }
+
+    /**
+     * Sums the totals of every order in the store.
+     *
+     * @return The sum in cents.
+     */
+    @Benchmark
+    public long scanTotals() {
+        long total = 0L;
+        for (Order order : store.getStoreOrders()) {
+            total += order.getTotalCents();
+        }
+        return total;
+    }
+
+    /**
+     * Reads the store total from the running sales analytics.
+     *
+     * @return The total in cents.
+     */
+    @Benchmark
+    public long analyticsTotal() {
+        return store.getAnalytics().getTotalCents();
+    }
+}
@@ -0,0 +1,312 @@
+package p5.benchmarks;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.ByteBuffer;
+import java.time.Duration;
+import java.util.Locale;
+import java.util.SplittableRandom;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+import p5.LatencyHistogram;
+import p5.Order;
+import p5.OrderCodec;
+
+/**
+ * Load generator for the order intake server: posts a seeded stream of {@link Workload} orders
+ * over HTTP from several threads and reports request throughput and latency percentiles.
+ * Requests use HTTP/1.1 over a shared client, so connections are kept alive and reused.
+ * Start the server first with {@code ./gradlew :server:run}.
+ * <p>
+ * Options, all of the form {@code --name=value}:
+ * <ul>
+ *     <li>{@code url} base URL of the server (default {@code http://localhost:8080}),</li>
+ *     <li>{@code threads} number of client threads (default 16),</li>
+ *     <li>{@code orders} number of measured orders across all threads (default 200,000),</li>
+ *     <li>{@code warmup} number of unmeasured orders posted first (default 20,000),</li>
+ *     <li>{@code rate} target orders per second across all threads, or 0 to run flat out (default 0),</li>
+ *     <li>{@code seed} seed of the order stream (default 42),</li>
+ *     <li>{@code ny-share} share of New York style pizzas (default 0.5),</li>
+ *     <li>{@code remove} whether each order is deleted right after it is placed, keeping the
+ *         store size constant; each deletion is a request of its own (default false).</li>
+ * </ul>
+ * Run it with {@code ./gradlew :benchmarks:httpLoadTest --args="--threads=32 --rate=5000"}.
+ * @author Siddharth, Ibtesaam
+ */
+public final class HttpLoadGenerator {
+
+    /** Content type of an encoded order. */
+    private static final String ORDER_CONTENT_TYPE = "application/x-p5-order";
+
+    /** Field holding the order number in the server's answer to a new order. */
+    private static final String ORDER_FIELD = "\"order\":";
+
+    /** Base URL of the server. */
+    private String url = "http://localhost:8080";
+
+    /** Number of client threads. */
+    private int threads = 16;
+
+    /** Number of measured orders across all threads. */
+    private long orders = 200_000L;
+
+    /** Number of unmeasured warm-up orders across all threads. */
+    private long warmup = 20_000L;
+
+    /** Target orders per second across all threads, or 0 to run flat out. */
+    private double rate;
+
+    /** Seed of the order stream. */
+    private long seed = 42L;
+
+    /** Share of New York style pizzas. */
+    private double newYorkShare = 0.5;
+
+    /** Whether each order is deleted right after it is placed. */
+    private boolean remove;
+
+    /** Latency of each measured request, from when it was due to when its answer arrived. */
+    private final LatencyHistogram latency = new LatencyHistogram("http_request_nanos");
+
+    /** Number of measured requests. */
+    private final LongAdder requests = new LongAdder();
+
+    /** Number of measured requests that failed or got an unexpected status. */
+    private final LongAdder errors = new LongAdder();
+
+    /** The first failure, to report. */
+    private final AtomicReference<String> firstError = new AtomicReference<>();
+
+    /**
+     * Runs the load generator.
+     *
+     * @param args Options of the form {@code --name=value}.
+     * @throws InterruptedException If interrupted while waiting for the workers.
+     */
+    public static void main(String[] args) throws InterruptedException {
+        HttpLoadGenerator generator = new HttpLoadGenerator();
+        generator.parse(args);
+        generator.run();
+    }
+
+    /**
+     * Reads the options.
+     *
+     * @param args Options of the form {@code --name=value}.
+     * @throws IllegalArgumentException If an option is unknown or malformed.
+     */
+    private void parse(String[] args) {
+        for (String arg : args) {
+            int equals = arg.indexOf('=');
+            if (!arg.startsWith("--") || equals < 0) {
+                throw new IllegalArgumentException("Expected --name=value, got " + arg);
+            }
+            String name = arg.substring(2, equals);
+            String value = arg.substring(equals + 1);
+            switch (name) {
+                case "url":
+                    url = value.endsWith("/") ? value.substring(0, value.length() - 1) : value;
+                    break;
+                case "threads":
+                    threads = Integer.parseInt(value);
+                    break;
+                case "orders":
+                    orders = Long.parseLong(value);
+                    break;
+                case "warmup":
+                    warmup = Long.parseLong(value);
+                    break;
+                case "rate":
+                    rate = Double.parseDouble(value);
+                    break;
+                case "seed":
+                    seed = Long.parseLong(value);
+                    break;
+                case "ny-share":
+                    newYorkShare = Double.parseDouble(value);
+                    break;
+                case "remove":
+                    remove = Boolean.parseBoolean(value);
+                    break;
+                default:
+                    throw new IllegalArgumentException("Unknown option --" + name);
+            }
+        }
+        if (threads < 1) {
+            throw new IllegalArgumentException("Need at least one thread");
+        }
+    }
+
+    /**
+     * Runs the warm-up and the measured phase and prints the report.
+     *
+     * @throws InterruptedException If interrupted while waiting for the workers.
+     */
+    private void run() throws InterruptedException {
+        HttpClient client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+        Workload workload = Workload.typical(newYorkShare);
+        System.out.printf(Locale.ROOT, "url=%s threads=%d orders=%d warmup=%d rate=%s seed=%d remove=%b%n",
+                url, threads, orders, warmup, rate > 0 ? String.valueOf(rate) : "max", seed, remove);
+        runPhase(client, workload, warmup, seed - 1, false);
+        long elapsed = runPhase(client, workload, orders, seed, true);
+        report(elapsed);
+    }
+
+    /**
+     * Runs one phase on all client threads.
+     *
+     * @param client    The HTTP client.
+     * @param workload  The order mix.
+     * @param total     The number of orders across all threads.
+     * @param phaseSeed The seed of this phase's order stream.
+     * @param measured  Whether to record latency and errors.
+     * @return The wall-clock time of the phase in nanoseconds.
+     * @throws InterruptedException If interrupted while waiting for the workers.
+     */
+    private long runPhase(HttpClient client, Workload workload, long total, long phaseSeed, boolean measured)
+            throws InterruptedException {
+        CountDownLatch ready = new CountDownLatch(threads);
+        CountDownLatch go = new CountDownLatch(1);
+        Thread[] workers = new Thread[threads];
+        long intervalNanos = rate > 0 ? (long) (threads * 1e9 / rate) : 0L;
+        for (int t = 0; t < threads; t++) {
+            long count = total / threads + (t < total % threads ? 1 : 0);
+            SplittableRandom random = new SplittableRandom(phaseSeed * 31 + t);
+            workers[t] = new Thread(() -> {
+                ready.countDown();
+                try {
+                    go.await();
+                } catch (InterruptedException e) {
+                    return;
+                }
+                work(client, workload, random, count, intervalNanos, measured);
+            }, "http-load-" + t);
+            workers[t].start();
+        }
+        ready.await();
+        long start = System.nanoTime();
+        go.countDown();
+        for (Thread worker : workers) {
+            worker.join();
+        }
+        return System.nanoTime() - start;
+    }
+
+    /**
+     * Posts a worker's share of the orders.
+     *
+     * @param client        The HTTP client.
+     * @param workload      The order mix.
+     * @param random        The worker's random generator.
+     * @param count         The number of orders to post.
+     * @param intervalNanos Time between this worker's orders, or 0 to run flat out.
+     * @param measured      Whether to record latency and errors.
+     */
+    private void work(HttpClient client, Workload workload, SplittableRandom random, long count,
+                      long intervalNanos, boolean measured) {
+        URI orders = URI.create(url + "/orders");
+        ByteBuffer buffer = ByteBuffer.allocate(1024);
+        long start = System.nanoTime();
+        for (long i = 0; i < count; i++) {
+            long due = System.nanoTime();
+            if (intervalNanos > 0) {
+                due = start + i * intervalNanos;
+                long wait = due - System.nanoTime();
+                if (wait > 0) {
+                    LockSupport.parkNanos(wait);
+                }
+            }
+            Order order = workload.nextOrder(random);
+            if (buffer.capacity() < OrderCodec.maxEncodedSize(order)) {
+                buffer = ByteBuffer.allocate(OrderCodec.maxEncodedSize(order));
+            }
+            buffer.clear();
+            OrderCodec.encode(order, buffer);
+            HttpRequest post = HttpRequest.newBuilder(orders)
+                    .header("Content-Type", ORDER_CONTENT_TYPE)
+                    .POST(HttpRequest.BodyPublishers.ofByteArray(buffer.array(), 0, buffer.position()))
+                    .build();
+            HttpResponse<String> placed = send(client, post, 201, measured);
+            if (measured) {
+                latency.recordSince(due);
+            }
+            if (remove && placed != null) {
+                String body = placed.body();
+                int from = body.indexOf(ORDER_FIELD) + ORDER_FIELD.length();
+                int to = from;
+                while (to < body.length() && Character.isDigit(body.charAt(to))) {
+                    to++;
+                }
+                HttpRequest delete = HttpRequest.newBuilder(URI.create(url + "/orders/" + body.substring(from, to)))
+                        .DELETE()
+                        .build();
+                long deleteStart = System.nanoTime();
+                send(client, delete, 200, measured);
+                if (measured) {
+                    latency.recordSince(deleteStart);
+                }
+            }
+        }
+    }
+
+    /**
+     * Sends one request and checks its status.
+     *
+     * @param client   The HTTP client.
+     * @param request  The request.
+     * @param expected The expected status.
+     * @param measured Whether to count the request and any error.
+     * @return The response, or null if the request failed or got another status.
+     */
+    private HttpResponse<String> send(HttpClient client, HttpRequest request, int expected, boolean measured) {
+        if (measured) {
+            requests.increment();
+        }
+        String error;
+        try {
+            HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
+            if (response.statusCode() == expected) {
+                return response;
+            }
+            error = request.method() + " " + request.uri() + ": " + response.statusCode() + " " + response.body();
+        } catch (IOException e) {
+            error = request.method() + " " + request.uri() + ": " + e;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            error = "interrupted";
+        }
+        if (measured) {
+            errors.increment();
+            firstError.compareAndSet(null, error);
+        }
+        return null;
+    }
+
+    /**
+     * Prints the results of the measured phase.
+     *
+     * @param elapsedNanos The wall-clock time of the measured phase.
+     */
+    private void report(long elapsedNanos) {
+        double seconds = elapsedNanos / 1e9;
+        LatencyHistogram.Snapshot snapshot = latency.snapshot();
+        System.out.printf(Locale.ROOT, "elapsed      %.3f s%n", seconds);
+        System.out.printf(Locale.ROOT, "throughput   %.0f requests/s, %.0f orders/s%n",
+                requests.sum() / seconds, orders / seconds);
+        System.out.printf(Locale.ROOT, "latency (us) p50=%.1f p90=%.1f p99=%.1f p99.9=%.1f max=%.1f mean=%.1f%n",
+                snapshot.getValueAtPercentile(50) / 1e3, snapshot.getValueAtPercentile(90) / 1e3,
+                snapshot.getValueAtPercentile(99) / 1e3, snapshot.getValueAtPercentile(99.9) / 1e3,
+                snapshot.getMax() / 1e3, snapshot.getMean() / 1e3);
+        System.out.printf(Locale.ROOT, "errors       %d%s%n", errors.sum(),
+                firstError.get() == null ? "" : " (first: " + firstError.get() + ")");
+    }
+}
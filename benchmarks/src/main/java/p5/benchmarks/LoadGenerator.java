@@ -0,0 +1,280 @@
+package p5.benchmarks;
+
+import java.io.File;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.util.Locale;
+import java.util.SplittableRandom;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+import p5.LatencyHistogram;
+import p5.Order;
+import p5.OrderJournal;
+import p5.StoreOrdersManager;
+
+/**
+ * Throughput harness that pushes a seeded stream of {@link Workload} orders through the core
+ * from several threads and reports sustained throughput, latency percentiles, and allocation rate.
+ * Each worker builds an order through the pizza factories and places it in the
+ * {@link StoreOrdersManager}. Workers either run flat out or are paced to a target rate; when
+ * paced, latency is measured from the moment an order was due, so a stalled store shows up as
+ * queueing delay instead of being hidden.
+ * <p>
+ * Options, all of the form {@code --name=value}:
+ * <ul>
+ *     <li>{@code threads} number of worker threads (default: available processors),</li>
+ *     <li>{@code orders} number of measured orders across all threads (default 1,000,000),</li>
+ *     <li>{@code warmup} number of unmeasured orders run first (default 100,000),</li>
+ *     <li>{@code rate} target orders per second across all threads, or 0 to run flat out (default 0),</li>
+ *     <li>{@code seed} seed of the order stream (default 42),</li>
+ *     <li>{@code ny-share} share of New York style pizzas (default 0.5),</li>
+ *     <li>{@code remove} whether each order is removed right after it is placed, keeping the
+ *         store size constant (default false),</li>
+ *     <li>{@code journal} directory to journal orders to; orders stay in memory if not given,</li>
+ *     <li>{@code durability} journal durability mode (default GROUP).</li>
+ * </ul>
+ * Run it with {@code ./gradlew :benchmarks:loadTest --args="--threads=8 --rate=20000"}.
+ * @author Siddharth, Ibtesaam
+ */
+public final class LoadGenerator {
+
+    /** Number of worker threads. */
+    private int threads = Runtime.getRuntime().availableProcessors();
+
+    /** Number of measured orders across all threads. */
+    private long orders = 1_000_000L;
+
+    /** Number of unmeasured warm-up orders across all threads. */
+    private long warmup = 100_000L;
+
+    /** Target orders per second across all threads, or 0 to run flat out. */
+    private double rate;
+
+    /** Seed of the order stream. */
+    private long seed = 42L;
+
+    /** Share of New York style pizzas. */
+    private double newYorkShare = 0.5;
+
+    /** Whether each order is removed right after it is placed. */
+    private boolean remove;
+
+    /** Directory to journal orders to, or null to keep them in memory only. */
+    private File journal;
+
+    /** Journal durability mode. */
+    private OrderJournal.Durability durability = OrderJournal.Durability.GROUP;
+
+    /** Latency of each measured order, from when it was due to when it was placed. */
+    private final LatencyHistogram latency = new LatencyHistogram("order_latency_nanos");
+
+    /** Number of pizzas in the measured orders. */
+    private final LongAdder pizzas = new LongAdder();
+
+    /** Bytes allocated by the workers during the measured run. */
+    private final LongAdder allocatedBytes = new LongAdder();
+
+    /**
+     * Runs the load generator.
+     *
+     * @param args Options of the form {@code --name=value}.
+     * @throws IOException          If the journal cannot be opened.
+     * @throws InterruptedException If interrupted while waiting for the workers.
+     */
+    public static void main(String[] args) throws IOException, InterruptedException {
+        LoadGenerator generator = new LoadGenerator();
+        generator.parse(args);
+        generator.run();
+    }
+
+    /**
+     * Reads the options.
+     *
+     * @param args Options of the form {@code --name=value}.
+     * @throws IllegalArgumentException If an option is unknown or malformed.
+     */
+    private void parse(String[] args) {
+        for (String arg : args) {
+            int equals = arg.indexOf('=');
+            if (!arg.startsWith("--") || equals < 0) {
+                throw new IllegalArgumentException("Expected --name=value, got " + arg);
+            }
+            String name = arg.substring(2, equals);
+            String value = arg.substring(equals + 1);
+            switch (name) {
+                case "threads":
+                    threads = Integer.parseInt(value);
+                    break;
+                case "orders":
+                    orders = Long.parseLong(value);
+                    break;
+                case "warmup":
+                    warmup = Long.parseLong(value);
+                    break;
+                case "rate":
+                    rate = Double.parseDouble(value);
+                    break;
+                case "seed":
+                    seed = Long.parseLong(value);
+                    break;
+                case "ny-share":
+                    newYorkShare = Double.parseDouble(value);
+                    break;
+                case "remove":
+                    remove = Boolean.parseBoolean(value);
+                    break;
+                case "journal":
+                    journal = new File(value);
+                    break;
+                case "durability":
+                    durability = OrderJournal.Durability.valueOf(value.toUpperCase(Locale.ROOT));
+                    break;
+                default:
+                    throw new IllegalArgumentException("Unknown option --" + name);
+            }
+        }
+        if (threads < 1) {
+            throw new IllegalArgumentException("Need at least one thread");
+        }
+    }
+
+    /**
+     * Runs the warm-up and the measured phase and prints the report.
+     *
+     * @throws IOException          If the journal cannot be opened.
+     * @throws InterruptedException If interrupted while waiting for the workers.
+     */
+    private void run() throws IOException, InterruptedException {
+        StoreOrdersManager store = StoreOrdersManager.getInstance();
+        if (journal != null) {
+            store.openJournal(journal, durability);
+        }
+        Workload workload = Workload.typical(newYorkShare);
+
+        System.out.printf(Locale.ROOT, "threads=%d orders=%d warmup=%d rate=%s seed=%d remove=%b journal=%s%n",
+                threads, orders, warmup, rate > 0 ? String.valueOf(rate) : "max", seed, remove,
+                journal == null ? "none" : journal + " (" + durability + ")");
+        runPhase(store, workload, warmup, seed - 1, false);
+        long elapsed = runPhase(store, workload, orders, seed, true);
+        report(elapsed);
+    }
+
+    /**
+     * Runs one phase on all worker threads.
+     *
+     * @param store     The store to place orders in.
+     * @param workload  The order mix.
+     * @param total     The number of orders across all threads.
+     * @param phaseSeed The seed of this phase's order stream.
+     * @param measured  Whether to record latency, pizzas, and allocation.
+     * @return The wall-clock time of the phase in nanoseconds.
+     * @throws InterruptedException If interrupted while waiting for the workers.
+     */
+    private long runPhase(StoreOrdersManager store, Workload workload, long total, long phaseSeed,
+                          boolean measured) throws InterruptedException {
+        CountDownLatch ready = new CountDownLatch(threads);
+        CountDownLatch go = new CountDownLatch(1);
+        Thread[] workers = new Thread[threads];
+        long intervalNanos = rate > 0 ? (long) (threads * 1e9 / rate) : 0L;
+        for (int t = 0; t < threads; t++) {
+            long count = total / threads + (t < total % threads ? 1 : 0);
+            SplittableRandom random = new SplittableRandom(phaseSeed * 31 + t);
+            workers[t] = new Thread(() -> {
+                ready.countDown();
+                try {
+                    go.await();
+                } catch (InterruptedException e) {
+                    return;
+                }
+                work(store, workload, random, count, intervalNanos, measured);
+            }, "load-" + t);
+            workers[t].start();
+        }
+        ready.await();
+        long start = System.nanoTime();
+        go.countDown();
+        for (Thread worker : workers) {
+            worker.join();
+        }
+        return System.nanoTime() - start;
+    }
+
+    /**
+     * Places a worker's share of the orders.
+     *
+     * @param store         The store to place orders in.
+     * @param workload      The order mix.
+     * @param random        The worker's random generator.
+     * @param count         The number of orders to place.
+     * @param intervalNanos Time between this worker's orders, or 0 to run flat out.
+     * @param measured      Whether to record latency, pizzas, and allocation.
+     */
+    private void work(StoreOrdersManager store, Workload workload, SplittableRandom random, long count,
+                      long intervalNanos, boolean measured) {
+        long allocatedBefore = allocatedBytes();
+        long pizzaCount = 0L;
+        long start = System.nanoTime();
+        for (long i = 0; i < count; i++) {
+            long due = System.nanoTime();
+            if (intervalNanos > 0) {
+                due = start + i * intervalNanos;
+                long wait = due - System.nanoTime();
+                if (wait > 0) {
+                    LockSupport.parkNanos(wait);
+                }
+            }
+            Order order = workload.nextOrder(random);
+            store.addOrder(order);
+            if (measured) {
+                latency.recordSince(due);
+            }
+            pizzaCount += order.getPizzas().size();
+            if (remove) {
+                store.removeOrder(order.getNumber());
+            }
+        }
+        if (measured) {
+            pizzas.add(pizzaCount);
+            allocatedBytes.add(allocatedBytes() - allocatedBefore);
+        }
+    }
+
+    /**
+     * Gets the number of bytes the current thread has allocated so far.
+     *
+     * @return The allocated bytes, or 0 if the JVM cannot measure them.
+     */
+    private static long allocatedBytes() {
+        java.lang.management.ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+        if (bean instanceof com.sun.management.ThreadMXBean) {
+            com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) bean;
+            if (threads.isThreadAllocatedMemorySupported() && threads.isThreadAllocatedMemoryEnabled()) {
+                return threads.getThreadAllocatedBytes(Thread.currentThread().getId());
+            }
+        }
+        return 0L;
+    }
+
+    /**
+     * Prints the results of the measured phase.
+     *
+     * @param elapsedNanos The wall-clock time of the measured phase.
+     */
+    private void report(long elapsedNanos) {
+        double seconds = elapsedNanos / 1e9;
+        LatencyHistogram.Snapshot snapshot = latency.snapshot();
+        long allocated = allocatedBytes.sum();
+        System.out.printf(Locale.ROOT, "elapsed      %.3f s%n", seconds);
+        System.out.printf(Locale.ROOT, "throughput   %.0f orders/s, %.0f pizzas/s%n",
+                orders / seconds, pizzas.sum() / seconds);
+        System.out.printf(Locale.ROOT, "latency (us) p50=%.1f p90=%.1f p99=%.1f p99.9=%.1f max=%.1f mean=%.1f%n",
+                snapshot.getValueAtPercentile(50) / 1e3, snapshot.getValueAtPercentile(90) / 1e3,
+                snapshot.getValueAtPercentile(99) / 1e3, snapshot.getValueAtPercentile(99.9) / 1e3,
+                snapshot.getMax() / 1e3, snapshot.getMean() / 1e3);
+        System.out.printf(Locale.ROOT, "allocation   %.1f MB/s, %.0f bytes/order%n",
+                allocated / seconds / (1 << 20), orders == 0 ? 0.0 : (double) allocated / orders);
+        System.out.printf(Locale.ROOT, "store        %d orders%n", StoreOrdersManager.getInstance().getOrderCount());
+    }
+}
@@ -0,0 +1,107 @@
+package p5.benchmarks;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.SplittableRandom;
+
+import p5.BakeProfile;
+import p5.Order;
+import p5.OvenScheduler;
+import p5.OvenSimulation;
+
+/**
+ * Compares the {@link OvenScheduler} policies on the same seeded stream of {@link Workload}
+ * orders. Orders arrive as a Poisson process at the given rate, and each policy bakes them
+ * with the {@linkplain BakeProfile#standard() standard bake profile} on a fresh set of ovens.
+ * <p>
+ * Options, all of the form {@code --name=value}:
+ * <ul>
+ *     <li>{@code ovens} number of ovens (default 16),</li>
+ *     <li>{@code orders} number of orders (default 5,000),</li>
+ *     <li>{@code rate} orders arriving per hour (default 18),</li>
+ *     <li>{@code seed} seed of the order stream (default 42),</li>
+ *     <li>{@code ny-share} share of New York style pizzas (default 0.5).</li>
+ * </ul>
+ * Run it with {@code ./gradlew :benchmarks:ovenSimulation --args="--ovens=12 --rate=15"}.
+ * @author Siddharth, Ibtesaam
+ */
+public final class OvenPolicyComparison {
+
+    /** Seconds in an hour. */
+    private static final double SECONDS_PER_HOUR = 3600.0;
+
+    /**
+     * Prevents instantiation.
+     */
+    private OvenPolicyComparison() {
+    }
+
+    /**
+     * Runs the comparison.
+     *
+     * @param args Options of the form {@code --name=value}.
+     * @throws IllegalArgumentException If an option is unknown or malformed.
+     */
+    public static void main(String[] args) {
+        int ovens = 16;
+        int orderCount = 5_000;
+        double rate = 18.0;
+        long seed = 42L;
+        double newYorkShare = 0.5;
+        for (String arg : args) {
+            int equals = arg.indexOf('=');
+            if (!arg.startsWith("--") || equals < 0) {
+                throw new IllegalArgumentException("Expected --name=value, got " + arg);
+            }
+            String name = arg.substring(2, equals);
+            String value = arg.substring(equals + 1);
+            switch (name) {
+                case "ovens":
+                    ovens = Integer.parseInt(value);
+                    break;
+                case "orders":
+                    orderCount = Integer.parseInt(value);
+                    break;
+                case "rate":
+                    rate = Double.parseDouble(value);
+                    break;
+                case "seed":
+                    seed = Long.parseLong(value);
+                    break;
+                case "ny-share":
+                    newYorkShare = Double.parseDouble(value);
+                    break;
+                default:
+                    throw new IllegalArgumentException("Unknown option --" + name);
+            }
+        }
+        if (rate <= 0) {
+            throw new IllegalArgumentException("Rate must be positive");
+        }
+
+        Workload workload = Workload.typical(newYorkShare);
+        SplittableRandom random = new SplittableRandom(seed);
+        List<Order> orders = new ArrayList<>(orderCount);
+        long[] arrivals = new long[orderCount];
+        double clock = 0.0;
+        for (int i = 0; i < orderCount; i++) {
+            clock += -Math.log(1.0 - random.nextDouble()) * SECONDS_PER_HOUR / rate;
+            arrivals[i] = (long) clock;
+            orders.add(workload.nextOrder(random));
+        }
+
+        System.out.printf(Locale.ROOT, "ovens=%d orders=%d rate=%.1f/h seed=%d ny-share=%.2f%n",
+                ovens, orderCount, rate, seed, newYorkShare);
+        System.out.println("policy                 mean(min)  p50(min)  p95(min)  max(min)  makespan(h)  utilization");
+        for (OvenScheduler.Policy policy : OvenScheduler.Policy.values()) {
+            OvenScheduler scheduler = new OvenScheduler(ovens, BakeProfile.standard(), policy);
+            OvenSimulation.Result result = OvenSimulation.run(scheduler, arrivals, orders);
+            System.out.printf(Locale.ROOT, "%-21s %10.1f %9.1f %9.1f %9.1f %12.2f %11.1f%%%n",
+                    policy, result.getMeanCompletion() / 60.0,
+                    result.getCompletionAtPercentile(50) / 60.0, result.getCompletionAtPercentile(95) / 60.0,
+                    result.getMaxCompletion() / 60.0, result.getMakespan() / SECONDS_PER_HOUR,
+                    result.getUtilization() * 100.0);
+        }
+    }
+}
@@ -0,0 +1,172 @@
+package p5.benchmarks;
+
+import java.util.SplittableRandom;
+
+import p5.Order;
+import p5.Pizza;
+import p5.PizzaFactory;
+import p5.PizzaFactoryRegistry;
+import p5.Size;
+import p5.Style;
+import p5.Topping;
+import p5.Toppings;
+
+/**
+ * A configurable mix of realistic orders: the share of New York and Chicago style pizzas,
+ * the distribution of pizza kinds and sizes, the number of toppings on Build Your Own pizzas,
+ * and the number of pizzas per order. Orders are built through the registered
+ * {@link PizzaFactory} for each style, the same way the app builds them.
+ * The mix holds no random state; callers pass their own seeded generator, so every thread
+ * can replay a reproducible stream.
+ * @author Siddharth, Ibtesaam
+ */
+public final class Workload {
+
+    /** Index of each pizza kind in the kind weights. */
+    private static final int DELUXE = 0;
+    private static final int BBQ_CHICKEN = 1;
+    private static final int MEATZZA = 2;
+
+    /** Cached values for picking sizes and toppings. */
+    private static final Size[] SIZES = Size.values();
+    private static final Topping[] TOPPINGS = Topping.values();
+
+    /** Factories for the two styles. */
+    private final PizzaFactory newYork = PizzaFactoryRegistry.forStyle(Style.NY);
+    private final PizzaFactory chicago = PizzaFactoryRegistry.forStyle(Style.CHICAGO);
+
+    /** Share of pizzas that are New York style, from 0 to 1. */
+    private final double newYorkShare;
+
+    /** Cumulative weights of Deluxe, BBQ Chicken, Meatzza, and Build Your Own. */
+    private final int[] kindWeights;
+
+    /** Cumulative weights of each size, by ordinal. */
+    private final int[] sizeWeights;
+
+    /** Cumulative weights of 0 to {@link Toppings#MAX_TOPPINGS} toppings on Build Your Own pizzas. */
+    private final int[] toppingCountWeights;
+
+    /** Largest number of pizzas in one order; each order has 1 to this many, uniformly. */
+    private final int maxPizzasPerOrder;
+
+    /**
+     * Constructs a workload mix. Weights are relative and need not add up to anything in particular.
+     *
+     * @param newYorkShare        Share of pizzas that are New York style, from 0 to 1.
+     * @param kindWeights         Weights of Deluxe, BBQ Chicken, Meatzza, and Build Your Own.
+     * @param sizeWeights         Weights of each size, by ordinal.
+     * @param toppingCountWeights Weights of 0, 1, ... toppings on Build Your Own pizzas.
+     * @param maxPizzasPerOrder   Largest number of pizzas in one order.
+     * @throws IllegalArgumentException If a weight array has the wrong length or no positive weight.
+     */
+    public Workload(double newYorkShare, int[] kindWeights, int[] sizeWeights, int[] toppingCountWeights,
+                    int maxPizzasPerOrder) {
+        if (newYorkShare < 0 || newYorkShare > 1) {
+            throw new IllegalArgumentException("New York share must be between 0 and 1");
+        }
+        if (maxPizzasPerOrder < 1) {
+            throw new IllegalArgumentException("Orders need at least one pizza");
+        }
+        this.newYorkShare = newYorkShare;
+        this.kindWeights = cumulative(kindWeights, 4, "kind");
+        this.sizeWeights = cumulative(sizeWeights, SIZES.length, "size");
+        this.toppingCountWeights = cumulative(toppingCountWeights, Toppings.MAX_TOPPINGS + 1, "topping count");
+        this.maxPizzasPerOrder = maxPizzasPerOrder;
+    }
+
+    /**
+     * Gets a typical pizzeria mix: mostly specialty pizzas, mostly medium and large,
+     * two or three toppings on Build Your Own, and up to four pizzas per order.
+     *
+     * @param newYorkShare Share of pizzas that are New York style, from 0 to 1.
+     * @return The workload.
+     */
+    public static Workload typical(double newYorkShare) {
+        return new Workload(newYorkShare, new int[]{25, 15, 20, 40}, new int[]{20, 45, 35},
+                new int[]{5, 15, 30, 25, 12, 7, 4, 2}, 4);
+    }
+
+    /**
+     * Turns weights into running totals for sampling.
+     *
+     * @param weights The relative weights.
+     * @param length  The required number of weights.
+     * @param what    What the weights are for, used in error messages.
+     * @return The cumulative weights.
+     */
+    private static int[] cumulative(int[] weights, int length, String what) {
+        if (weights.length != length) {
+            throw new IllegalArgumentException("Expected " + length + " " + what + " weights, got " + weights.length);
+        }
+        int[] totals = new int[length];
+        int sum = 0;
+        for (int i = 0; i < length; i++) {
+            if (weights[i] < 0) {
+                throw new IllegalArgumentException("Negative " + what + " weight");
+            }
+            sum += weights[i];
+            totals[i] = sum;
+        }
+        if (sum == 0) {
+            throw new IllegalArgumentException("No positive " + what + " weight");
+        }
+        return totals;
+    }
+
+    /**
+     * Picks an index with probability proportional to its weight.
+     *
+     * @param random  The random generator.
+     * @param weights The cumulative weights.
+     * @return The picked index.
+     */
+    private static int pick(SplittableRandom random, int[] weights) {
+        int r = random.nextInt(weights[weights.length - 1]);
+        int i = 0;
+        while (weights[i] <= r) {
+            i++;
+        }
+        return i;
+    }
+
+    /**
+     * Builds the next order of the workload.
+     *
+     * @param random The caller's seeded random generator.
+     * @return A new, unplaced order.
+     */
+    public Order nextOrder(SplittableRandom random) {
+        Order order = new Order();
+        int count = 1 + random.nextInt(maxPizzasPerOrder);
+        for (int i = 0; i < count; i++) {
+            order.addPizza(nextPizza(random));
+        }
+        return order;
+    }
+
+    /**
+     * Builds the next pizza of the workload.
+     *
+     * @param random The caller's seeded random generator.
+     * @return A new pizza.
+     */
+    public Pizza nextPizza(SplittableRandom random) {
+        PizzaFactory factory = random.nextDouble() < newYorkShare ? newYork : chicago;
+        Size size = SIZES[pick(random, sizeWeights)];
+        int kind = pick(random, kindWeights);
+        if (kind == DELUXE) {
+            return factory.createDeluxe().withSize(size);
+        } else if (kind == BBQ_CHICKEN) {
+            return factory.createBBQChicken().withSize(size);
+        } else if (kind == MEATZZA) {
+            return factory.createMeatzza().withSize(size);
+        }
+        Pizza pizza = factory.createBuildYourOwn().withSize(size);
+        int toppings = pick(random, toppingCountWeights);
+        while (Toppings.count(pizza.getToppingMask()) < toppings) {
+            pizza.addTopping(TOPPINGS[random.nextInt(TOPPINGS.length)]);
+        }
+        return pizza;
+    }
+}
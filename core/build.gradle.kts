@@ -0,0 +1,13 @@
+plugins {
+    `java-library`
+}
+
+// Plain JVM module holding the pizza ordering domain, so it can be benchmarked and reused
+// outside Android. Compiled against the Java 11 API the app targets.
+tasks.withType<JavaCompile>().configureEach {
+    options.release.set(11)
+}
+
+dependencies {
+    testImplementation(libs.junit)
+}
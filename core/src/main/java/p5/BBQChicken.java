@@ -0,0 +1,43 @@
+package p5;
+
+/**
+ * Represents a BBQChicken pizza, which is a specific type of pizza with pre-defined toppings
+ * and a price that varies based on its size.
+ * The crust type is determined by the style (e.g., Pan for Chicago, Thin for New York).
+ * @author Siddharth, Ibtesaam
+ */
+public class BBQChicken extends SpecialtyPizza {
+
+    /** The fixed toppings of every BBQChicken pizza. */
+    private static final int TOPPINGS = Toppings.maskOf(
+            Topping.BBQ_CHICKEN,
+            Topping.GREEN_PEPPER,
+            Topping.PROVOLONE,
+            Topping.CHEDDAR
+    );
+
+    /**
+     * Constructs a BBQChicken pizza with the specified style, crust and size.
+     * Use {@link #of(Style, Crust, Size)} to get the shared instance instead.
+     * This pizza has the following fixed toppings: BBQ Chicken, Green Pepper, Provolone, and Cheddar.
+     *
+     * @param style The style of the pizza.
+     * @param crust The crust type for the pizza (e.g., Pan, Thin).
+     * @param size  The size of the pizza (Small, Medium, Large).
+     */
+    BBQChicken(Style style, Crust crust, Size size) {
+        super(PizzaKind.BBQ_CHICKEN, style, crust, size, TOPPINGS);
+    }
+
+    /**
+     * Gets the shared BBQChicken pizza with the specified style, crust and size.
+     *
+     * @param style The style of the pizza.
+     * @param crust The crust type for the pizza.
+     * @param size  The size of the pizza (Small, Medium, Large).
+     * @return The interned BBQChicken pizza.
+     */
+    public static BBQChicken of(Style style, Crust crust, Size size) {
+        return (BBQChicken) SpecialtyPizza.of(PizzaKind.BBQ_CHICKEN, style, crust, size);
+    }
+}
@@ -0,0 +1,89 @@
+package p5;
+
+/**
+ * Oven times for each kind of pizza: a base bake time per {@link Crust} for a medium pizza,
+ * scaled by a percentage per {@link Size}. Used by the {@link OvenScheduler}.
+ * @author Siddharth, Ibtesaam
+ */
+public final class BakeProfile {
+
+    /** Number of crusts. */
+    private static final int CRUST_COUNT = Crust.values().length;
+
+    /** Number of sizes. */
+    private static final int SIZE_COUNT = Size.values().length;
+
+    /** Bake time in seconds of a medium pizza, by crust ordinal. */
+    private final long[] crustSeconds;
+
+    /** Bake time of each size as a percentage of a medium pizza's, by size ordinal. */
+    private final int[] sizePercent;
+
+    /**
+     * Constructs a bake profile.
+     *
+     * @param crustSeconds Bake time in seconds of a medium pizza, by crust ordinal.
+     * @param sizePercent  Bake time of each size as a percentage of a medium pizza's, by size ordinal.
+     * @throws IllegalArgumentException If an array has the wrong length or a non-positive value.
+     */
+    public BakeProfile(long[] crustSeconds, int[] sizePercent) {
+        if (crustSeconds.length != CRUST_COUNT || sizePercent.length != SIZE_COUNT) {
+            throw new IllegalArgumentException("Expected " + CRUST_COUNT + " crust times and "
+                    + SIZE_COUNT + " size percentages");
+        }
+        for (long seconds : crustSeconds) {
+            if (seconds <= 0) {
+                throw new IllegalArgumentException("Bake times must be positive");
+            }
+        }
+        for (int percent : sizePercent) {
+            if (percent <= 0) {
+                throw new IllegalArgumentException("Size percentages must be positive");
+            }
+        }
+        this.crustSeconds = crustSeconds.clone();
+        this.sizePercent = sizePercent.clone();
+    }
+
+    /**
+     * Gets the bake times of the store's ovens: Chicago deep dish and stuffed crusts bake
+     * several times longer than New York crusts, and large pizzas take longer than small ones.
+     *
+     * @return The standard bake profile.
+     */
+    public static BakeProfile standard() {
+        long[] crust = new long[CRUST_COUNT];
+        crust[Crust.DEEP_DISH.ordinal()] = 30 * 60;
+        crust[Crust.PAN.ordinal()] = 20 * 60;
+        crust[Crust.STUFFED.ordinal()] = 35 * 60;
+        crust[Crust.THIN.ordinal()] = 7 * 60;
+        crust[Crust.HAND_TOSSED.ordinal()] = 10 * 60;
+        crust[Crust.BROOKLYN.ordinal()] = 9 * 60;
+        int[] size = new int[SIZE_COUNT];
+        size[Size.SMALL.ordinal()] = 80;
+        size[Size.MEDIUM.ordinal()] = 100;
+        size[Size.LARGE.ordinal()] = 125;
+        return new BakeProfile(crust, size);
+    }
+
+    /**
+     * Gets the bake time of a crust and size.
+     *
+     * @param crust The crust.
+     * @param size  The size.
+     * @return The bake time in seconds.
+     */
+    public long bakeSeconds(Crust crust, Size size) {
+        return (crustSeconds[crust.ordinal()] * sizePercent[size.ordinal()] + 50) / 100;
+    }
+
+    /**
+     * Gets the bake time of a pizza.
+     *
+     * @param pizza The pizza.
+     * @return The bake time in seconds.
+     */
+    public long bakeSeconds(Pizza pizza) {
+        return bakeSeconds(pizza.getCrust(), pizza.getSize());
+    }
+}
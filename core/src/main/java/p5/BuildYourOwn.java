@@ -0,0 +1,80 @@
+package p5;
+
+import java.util.List;
+
+/**
+ * Represents a "Build Your Own" pizza, allowing customization of toppings
+ * up to a maximum of 7. The price varies based on size and number of toppings.
+ * @author Siddharth, Ibtesaam
+ */
+public class BuildYourOwn extends Pizza {
+
+    /**
+     * Constructs a "Build Your Own" pizza with the specified style, crust, size, and initial toppings.
+     *
+     * @param style    The style of the pizza.
+     * @param crust    The crust type for the pizza (e.g., Pan, Hand-tossed).
+     * @param size     The size of the pizza (Small, Medium, Large).
+     * @param toppings A list of initial toppings added to the pizza.
+     * @throws IllegalArgumentException If there are more than {@link Toppings#MAX_TOPPINGS} toppings.
+     */
+    public BuildYourOwn(Style style, Crust crust, Size size, List<Topping> toppings) {
+        super(PizzaKind.BUILD_YOUR_OWN, style);
+        this.crust = crust;
+        this.size = size;
+        this.toppings = checkCount(Toppings.maskOf(toppings));
+        refreshPrice();
+    }
+
+    /**
+     * Constructs a "Build Your Own" pizza with toppings given as a mask.
+     *
+     * @param style    The style of the pizza.
+     * @param crust    The crust type for the pizza.
+     * @param size     The size of the pizza.
+     * @param toppings The toppings, as a {@link Toppings} mask.
+     * @throws IllegalArgumentException If the mask has more than {@link Toppings#MAX_TOPPINGS} toppings.
+     */
+    BuildYourOwn(Style style, Crust crust, Size size, int toppings) {
+        super(PizzaKind.BUILD_YOUR_OWN, style);
+        this.crust = crust;
+        this.size = size;
+        this.toppings = checkCount(toppings & Toppings.ALL);
+        refreshPrice();
+    }
+
+    /**
+     * Ensures a topping mask is within the topping limit.
+     *
+     * @param mask The toppings, as a {@link Toppings} mask.
+     * @return The mask.
+     * @throws IllegalArgumentException If the mask has more than {@link Toppings#MAX_TOPPINGS} toppings.
+     */
+    private static int checkCount(int mask) {
+        if (Toppings.count(mask) > Toppings.MAX_TOPPINGS) {
+            throw new IllegalArgumentException("At most " + Toppings.MAX_TOPPINGS + " toppings are allowed");
+        }
+        return mask;
+    }
+
+    /**
+     * Replaces all toppings on the pizza at once.
+     *
+     * @param toppings The new toppings, as a {@link Toppings} mask.
+     * @throws IllegalArgumentException If the mask has more than {@link Toppings#MAX_TOPPINGS} toppings.
+     */
+    public void setToppings(int toppings) {
+        checkMutable();
+        this.toppings = checkCount(toppings & Toppings.ALL);
+        refreshPrice();
+    }
+
+    /**
+     * Removes all toppings from the pizza.
+     */
+    public void clearToppings(){
+        checkMutable();
+        toppings = 0;    // Clear all toppings from the mask
+        refreshPrice();
+    }
+}
@@ -0,0 +1,71 @@
+package p5;
+
+import java.util.Collections;
+
+/**
+ * Represents a factory for creating Chicago-style pizzas.
+ * Implements the {@link PizzaFactory} interface and provides methods
+ * for creating specific types of Chicago-style pizzas.
+ * @author Siddharth, Ibtesaam
+ */
+public class ChicagoPizza implements PizzaFactory {
+
+    /**
+     * Gets the style of the pizzas created by this factory.
+     *
+     * @return {@link Style#CHICAGO}.
+     */
+    @Override
+    public Style getStyle() {
+        return Style.CHICAGO;
+    }
+
+    /**
+     * Creates a Chicago-style Deluxe pizza with a Deep Dish crust.
+     * The size of the pizza is set to Medium by default; use {@link Pizza#withSize(Size)} to change it.
+     *
+     * @return A shared {@link Deluxe} pizza object with Chicago-style specifications.
+     */
+    @Override
+    public Pizza createDeluxe() {
+
+        return Deluxe.of(Style.CHICAGO, Crust.DEEP_DISH, Size.MEDIUM);
+    }
+
+    /**
+     * Creates a Chicago-style BBQ Chicken pizza with a Pan crust.
+     * The size of the pizza is set to Medium by default; use {@link Pizza#withSize(Size)} to change it.
+     *
+     * @return A shared {@link BBQChicken} pizza object with Chicago-style specifications.
+     */
+    @Override
+    public Pizza createBBQChicken() {
+
+        return BBQChicken.of(Style.CHICAGO, Crust.PAN, Size.MEDIUM);
+    }
+
+    /**
+     * Creates a Chicago-style Meatzza pizza with a Stuffed crust.
+     * The size of the pizza is set to Medium by default; use {@link Pizza#withSize(Size)} to change it.
+     *
+     * @return A shared {@link Meatzza} pizza object with Chicago-style specifications.
+     */
+    @Override
+    public Pizza createMeatzza() {
+
+        return Meatzza.of(Style.CHICAGO, Crust.STUFFED, Size.MEDIUM);
+    }
+
+    /**
+     * Creates a Chicago-style Build Your Own pizza with a Pan crust.
+     * The size of the pizza is set to Medium by default but can be adjusted later.
+     * The toppings list is initialized as empty.
+     *
+     * @return A {@link BuildYourOwn} pizza object with Chicago-style specifications.
+     */
+    @Override
+    public Pizza createBuildYourOwn() {
+        return new BuildYourOwn(Style.CHICAGO, Crust.PAN, Size.MEDIUM, Collections.emptyList());
+    }
+
+}
@@ -0,0 +1,438 @@
+package p5;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Singleton class to manage the in-progress orders of every register or kiosk session.
+ * Each session, identified by a string ID, has its own current order. Sessions are kept in a
+ * concurrent map so many terminals can build orders at once. Sessions left idle are discarded by
+ * a sweep that runs, a few times per idle timeout at most, as sessions are used, and the number
+ * of sessions is capped so memory use stays bounded.
+ * The Android screens use the {@link #DEFAULT_SESSION}.
+ * New orders, pizzas added or removed, and orders discarded unplaced are published on the
+ * {@link OrderEventBus}, tagged with the session ID. Each event's snapshot of the order is taken
+ * under the session's monitor, and the event is published after it is released.
+ * @author Siddharth, Ibtesaam
+ */
+public class CurrentOrdersManager {
+
+    /** ID of the session used by the app's own screens. */
+    public static final String DEFAULT_SESSION = "default";
+
+    /** Default maximum number of sessions kept at once. */
+    public static final int DEFAULT_MAX_SESSIONS = 1024;
+
+    /** Default time after which an untouched session may be evicted. */
+    public static final long DEFAULT_IDLE_TIMEOUT_MINUTES = 30;
+
+    /** Number of times per idle timeout that sessions are swept for idle ones, at most. */
+    private static final int SWEEPS_PER_TIMEOUT = 4;
+
+    /** Singleton instance of the CurrentOrdersManager. */
+    private static final CurrentOrdersManager instance = new CurrentOrdersManager(DEFAULT_MAX_SESSIONS,
+            TimeUnit.MINUTES.toNanos(DEFAULT_IDLE_TIMEOUT_MINUTES), System::nanoTime);
+
+    /** The open sessions, keyed by session ID. */
+    private final ConcurrentHashMap<String, Session> sessions = new ConcurrentHashMap<>();
+
+    /** Maximum number of sessions kept at once. */
+    private final int maxSessions;
+
+    /** Time in nanoseconds after which an untouched session may be evicted. */
+    private final long idleTimeoutNanos;
+
+    /** Source of the current time in nanoseconds, {@link System#nanoTime()} outside tests. */
+    private final LongSupplier clock;
+
+    /** Time in nanoseconds between sweeps for idle sessions. */
+    private final long sweepIntervalNanos;
+
+    /** Clock time at or after which the next use of a session sweeps for idle sessions. */
+    private final AtomicLong nextSweep;
+
+    /** Bus that new orders and pizza changes are published on. */
+    private final OrderEventBus events = OrderEventBus.getInstance();
+
+    /**
+     * A session's current order and when it was last used.
+     */
+    private static final class Session {
+
+        /** The order being built in this session. */
+        final Order order;
+
+        /** Clock time of the last use of this session. */
+        volatile long lastAccess;
+
+        /**
+         * Constructs a session with a new, empty order.
+         *
+         * @param now The current clock time.
+         */
+        Session(long now) {
+            order = new Order();
+            lastAccess = now;
+        }
+    }
+
+    /**
+     * Constructs a manager with no sessions. The app uses the singleton; tests use their own
+     * managers with a clock they control.
+     *
+     * @param maxSessions      Maximum number of sessions kept at once.
+     * @param idleTimeoutNanos Time in nanoseconds after which an untouched session may be evicted.
+     * @param clock            Source of the current time in nanoseconds.
+     */
+    CurrentOrdersManager(int maxSessions, long idleTimeoutNanos, LongSupplier clock) {
+        this.maxSessions = maxSessions;
+        this.idleTimeoutNanos = idleTimeoutNanos;
+        this.clock = clock;
+        this.sweepIntervalNanos = Math.max(1L, idleTimeoutNanos / SWEEPS_PER_TIMEOUT);
+        this.nextSweep = new AtomicLong(clock.getAsLong() + sweepIntervalNanos);
+    }
+
+    /**
+     * Provides access to the singleton instance of CurrentOrdersManager.
+     *
+     * @return The singleton instance of CurrentOrdersManager.
+     */
+    public static CurrentOrdersManager getInstance() {
+        return instance;
+    }
+
+    /**
+     * Retrieves the current order of the default session.
+     *
+     * @return The current {@link Order}.
+     */
+    public Order getCurrentOrder() {
+        return getOrder(DEFAULT_SESSION);
+    }
+
+    /**
+     * Resets the current order of the default session by creating a new {@link Order} instance.
+     * Ensures that a fresh order is available for new transactions.
+     */
+    public void resetCurrentOrder() {
+        resetOrder(DEFAULT_SESSION);
+    }
+
+    /**
+     * Adds a pizza to the current order of the default session.
+     *
+     * @param pizza The pizza to add.
+     * @throws IllegalStateException If the order has already been placed.
+     */
+    public void addPizza(Pizza pizza) {
+        addPizza(DEFAULT_SESSION, pizza);
+    }
+
+    /**
+     * Removes a pizza from the current order of the default session.
+     *
+     * @param pizza The pizza to remove.
+     * @throws IllegalStateException If the order has already been placed.
+     */
+    public void removePizza(Pizza pizza) {
+        removePizza(DEFAULT_SESSION, pizza);
+    }
+
+    /**
+     * Removes every pizza from the current order of the default session.
+     *
+     * @throws IllegalStateException If the order has already been placed.
+     */
+    public void clearCurrentOrder() {
+        clearOrder(DEFAULT_SESSION);
+    }
+
+    /**
+     * Places the current order of the default session.
+     *
+     * @return The placed order.
+     * @throws IllegalStateException If the order is empty or was placed concurrently.
+     */
+    public Order placeCurrentOrder() {
+        return placeOrder(DEFAULT_SESSION);
+    }
+
+    /**
+     * Retrieves the current order of a session, opening the session if needed.
+     *
+     * @param sessionId The session ID.
+     * @return The session's current {@link Order}.
+     */
+    public Order getOrder(String sessionId) {
+        return openSession(sessionId).order;
+    }
+
+    /**
+     * Gets a session, opening it with a new, empty order if needed, and marks it as used.
+     * Sweeps for idle sessions first if a sweep is due, so they are discarded even while the
+     * number of sessions stays within budget.
+     *
+     * @param sessionId The session ID.
+     * @return The session.
+     */
+    private Session openSession(String sessionId) {
+        long now = clock.getAsLong();
+        long due = nextSweep.get();
+        if (now - due >= 0 && nextSweep.compareAndSet(due, now + sweepIntervalNanos)) {
+            evictIdle(now);
+        }
+        Session session = sessions.get(sessionId);
+        if (session == null) {
+            // The event is prepared before the new session is visible to other threads
+            OrderEvent[] created = new OrderEvent[1];
+            session = sessions.computeIfAbsent(sessionId, id -> {
+                Session opened = new Session(now);
+                created[0] = events.prepare(OrderEvent.Type.ORDER_CREATED, id, opened.order, null);
+                return opened;
+            });
+            if (sessions.size() > maxSessions) {
+                enforceBudget(sessionId);
+            }
+            events.publish(created[0]);
+        }
+        session.lastAccess = now;
+        return session;
+    }
+
+    /**
+     * Replaces the current order of a session with a new, empty order, discarding the old one.
+     *
+     * @param sessionId The session ID.
+     */
+    public void resetOrder(String sessionId) {
+        Session session = new Session(clock.getAsLong());
+        OrderEvent created = events.prepare(OrderEvent.Type.ORDER_CREATED, sessionId, session.order, null);
+        Session previous = sessions.put(sessionId, session);
+        OrderEvent discarded = null;
+        if (previous != null) {
+            synchronized (previous) {
+                if (!previous.order.isPlaced()) { // Unless a placement in progress went through
+                    discarded = events.prepare(OrderEvent.Type.ORDER_DISCARDED, sessionId, previous.order, null);
+                }
+            }
+        }
+        if (sessions.size() > maxSessions) {
+            enforceBudget(sessionId);
+        }
+        events.publish(discarded);
+        events.publish(created);
+    }
+
+    /**
+     * Adds a pizza to the current order of a session, opening the session if needed.
+     * Orders are not thread-safe, so every change to a session's order, and its placement,
+     * happens while holding the session's monitor; if the session was placed or closed before
+     * the monitor was taken, the change goes to the session's next order.
+     *
+     * @param sessionId The session ID.
+     * @param pizza     The pizza to add.
+     * @throws IllegalStateException If the order has already been placed.
+     */
+    public void addPizza(String sessionId, Pizza pizza) {
+        while (true) {
+            Session session = openSession(sessionId);
+            OrderEvent added;
+            synchronized (session) {
+                if (sessions.get(sessionId) != session) {
+                    continue;
+                }
+                session.order.addPizza(pizza);
+                added = events.prepare(OrderEvent.Type.PIZZA_ADDED, sessionId, session.order, pizza);
+            }
+            events.publish(added);
+            return;
+        }
+    }
+
+    /**
+     * Removes a pizza from the current order of a session.
+     * If the pizza is not in the order, no action is taken.
+     *
+     * @param sessionId The session ID.
+     * @param pizza     The pizza to remove.
+     * @throws IllegalStateException If the order has already been placed.
+     */
+    public void removePizza(String sessionId, Pizza pizza) {
+        while (true) {
+            Session session = openSession(sessionId);
+            OrderEvent removed = null;
+            synchronized (session) {
+                if (sessions.get(sessionId) != session) {
+                    continue;
+                }
+                int count = session.order.pizzaCount();
+                session.order.removePizza(pizza);
+                if (session.order.pizzaCount() < count) {
+                    removed = events.prepare(OrderEvent.Type.PIZZA_REMOVED, sessionId, session.order, pizza);
+                }
+            }
+            events.publish(removed);
+            return;
+        }
+    }
+
+    /**
+     * Removes every pizza from the current order of a session, publishing one
+     * {@link OrderEvent.Type#PIZZA_REMOVED} event per pizza.
+     *
+     * @param sessionId The session ID.
+     * @throws IllegalStateException If the order has already been placed.
+     */
+    public void clearOrder(String sessionId) {
+        while (true) {
+            Session session = openSession(sessionId);
+            OrderEvent[] removed = null;
+            synchronized (session) {
+                if (sessions.get(sessionId) != session) {
+                    continue;
+                }
+                Pizza[] pizzas = events.hasSubscribers() ? session.order.getPizzas().toArray(new Pizza[0]) : null;
+                session.order.clearOrder();
+                if (pizzas != null) {
+                    removed = new OrderEvent[pizzas.length];
+                    for (int i = 0; i < pizzas.length; i++) {
+                        removed[i] = events.prepare(OrderEvent.Type.PIZZA_REMOVED, sessionId, session.order, pizzas[i]);
+                    }
+                }
+            }
+            if (removed != null) {
+                for (OrderEvent event : removed) {
+                    events.publish(event);
+                }
+            }
+            return;
+        }
+    }
+
+    /**
+     * Hands a session's current order to the {@link StoreOrdersManager} and closes the session.
+     * The order is stored, and journaled if a journal is open, before the session is released,
+     * all under the session's monitor, so only one caller can place a given order and a failed
+     * placement leaves the session and its order as they were.
+     *
+     * @param sessionId The session ID.
+     * @return The placed order.
+     * @throws IllegalStateException If the session has no order, the order is empty,
+     *                               or it was placed concurrently.
+     * @throws java.io.UncheckedIOException If the order cannot be written to the journal.
+     */
+    public Order placeOrder(String sessionId) {
+        Session session = sessions.get(sessionId);
+        if (session == null) {
+            throw new IllegalStateException("Cannot place an empty order.");
+        }
+        synchronized (session) {
+            if (sessions.get(sessionId) != session) {
+                throw new IllegalStateException("Order " + session.order.getNumber() + " was already placed.");
+            }
+            if (session.order.pizzaCount() == 0) {
+                throw new IllegalStateException("Cannot place an empty order.");
+            }
+            StoreOrdersManager.getInstance().addOrder(session.order);
+            sessions.remove(sessionId, session);
+        }
+        return session.order;
+    }
+
+    /**
+     * Closes a session, discarding its current order.
+     *
+     * @param sessionId The session ID.
+     */
+    public void closeSession(String sessionId) {
+        Session session = sessions.get(sessionId);
+        if (session != null) {
+            discard(sessionId, session);
+        }
+    }
+
+    /**
+     * Closes a session unless it was already closed, placed, or reset, and publishes its order
+     * as {@link OrderEvent.Type#ORDER_DISCARDED}. The session is removed under its monitor, so
+     * the discarded order cannot also be placed or changed.
+     *
+     * @param sessionId The session ID.
+     * @param session   The session to close.
+     * @return True if the session was closed by this call.
+     */
+    private boolean discard(String sessionId, Session session) {
+        OrderEvent discarded;
+        synchronized (session) {
+            if (!sessions.remove(sessionId, session)) {
+                return false;
+            }
+            discarded = events.prepare(OrderEvent.Type.ORDER_DISCARDED, sessionId, session.order, null);
+        }
+        events.publish(discarded);
+        return true;
+    }
+
+    /**
+     * Gets the number of open sessions.
+     *
+     * @return The number of sessions.
+     */
+    public int getSessionCount() {
+        return sessions.size();
+    }
+
+    /**
+     * Closes every session that has not been used within the idle timeout, discarding its order.
+     * Also done automatically as sessions are used.
+     *
+     * @return The number of sessions evicted.
+     */
+    public int evictIdle() {
+        return evictIdle(clock.getAsLong());
+    }
+
+    /**
+     * Closes every session that had not been used within the idle timeout at a given time.
+     *
+     * @param now The clock time.
+     * @return The number of sessions evicted.
+     */
+    private int evictIdle(long now) {
+        int evicted = 0;
+        for (Map.Entry<String, Session> entry : sessions.entrySet()) {
+            Session session = entry.getValue();
+            if (now - session.lastAccess > idleTimeoutNanos && discard(entry.getKey(), session)) {
+                evicted++;
+            }
+        }
+        return evicted;
+    }
+
+    /**
+     * Brings the number of sessions back within the budget, first by evicting idle sessions
+     * and then, if needed, the least recently used ones.
+     *
+     * @param keepId A session that must not be evicted, usually the one just opened.
+     */
+    private void enforceBudget(String keepId) {
+        evictIdle();
+        while (sessions.size() > maxSessions) {
+            String oldestId = null;
+            Session oldest = null;
+            for (Map.Entry<String, Session> entry : sessions.entrySet()) {
+                Session session = entry.getValue();
+                if (!entry.getKey().equals(keepId) && (oldest == null || session.lastAccess - oldest.lastAccess < 0)) {
+                    oldestId = entry.getKey();
+                    oldest = session;
+                }
+            }
+            if (oldest == null) {
+                return;
+            }
+            discard(oldestId, oldest);
+        }
+    }
+}
@@ -0,0 +1,45 @@
+package p5;
+
+/**
+ * Represents a Deluxe pizza, which is a specialty pizza with predefined toppings.
+ * The crust type and size are specified during creation, and the price is determined
+ * based on the size of the pizza.
+ * @author Siddharth, Ibtesaam
+ */
+public class Deluxe extends SpecialtyPizza {
+
+    /** The fixed toppings of every Deluxe pizza. */
+    private static final int TOPPINGS = Toppings.maskOf(
+            Topping.SAUSAGE,
+            Topping.PEPPERONI,
+            Topping.GREEN_PEPPER,
+            Topping.ONION,
+            Topping.MUSHROOM
+    );
+
+    /**
+     * Constructs a Deluxe pizza with the specified style, crust and size.
+     * Use {@link #of(Style, Crust, Size)} to get the shared instance instead.
+     * This pizza has the following fixed toppings:
+     * Sausage, Pepperoni, Green Pepper, Onion, and Mushroom.
+     *
+     * @param style The style of the pizza.
+     * @param crust The crust type for the pizza (e.g., Deep Dish, Brooklyn).
+     * @param size  The size of the pizza (Small, Medium, Large).
+     */
+    Deluxe(Style style, Crust crust, Size size) {
+        super(PizzaKind.DELUXE, style, crust, size, TOPPINGS);
+    }
+
+    /**
+     * Gets the shared Deluxe pizza with the specified style, crust and size.
+     *
+     * @param style The style of the pizza.
+     * @param crust The crust type for the pizza.
+     * @param size  The size of the pizza (Small, Medium, Large).
+     * @return The interned Deluxe pizza.
+     */
+    public static Deluxe of(Style style, Crust crust, Size size) {
+        return (Deluxe) SpecialtyPizza.of(PizzaKind.DELUXE, style, crust, size);
+    }
+}
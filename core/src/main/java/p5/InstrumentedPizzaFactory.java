@@ -0,0 +1,62 @@
+package p5;
+
+/**
+ * A {@link PizzaFactory} that times every pizza another factory creates and records it in
+ * {@link Metrics#getPizzaCreation()}. The {@link PizzaFactoryRegistry} wraps every registered
+ * factory in one.
+ * @author Siddharth, Ibtesaam
+ */
+final class InstrumentedPizzaFactory implements PizzaFactory {
+
+    /** The factory that creates the pizzas. */
+    private final PizzaFactory delegate;
+
+    /** The histogram the creation times are recorded in. */
+    private final LatencyHistogram creation = Metrics.getInstance().getPizzaCreation();
+
+    /**
+     * Constructs a timing wrapper around a factory.
+     *
+     * @param delegate The factory that creates the pizzas.
+     */
+    InstrumentedPizzaFactory(PizzaFactory delegate) {
+        this.delegate = delegate;
+    }
+
+    @Override
+    public Style getStyle() {
+        return delegate.getStyle();
+    }
+
+    @Override
+    public Pizza createDeluxe() {
+        long start = System.nanoTime();
+        Pizza pizza = delegate.createDeluxe();
+        creation.recordSince(start);
+        return pizza;
+    }
+
+    @Override
+    public Pizza createBBQChicken() {
+        long start = System.nanoTime();
+        Pizza pizza = delegate.createBBQChicken();
+        creation.recordSince(start);
+        return pizza;
+    }
+
+    @Override
+    public Pizza createMeatzza() {
+        long start = System.nanoTime();
+        Pizza pizza = delegate.createMeatzza();
+        creation.recordSince(start);
+        return pizza;
+    }
+
+    @Override
+    public Pizza createBuildYourOwn() {
+        long start = System.nanoTime();
+        Pizza pizza = delegate.createBuildYourOwn();
+        creation.recordSince(start);
+        return pizza;
+    }
+}
@@ -0,0 +1,215 @@
+package p5;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Lock-free histogram of durations in nanoseconds, for reporting latency percentiles.
+ * Values are counted in log-linear buckets: eight buckets for every power of two, so a reported
+ * percentile is never more than 12.5% above the true value. Recording a value is a few atomic
+ * additions with no locking or allocation, so many threads can record at once.
+ * @author Siddharth, Ibtesaam
+ */
+public final class LatencyHistogram {
+
+    /** Number of bits of each value kept below its highest set bit. */
+    private static final int SUB_BUCKET_BITS = 3;
+
+    /** Number of buckets for each power of two. */
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+
+    /** Number of buckets needed to cover every non-negative long. */
+    private static final int BUCKET_COUNT = (Long.SIZE - SUB_BUCKET_BITS) * SUB_BUCKETS;
+
+    /** The name the histogram is reported under. */
+    private final String name;
+
+    /** Number of values recorded in each bucket. */
+    private final AtomicLongArray buckets = new AtomicLongArray(BUCKET_COUNT);
+
+    /** Sum of all recorded values. */
+    private final LongAdder total = new LongAdder();
+
+    /** Largest recorded value. */
+    private final AtomicLong max = new AtomicLong();
+
+    /**
+     * Constructs an empty histogram.
+     *
+     * @param name The name the histogram is reported under.
+     */
+    public LatencyHistogram(String name) {
+        this.name = name;
+    }
+
+    /**
+     * Gets the name the histogram is reported under.
+     *
+     * @return The name.
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Records a duration.
+     *
+     * @param nanos The duration in nanoseconds; negative values count as 0.
+     */
+    public void record(long nanos) {
+        if (nanos < 0) {
+            nanos = 0;
+        }
+        buckets.incrementAndGet(bucketOf(nanos));
+        total.add(nanos);
+        long largest = max.get();
+        while (nanos > largest && !max.compareAndSet(largest, nanos)) {
+            largest = max.get();
+        }
+    }
+
+    /**
+     * Records the time elapsed since a start time.
+     *
+     * @param startNanos The start time from {@link System#nanoTime()}.
+     */
+    public void recordSince(long startNanos) {
+        record(System.nanoTime() - startNanos);
+    }
+
+    /**
+     * Takes a copy of the recorded values for reporting.
+     *
+     * @return The snapshot.
+     */
+    public Snapshot snapshot() {
+        long[] counts = new long[BUCKET_COUNT];
+        long count = 0L;
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            counts[i] = buckets.get(i);
+            count += counts[i];
+        }
+        return new Snapshot(counts, count, total.sum(), max.get());
+    }
+
+    /**
+     * Gets the bucket a value is counted in.
+     *
+     * @param value The non-negative value.
+     * @return The bucket index.
+     */
+    static int bucketOf(long value) {
+        if (value < SUB_BUCKETS) {
+            return (int) value;
+        }
+        int exponent = 63 - Long.numberOfLeadingZeros(value);
+        int sub = (int) (value >>> (exponent - SUB_BUCKET_BITS)) & (SUB_BUCKETS - 1);
+        return (exponent - SUB_BUCKET_BITS + 1) * SUB_BUCKETS + sub;
+    }
+
+    /**
+     * Gets the largest value counted in a bucket.
+     *
+     * @param bucket The bucket index.
+     * @return The largest value in the bucket.
+     */
+    static long upperBoundOf(int bucket) {
+        if (bucket < SUB_BUCKETS) {
+            return bucket;
+        }
+        int shift = bucket / SUB_BUCKETS - 1;
+        long lower = (long) (SUB_BUCKETS + bucket % SUB_BUCKETS) << shift;
+        return lower + (1L << shift) - 1;
+    }
+
+    /**
+     * An immutable copy of a histogram's values at one moment.
+     */
+    public static final class Snapshot {
+
+        /** Number of values in each bucket. */
+        private final long[] counts;
+
+        /** Number of values. */
+        private final long count;
+
+        /** Sum of the values. */
+        private final long total;
+
+        /** Largest value. */
+        private final long max;
+
+        /**
+         * Constructs a snapshot.
+         *
+         * @param counts Number of values in each bucket.
+         * @param count  Number of values.
+         * @param total  Sum of the values.
+         * @param max    Largest value.
+         */
+        Snapshot(long[] counts, long count, long total, long max) {
+            this.counts = counts;
+            this.count = count;
+            this.total = total;
+            this.max = max;
+        }
+
+        /**
+         * Gets the number of recorded values.
+         *
+         * @return The count.
+         */
+        public long getCount() {
+            return count;
+        }
+
+        /**
+         * Gets the sum of the recorded values.
+         *
+         * @return The sum in nanoseconds.
+         */
+        public long getTotal() {
+            return total;
+        }
+
+        /**
+         * Gets the mean of the recorded values.
+         *
+         * @return The mean in nanoseconds, or 0 if nothing was recorded.
+         */
+        public long getMean() {
+            return count == 0 ? 0L : total / count;
+        }
+
+        /**
+         * Gets the largest recorded value.
+         *
+         * @return The maximum in nanoseconds.
+         */
+        public long getMax() {
+            return max;
+        }
+
+        /**
+         * Gets the value below which a given percentage of the recorded values fall.
+         *
+         * @param percentile The percentile, from 0 to 100.
+         * @return The value in nanoseconds, or 0 if nothing was recorded.
+         */
+        public long getValueAtPercentile(double percentile) {
+            if (count == 0) {
+                return 0L;
+            }
+            long rank = Math.max(1L, (long) Math.ceil(percentile / 100.0 * count));
+            long seen = 0L;
+            for (int i = 0; i < counts.length; i++) {
+                seen += counts[i];
+                if (seen >= rank) {
+                    return Math.min(upperBoundOf(i), max);
+                }
+            }
+            return max;
+        }
+    }
+}
@@ -0,0 +1,44 @@
+package p5;
+
+/**
+ * Represents a Meatzza pizza, which is a specialty pizza with predefined toppings.
+ * The crust type and size are specified during creation, and the price is determined
+ * based on the size of the pizza.
+ * @author Siddharth, Ibtesaam
+ */
+public class Meatzza extends SpecialtyPizza {
+
+    /** The fixed toppings of every Meatzza pizza. */
+    private static final int TOPPINGS = Toppings.maskOf(
+            Topping.SAUSAGE,
+            Topping.PEPPERONI,
+            Topping.BEEF,
+            Topping.HAM
+    );
+
+    /**
+     * Constructs a Meatzza pizza with the specified style, crust and size.
+     * Use {@link #of(Style, Crust, Size)} to get the shared instance instead.
+     * This pizza has the following fixed toppings:
+     * Sausage, Pepperoni, Beef, and Ham.
+     *
+     * @param style The style of the pizza.
+     * @param crust The crust type for the pizza (e.g., Stuffed for Chicago, Hand-tossed for New York).
+     * @param size  The size of the pizza (Small, Medium, Large).
+     */
+    Meatzza(Style style, Crust crust, Size size) {
+        super(PizzaKind.MEATZZA, style, crust, size, TOPPINGS);
+    }
+
+    /**
+     * Gets the shared Meatzza pizza with the specified style, crust and size.
+     *
+     * @param style The style of the pizza.
+     * @param crust The crust type for the pizza.
+     * @param size  The size of the pizza (Small, Medium, Large).
+     * @return The interned Meatzza pizza.
+     */
+    public static Meatzza of(Style style, Crust crust, Size size) {
+        return (Meatzza) SpecialtyPizza.of(PizzaKind.MEATZZA, style, crust, size);
+    }
+}
@@ -0,0 +1,218 @@
+package p5;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Singleton holding the latency histograms and throughput counters of the order path:
+ * order placement, one at a time and in batches, pizza creation by the factories, and persistence.
+ * Recording is lock-free and allocation-free, so the metrics stay on in production.
+ * {@link #dump()} renders every metric as text in the Prometheus exposition format, which can
+ * be logged or served for scraping.
+ * @author Siddharth, Ibtesaam
+ */
+public final class Metrics {
+
+    /** Percentiles reported for each histogram. */
+    private static final double[] PERCENTILES = {50.0, 90.0, 99.0, 99.9};
+
+    /** Labels of the reported percentiles. */
+    private static final String[] QUANTILE_LABELS = {"0.5", "0.9", "0.99", "0.999"};
+
+    /** Singleton instance of the Metrics. */
+    private static final Metrics instance = new Metrics();
+
+    /** Time taken to place an order in the store, including journaling. */
+    private final LatencyHistogram orderPlacement = new LatencyHistogram("order_placement_nanos");
+
+    /** Time taken to place a batch of orders in the store, including journaling. */
+    private final LatencyHistogram batchPlacement = new LatencyHistogram("order_batch_placement_nanos");
+
+    /** Time taken by a {@link PizzaFactory} to create a pizza. */
+    private final LatencyHistogram pizzaCreation = new LatencyHistogram("pizza_creation_nanos");
+
+    /** Time taken to write a change to the journal, including waiting for it to reach the disk. */
+    private final LatencyHistogram journalWrite = new LatencyHistogram("journal_write_nanos");
+
+    /** Time taken to write a checkpoint. */
+    private final LatencyHistogram checkpoint = new LatencyHistogram("checkpoint_nanos");
+
+    /** Number of orders placed. */
+    private final LongAdder ordersPlaced = new LongAdder();
+
+    /** Number of orders removed. */
+    private final LongAdder ordersRemoved = new LongAdder();
+
+    /** Number of pizzas in placed orders. */
+    private final LongAdder pizzasPlaced = new LongAdder();
+
+    /** Number of bytes written to the journal. */
+    private final LongAdder journalBytes = new LongAdder();
+
+    /** Number of scheduled checkpoints that failed. */
+    private final LongAdder checkpointFailures = new LongAdder();
+
+    /**
+     * Private constructor to enforce the singleton pattern.
+     */
+    private Metrics() {
+    }
+
+    /**
+     * Provides access to the singleton instance of Metrics.
+     *
+     * @return The singleton instance of Metrics.
+     */
+    public static Metrics getInstance() {
+        return instance;
+    }
+
+    /**
+     * Gets the histogram of order placement times.
+     *
+     * @return The histogram.
+     */
+    public LatencyHistogram getOrderPlacement() {
+        return orderPlacement;
+    }
+
+    /**
+     * Gets the histogram of batch placement times.
+     *
+     * @return The histogram.
+     */
+    public LatencyHistogram getBatchPlacement() {
+        return batchPlacement;
+    }
+
+    /**
+     * Gets the histogram of pizza creation times.
+     *
+     * @return The histogram.
+     */
+    public LatencyHistogram getPizzaCreation() {
+        return pizzaCreation;
+    }
+
+    /**
+     * Gets the histogram of journal write times.
+     *
+     * @return The histogram.
+     */
+    public LatencyHistogram getJournalWrite() {
+        return journalWrite;
+    }
+
+    /**
+     * Gets the histogram of checkpoint times.
+     *
+     * @return The histogram.
+     */
+    public LatencyHistogram getCheckpoint() {
+        return checkpoint;
+    }
+
+    /**
+     * Gets the counter of placed orders.
+     *
+     * @return The counter.
+     */
+    public LongAdder getOrdersPlaced() {
+        return ordersPlaced;
+    }
+
+    /**
+     * Gets the counter of removed orders.
+     *
+     * @return The counter.
+     */
+    public LongAdder getOrdersRemoved() {
+        return ordersRemoved;
+    }
+
+    /**
+     * Gets the counter of pizzas in placed orders.
+     *
+     * @return The counter.
+     */
+    public LongAdder getPizzasPlaced() {
+        return pizzasPlaced;
+    }
+
+    /**
+     * Gets the counter of bytes written to the journal.
+     *
+     * @return The counter.
+     */
+    public LongAdder getJournalBytes() {
+        return journalBytes;
+    }
+
+    /**
+     * Gets the counter of failed scheduled checkpoints.
+     *
+     * @return The counter.
+     */
+    public LongAdder getCheckpointFailures() {
+        return checkpointFailures;
+    }
+
+    /**
+     * Renders every metric as text in the Prometheus exposition format.
+     *
+     * @return The metrics text.
+     */
+    public String dump() {
+        return appendTo(new StringBuilder(2048)).toString();
+    }
+
+    /**
+     * Appends every metric as text in the Prometheus exposition format.
+     *
+     * @param out The builder to append to.
+     * @return The builder.
+     */
+    public StringBuilder appendTo(StringBuilder out) {
+        appendCounter(out, "orders_placed_total", ordersPlaced);
+        appendCounter(out, "orders_removed_total", ordersRemoved);
+        appendCounter(out, "pizzas_placed_total", pizzasPlaced);
+        appendCounter(out, "journal_bytes_total", journalBytes);
+        appendCounter(out, "checkpoint_failures_total", checkpointFailures);
+        appendHistogram(out, orderPlacement);
+        appendHistogram(out, batchPlacement);
+        appendHistogram(out, pizzaCreation);
+        appendHistogram(out, journalWrite);
+        appendHistogram(out, checkpoint);
+        return out;
+    }
+
+    /**
+     * Appends one counter.
+     *
+     * @param out     The builder to append to.
+     * @param name    The counter name.
+     * @param counter The counter.
+     */
+    private static void appendCounter(StringBuilder out, String name, LongAdder counter) {
+        out.append("# TYPE ").append(name).append(" counter\n");
+        out.append(name).append(' ').append(counter.sum()).append('\n');
+    }
+
+    /**
+     * Appends one histogram as a summary with its percentiles, maximum, count, and sum.
+     *
+     * @param out       The builder to append to.
+     * @param histogram The histogram.
+     */
+    private static void appendHistogram(StringBuilder out, LatencyHistogram histogram) {
+        String name = histogram.getName();
+        LatencyHistogram.Snapshot snapshot = histogram.snapshot();
+        out.append("# TYPE ").append(name).append(" summary\n");
+        for (int i = 0; i < PERCENTILES.length; i++) {
+            out.append(name).append("{quantile=\"").append(QUANTILE_LABELS[i]).append("\"} ")
+                    .append(snapshot.getValueAtPercentile(PERCENTILES[i])).append('\n');
+        }
+        out.append(name).append("_max ").append(snapshot.getMax()).append('\n');
+        out.append(name).append("_count ").append(snapshot.getCount()).append('\n');
+        out.append(name).append("_sum ").append(snapshot.getTotal()).append('\n');
+    }
+}
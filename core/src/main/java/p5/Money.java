@@ -0,0 +1,81 @@
+package p5;
+
+/**
+ * Fixed-point money arithmetic for the pizzeria.
+ * All amounts are carried as a {@code long} number of cents so that pizza prices,
+ * order subtotals, tax and totals are exact and can be summed without drift.
+ * The methods are static and operate on primitives, so no objects are created
+ * when pricing pizzas or totaling orders.
+ * @author Siddharth, Ibtesaam
+ */
+public final class Money {
+
+    /** Number of cents in one dollar. */
+    public static final long CENTS_PER_DOLLAR = 100L;
+
+    /** Numerator of the New Jersey sales tax rate (6.625% = 6625 / 100000). */
+    private static final long TAX_RATE_NUMERATOR = 6625L;
+
+    /** Denominator of the New Jersey sales tax rate. */
+    private static final long TAX_RATE_DENOMINATOR = 100000L;
+
+    /**
+     * Private constructor to prevent instantiation of this utility class.
+     */
+    private Money() {
+    }
+
+    /**
+     * Converts a whole-dollar and cents pair into cents.
+     *
+     * @param dollars The whole-dollar part of the amount.
+     * @param cents   The cents part of the amount (0-99).
+     * @return The amount in cents.
+     */
+    public static long of(long dollars, long cents) {
+        return dollars * CENTS_PER_DOLLAR + cents;
+    }
+
+    /**
+     * Calculates the sales tax on an amount.
+     * The tax is rounded to the nearest cent, with half a cent rounded up.
+     *
+     * @param amountCents The taxable amount in cents (must not be negative).
+     * @return The sales tax in cents.
+     */
+    public static long tax(long amountCents) {
+        return (amountCents * TAX_RATE_NUMERATOR + TAX_RATE_DENOMINATOR / 2) / TAX_RATE_DENOMINATOR;
+    }
+
+    /**
+     * Converts an amount in cents to dollars for display.
+     * The result should only be used for formatting, never for further arithmetic.
+     *
+     * @param amountCents The amount in cents.
+     * @return The amount in dollars.
+     */
+    public static double toDollars(long amountCents) {
+        return amountCents / (double) CENTS_PER_DOLLAR;
+    }
+
+    /**
+     * Appends an amount in cents as dollars with two decimal places, such as {@code 12.05}.
+     * Works on the cents directly, so no floating-point value or intermediate string is created.
+     *
+     * @param out         The builder to append to.
+     * @param amountCents The amount in cents.
+     * @return The builder.
+     */
+    public static StringBuilder appendTo(StringBuilder out, long amountCents) {
+        if (amountCents < 0) {
+            out.append('-');
+            amountCents = -amountCents;
+        }
+        long cents = amountCents % CENTS_PER_DOLLAR;
+        out.append(amountCents / CENTS_PER_DOLLAR).append('.');
+        if (cents < 10) {
+            out.append('0');
+        }
+        return out.append(cents);
+    }
+}
@@ -1,6 +1,6 @@
 package p5;
 
-import java.util.ArrayList;
+import java.util.Collections;
 
 /**
  * Represents a factory for creating New York-style pizzas.
@@ -10,40 +10,50 @@ import java.util.ArrayList;
  */
 public class NYPizza implements PizzaFactory {
 
+    /**
+     * Gets the style of the pizzas created by this factory.
+     *
+     * @return {@link Style#NY}.
+     */
+    @Override
+    public Style getStyle() {
+        return Style.NY;
+    }
+
     /**
      * Creates a New York-style Deluxe pizza with a Brooklyn crust.
-     * The size of the pizza is set to Medium by default but can be adjusted later.
+     * The size of the pizza is set to Medium by default; use {@link Pizza#withSize(Size)} to change it.
      *
-     * @return A {@link Deluxe} pizza object with New York-style specifications.
+     * @return A shared {@link Deluxe} pizza object with New York-style specifications.
      */
     @Override
     public Pizza createDeluxe() {
 
-        return new Deluxe(Crust.BROOKLYN, Size.MEDIUM);
+        return Deluxe.of(Style.NY, Crust.BROOKLYN, Size.MEDIUM);
     }
 
     /**
      * Creates a New York-style BBQ Chicken pizza with a Thin crust.
-     * The size of the pizza is set to Medium by default but can be adjusted later.
+     * The size of the pizza is set to Medium by default; use {@link Pizza#withSize(Size)} to change it.
      *
-     * @return A {@link BBQChicken} pizza object with New York-style specifications.
+     * @return A shared {@link BBQChicken} pizza object with New York-style specifications.
      */
     @Override
     public Pizza createBBQChicken() {
 
-        return new BBQChicken(Crust.THIN, Size.MEDIUM);
+        return BBQChicken.of(Style.NY, Crust.THIN, Size.MEDIUM);
     }
 
     /**
      * Creates a New York-style Meatzza pizza with a Hand-tossed crust.
-     * The size of the pizza is set to Medium by default but can be adjusted later.
+     * The size of the pizza is set to Medium by default; use {@link Pizza#withSize(Size)} to change it.
      *
-     * @return A {@link Meatzza} pizza object with New York-style specifications.
+     * @return A shared {@link Meatzza} pizza object with New York-style specifications.
      */
     @Override
     public Pizza createMeatzza() {
 
-        return new Meatzza(Crust.HAND_TOSSED, Size.MEDIUM);
+        return Meatzza.of(Style.NY, Crust.HAND_TOSSED, Size.MEDIUM);
     }
 
     /**
@@ -56,6 +66,6 @@ public class NYPizza implements PizzaFactory {
     @Override
     public Pizza createBuildYourOwn() {
 
-        return new BuildYourOwn(Crust.HAND_TOSSED, Size.MEDIUM, new ArrayList<>());
+        return new BuildYourOwn(Style.NY, Crust.HAND_TOSSED, Size.MEDIUM, Collections.emptyList());
     }
 }
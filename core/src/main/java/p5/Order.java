@@ -0,0 +1,300 @@
+package p5;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Represents an order in the pizzeria system.
+ * Each order is uniquely identified by an order number and contains a list of pizzas.
+ * The order includes functionality to calculate the subtotal, tax, and total cost.
+ * @author Siddharth, Ibtesaam
+ */
+public class Order {
+
+    /** The unique order number for this order. */
+    private final int number;
+
+    /** The list of pizzas in this order. */
+    private final ArrayList<Pizza> pizzas;
+
+    /**
+     * Running sum of the prices of all pizzas in cents.
+     * Maintained by the add, remove and clear operations so totals are read in constant time.
+     */
+    private long subtotalCents;
+
+    /** Whether the order has been placed with the store and can no longer be changed. */
+    private volatile boolean placed;
+
+    /**
+     * Constructs a new Order with a unique order number from the {@link OrderNumberAllocator}.
+     * Initializes an empty list of pizzas.
+     */
+    public Order() {
+        this.number = OrderNumberAllocator.getInstance().next();
+        this.pizzas = new ArrayList<>();
+    }
+
+    /**
+     * Constructs an Order with a known order number, used when restoring saved orders.
+     * Initializes an empty list of pizzas.
+     *
+     * @param number The order number.
+     */
+    Order(int number) {
+        this.number = number;
+        this.pizzas = new ArrayList<>();
+    }
+
+    /**
+     * Adds a pizza to the order.
+     * A pizza that can change price belongs to at most one order, once, since only that order's
+     * subtotal follows its price; add a new pizza instead of one already in an order.
+     *
+     * @param pizza The pizza to add to the order.
+     * @throws IllegalStateException If the order has already been placed.
+     * @throws IllegalArgumentException If the pizza already belongs to an order.
+     */
+    public void addPizza(Pizza pizza) {
+        checkNotPlaced();
+        claim(pizza);
+        pizzas.add(pizza);
+        subtotalCents += pizza.priceCents();
+    }
+
+    /**
+     * Adds several pizzas to the order in one step, growing the pizza list once and updating
+     * the subtotal once. If any pizza cannot be added, none is.
+     *
+     * @param newPizzas The pizzas to add, in order.
+     * @throws IllegalStateException If the order has already been placed.
+     * @throws IllegalArgumentException If a pizza already belongs to an order, or appears twice.
+     */
+    public void addPizzas(Collection<? extends Pizza> newPizzas) {
+        checkNotPlaced();
+        int claimed = 0;
+        try {
+            for (Pizza pizza : newPizzas) {
+                claim(pizza);
+                claimed++;
+            }
+        } catch (IllegalArgumentException e) {
+            for (Pizza pizza : newPizzas) {
+                if (claimed-- == 0) {
+                    break;
+                }
+                pizza.setOrder(null);
+            }
+            throw e;
+        }
+        pizzas.ensureCapacity(pizzas.size() + newPizzas.size());
+        long addedCents = 0L;
+        for (Pizza pizza : newPizzas) {
+            pizzas.add(pizza);
+            addedCents += pizza.priceCents();
+        }
+        subtotalCents += addedCents;
+    }
+
+    /**
+     * Makes this order the owner of a pizza about to be added, so its price changes reach
+     * this order's subtotal.
+     *
+     * @param pizza The pizza.
+     * @throws IllegalArgumentException If the pizza already belongs to an order.
+     */
+    private void claim(Pizza pizza) {
+        Order owner = pizza.getOrder();
+        if (owner != null) {
+            throw new IllegalArgumentException("The pizza already belongs to order " + owner.getNumber());
+        }
+        pizza.setOrder(this);
+    }
+
+    /**
+     * Removes a specific pizza from the order.
+     * If the pizza is not in the order, no action is taken.
+     *
+     * @param pizza The pizza to remove from the order.
+     * @throws IllegalStateException If the order has already been placed.
+     */
+    public void removePizza(Pizza pizza) {
+        checkNotPlaced();
+        if (pizzas.remove(pizza)) {
+            subtotalCents -= pizza.priceCents();
+            if (pizza.getOrder() == this) {
+                pizza.setOrder(null);
+            }
+        }
+    }
+
+    /**
+     * Clears all pizzas from the order.
+     *
+     * @throws IllegalStateException If the order has already been placed.
+     */
+    public void clearOrder() {
+        checkNotPlaced();
+        for (Pizza pizza : pizzas) {
+            if (pizza.getOrder() == this) {
+                pizza.setOrder(null);
+            }
+        }
+        pizzas.clear();
+        subtotalCents = 0L;
+    }
+
+    /**
+     * Marks the order as placed with the store. A placed order can no longer be changed.
+     */
+    void markPlaced() {
+        placed = true;
+    }
+
+    /**
+     * Reverses {@link #markPlaced()} after the store failed to take the order,
+     * so the order can be changed and placed again.
+     */
+    void unmarkPlaced() {
+        placed = false;
+    }
+
+    /**
+     * Checks whether the order has been placed with the store.
+     *
+     * @return True if the order has been placed, false otherwise.
+     */
+    public boolean isPlaced() {
+        return placed;
+    }
+
+    /**
+     * Ensures the order can still be changed.
+     *
+     * @throws IllegalStateException If the order has already been placed.
+     */
+    void checkNotPlaced() {
+        if (placed) {
+            throw new IllegalStateException("Order " + number + " has already been placed");
+        }
+    }
+
+    /**
+     * Adjusts the running subtotal after a pizza in this order changes price.
+     *
+     * @param deltaCents The change in the pizza's price in cents.
+     */
+    void repriced(long deltaCents) {
+        subtotalCents += deltaCents;
+    }
+
+    /**
+     * Gets the subtotal of the order in cents, which is the sum of the prices of all pizzas.
+     *
+     * @return The subtotal amount for the order in cents.
+     */
+    public long getSubtotalCents() {
+        return subtotalCents;
+    }
+
+    /**
+     * Calculates the sales tax for the order in cents based on the subtotal.
+     * The tax is rounded to the nearest cent as described in {@link Money#tax(long)}.
+     *
+     * @return The sales tax amount for the order in cents.
+     */
+    public long getTaxCents() {
+        return Money.tax(getSubtotalCents());
+    }
+
+    /**
+     * Calculates the total cost of the order in cents, which includes the subtotal and sales tax.
+     *
+     * @return The total cost of the order in cents.
+     */
+    public long getTotalCents() {
+        return subtotalCents + Money.tax(subtotalCents);
+    }
+
+    /**
+     * Calculates the subtotal of the order, which is the sum of the prices of all pizzas.
+     *
+     * @return The subtotal amount for the order.
+     */
+    public double getSubtotal() {
+        return Money.toDollars(getSubtotalCents());
+    }
+
+    /**
+     * Calculates the sales tax for the order based on the subtotal.
+     *
+     * @return The sales tax amount for the order.
+     */
+    public double getTax() {
+        return Money.toDollars(getTaxCents());
+    }
+
+    /**
+     * Calculates the total cost of the order, which includes the subtotal and sales tax.
+     *
+     * @return The total cost of the order.
+     */
+    public double getTotal() {
+        return Money.toDollars(getTotalCents());
+    }
+
+    /**
+     * Gets the unique order number for this order.
+     *
+     * @return The order number.
+     */
+    public int getNumber() {
+        return number;
+    }
+
+    /**
+     * Gets the number of pizzas in this order without wrapping the list.
+     *
+     * @return The number of pizzas.
+     */
+    int pizzaCount() {
+        return pizzas.size();
+    }
+
+    /**
+     * Gets a pizza in this order without wrapping the list.
+     *
+     * @param index The position of the pizza, from 0.
+     * @return The pizza.
+     */
+    Pizza pizzaAt(int index) {
+        return pizzas.get(index);
+    }
+
+    /**
+     * Gets the list of pizzas in this order.
+     * The list is read-only; use {@link #addPizza(Pizza)} and {@link #removePizza(Pizza)}
+     * so the running subtotal stays correct.
+     *
+     * @return A read-only list of pizzas in the order.
+     */
+    public List<Pizza> getPizzas() {
+        return Collections.unmodifiableList(pizzas);
+    }
+
+    /**
+     * Provides a string representation of the order, including the order number,
+     * details of all pizzas in the order, and the calculated subtotal, tax, and total.
+     * Rendered by the {@link ReceiptRenderer}; use it directly to render into a reused buffer.
+     *
+     * @return A string representation of the order.
+     */
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder(ReceiptRenderer.ORDER_FRAME_SIZE
+                + pizzas.size() * ReceiptRenderer.PIZZA_LINE_SIZE);
+        return ReceiptRenderer.appendOrder(sb, this).toString();
+    }
+}
@@ -0,0 +1,221 @@
+package p5;
+
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+
+/**
+ * Compact binary encoding of orders, shared by persistence, replication, and export.
+ * An order is encoded as:
+ * <ul>
+ *     <li>the order number as an unsigned varint,</li>
+ *     <li>the number of pizzas as an unsigned varint,</li>
+ *     <li>for each pizza, one byte packing kind, style, crust, and size codes,
+ *         two bytes holding the 14-bit topping mask, and the price in cents as a varint.</li>
+ * </ul>
+ * A typical order with two or three pizzas takes a few dozen bytes. Encoding and decoding work
+ * directly on caller-supplied {@link ByteBuffer}s so the buffers can be reused.
+ * @author Siddharth, Ibtesaam
+ */
+public final class OrderCodec {
+
+    /** Largest number of bytes a varint-encoded 64-bit value can take. */
+    public static final int MAX_VARINT_SIZE = 10;
+
+    /** Largest number of bytes one encoded pizza can take. */
+    public static final int MAX_PIZZA_SIZE = 1 + 2 + MAX_VARINT_SIZE;
+
+    /** Bit positions of the fields packed into a pizza's first byte. */
+    private static final int KIND_SHIFT = 6;
+    private static final int STYLE_SHIFT = 5;
+    private static final int CRUST_SHIFT = 2;
+
+    /** Cached enum values for decoding codes. */
+    private static final PizzaKind[] KINDS = PizzaKind.values();
+    private static final Style[] STYLES = Style.values();
+    private static final Crust[] CRUSTS = Crust.values();
+    private static final Size[] SIZES = Size.values();
+
+    static {
+        // The packed byte has 2 bits for kind, 1 for style, 3 for crust, and 2 for size
+        if (KINDS.length > 4 || STYLES.length > 2 || CRUSTS.length > 8 || SIZES.length > 4
+                || Topping.values().length > 16) {
+            throw new IllegalStateException("Menu enums no longer fit the order encoding");
+        }
+    }
+
+    /**
+     * Private constructor to prevent instantiation of this utility class.
+     */
+    private OrderCodec() {
+    }
+
+    /**
+     * Gets an upper bound on the encoded size of an order, for sizing buffers.
+     *
+     * @param order The order.
+     * @return The largest number of bytes the order can take.
+     */
+    public static int maxEncodedSize(Order order) {
+        return 2 * MAX_VARINT_SIZE + order.pizzaCount() * MAX_PIZZA_SIZE;
+    }
+
+    /**
+     * Writes an order into a buffer at its current position.
+     *
+     * @param order  The order to encode.
+     * @param buffer The buffer to write to.
+     * @throws java.nio.BufferOverflowException If the buffer does not have enough space left.
+     */
+    public static void encode(Order order, ByteBuffer buffer) {
+        int count = order.pizzaCount();
+        putVarint(buffer, order.getNumber() & 0xFFFFFFFFL);
+        putVarint(buffer, count);
+        for (int i = 0; i < count; i++) {
+            encodePizza(order.pizzaAt(i), buffer);
+        }
+    }
+
+    /**
+     * Writes one pizza into a buffer at its current position.
+     *
+     * @param pizza  The pizza to encode.
+     * @param buffer The buffer to write to.
+     */
+    public static void encodePizza(Pizza pizza, ByteBuffer buffer) {
+        buffer.put((byte) (pizza.getKind().ordinal() << KIND_SHIFT
+                | pizza.getStyle().ordinal() << STYLE_SHIFT
+                | pizza.getCrust().ordinal() << CRUST_SHIFT
+                | pizza.getSize().ordinal()));
+        buffer.putShort((short) pizza.getToppingMask());
+        putVarint(buffer, pizza.priceCents());
+    }
+
+    /**
+     * Reads an order from a buffer at its current position.
+     * Pizzas keep the prices they were encoded with, so a restored order totals what it was
+     * sold for even if the {@link PriceTable} has changed since.
+     *
+     * @param buffer The buffer to read from.
+     * @return The decoded order, with its original order number.
+     * @throws IllegalArgumentException If the data is not a valid order.
+     * @throws BufferUnderflowException If the buffer ends before the order does.
+     */
+    public static Order decode(ByteBuffer buffer) {
+        long number = getVarint(buffer);
+        if (number > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Invalid order number " + number);
+        }
+        Order order = new Order((int) number);
+        decodePizzas(buffer, order, true);
+        return order;
+    }
+
+    /**
+     * Reads the pizzas of an encoded order into an existing order, ignoring the encoded number.
+     * Used to accept orders from other systems under a locally allocated number; the encoded
+     * prices are ignored and every pizza is priced from the current {@link PriceTable}, since
+     * the store, not the sender, sets prices.
+     *
+     * @param buffer The buffer to read from, positioned at the pizza count.
+     * @param order  The order to add the pizzas to.
+     * @throws IllegalArgumentException If the data is not a valid list of pizzas.
+     * @throws BufferUnderflowException If the buffer ends before the pizzas do.
+     */
+    public static void decodePizzas(ByteBuffer buffer, Order order) {
+        decodePizzas(buffer, order, false);
+    }
+
+    /**
+     * Reads the pizzas of an encoded order into an existing order.
+     *
+     * @param buffer    The buffer to read from, positioned at the pizza count.
+     * @param order     The order to add the pizzas to.
+     * @param keepPrice Whether pizzas keep their encoded prices rather than being repriced.
+     * @throws IllegalArgumentException If the data is not a valid list of pizzas.
+     * @throws BufferUnderflowException If the buffer ends before the pizzas do.
+     */
+    private static void decodePizzas(ByteBuffer buffer, Order order, boolean keepPrice) {
+        long count = getVarint(buffer);
+        if (count > buffer.remaining() / 4) { // Every pizza takes at least four bytes
+            throw new IllegalArgumentException("Invalid pizza count " + count);
+        }
+        for (long i = 0; i < count; i++) {
+            order.addPizza(decodePizza(buffer, keepPrice));
+        }
+    }
+
+    /**
+     * Reads one pizza from a buffer at its current position, pricing it from the current
+     * {@link PriceTable}.
+     *
+     * @param buffer The buffer to read from.
+     * @return The decoded pizza.
+     * @throws IllegalArgumentException If the data is not a valid pizza.
+     */
+    public static Pizza decodePizza(ByteBuffer buffer) {
+        return decodePizza(buffer, false);
+    }
+
+    /**
+     * Reads one pizza from a buffer at its current position.
+     *
+     * @param buffer    The buffer to read from.
+     * @param keepPrice Whether the pizza keeps its encoded price rather than being repriced.
+     * @return The decoded pizza.
+     * @throws IllegalArgumentException If the data is not a valid pizza.
+     */
+    private static Pizza decodePizza(ByteBuffer buffer, boolean keepPrice) {
+        int codes = buffer.get() & 0xFF;
+        int kind = codes >>> KIND_SHIFT;
+        int style = (codes >>> STYLE_SHIFT) & 0x1;
+        int crust = (codes >>> CRUST_SHIFT) & 0x7;
+        int size = codes & 0x3;
+        int toppings = buffer.getShort() & 0xFFFF;
+        long price = getVarint(buffer);
+        if (kind >= KINDS.length || style >= STYLES.length || crust >= CRUSTS.length || size >= SIZES.length
+                || (toppings & ~Toppings.ALL) != 0 || Toppings.count(toppings) > Toppings.MAX_TOPPINGS) {
+            throw new IllegalArgumentException("Invalid pizza code " + codes + "/" + toppings);
+        }
+        if (price < 0) {
+            throw new IllegalArgumentException("Invalid pizza price " + Long.toUnsignedString(price));
+        }
+        if (keepPrice) {
+            return Pizza.restore(KINDS[kind], STYLES[style], CRUSTS[crust], SIZES[size], toppings, price);
+        }
+        return Pizza.of(KINDS[kind], STYLES[style], CRUSTS[crust], SIZES[size], toppings);
+    }
+
+    /**
+     * Writes an unsigned value as a varint: seven bits per byte, low bits first,
+     * with the high bit set on every byte but the last.
+     *
+     * @param buffer The buffer to write to.
+     * @param value  The value, treated as unsigned.
+     */
+    public static void putVarint(ByteBuffer buffer, long value) {
+        while ((value & ~0x7FL) != 0) {
+            buffer.put((byte) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        buffer.put((byte) value);
+    }
+
+    /**
+     * Reads an unsigned varint written by {@link #putVarint(ByteBuffer, long)}.
+     *
+     * @param buffer The buffer to read from.
+     * @return The value.
+     * @throws IllegalArgumentException If the varint is longer than ten bytes.
+     */
+    public static long getVarint(ByteBuffer buffer) {
+        long value = 0L;
+        for (int shift = 0; shift < 64; shift += 7) {
+            byte b = buffer.get();
+            value |= (long) (b & 0x7F) << shift;
+            if (b >= 0) {
+                return value;
+            }
+        }
+        throw new IllegalArgumentException("Malformed varint");
+    }
+}
@@ -0,0 +1,190 @@
+package p5;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * A change in the life of an order, published on the {@link OrderEventBus}.
+ * Events about orders still being built carry the ID of the {@link CurrentOrdersManager}
+ * session they belong to; events about store orders have no session.
+ * Subscribers run on their own threads while the order keeps changing, so an event holds an
+ * immutable snapshot of the order as it was when the event was published, not the order itself.
+ * @author Siddharth, Ibtesaam
+ */
+public final class OrderEvent {
+
+    /**
+     * What happened to the order.
+     */
+    public enum Type {
+
+        /** A session started a new, empty order. */
+        ORDER_CREATED,
+
+        /** A pizza was added to an order being built. */
+        PIZZA_ADDED,
+
+        /** A pizza was removed from an order being built, one event per pizza when it is cleared. */
+        PIZZA_REMOVED,
+
+        /**
+         * An order being built was discarded without being placed, because its session was
+         * closed, reset, left idle, or evicted to keep the number of sessions within budget.
+         */
+        ORDER_DISCARDED,
+
+        /** An order was placed with the store. */
+        ORDER_PLACED,
+
+        /** An order was removed from the store. */
+        ORDER_REMOVED
+    }
+
+    /** What happened. */
+    private final Type type;
+
+    /** Position of this event in the stream of all events, starting at 1. */
+    private final long sequence;
+
+    /** {@link System#nanoTime()} when the event was published. */
+    private final long timeNanos;
+
+    /** The session the order belongs to, or null for store orders. */
+    private final String sessionId;
+
+    /** The number of the order. */
+    private final int orderNumber;
+
+    /** The pizzas in the order when the event was published; read-only. */
+    private final List<Pizza> pizzas;
+
+    /** The subtotal of the order in cents when the event was published. */
+    private final long subtotalCents;
+
+    /** The pizza added or removed, or null for other events. */
+    private final Pizza pizza;
+
+    /**
+     * Constructs an event, taking a snapshot of the order. The caller must hold whatever keeps
+     * the order from changing meanwhile. A placed order can no longer change, so its pizza list is
+     * shared rather than copied.
+     *
+     * @param type      What happened.
+     * @param sequence  Position of this event in the stream of all events.
+     * @param sessionId The session the order belongs to, or null for store orders.
+     * @param order     The order.
+     * @param pizza     The pizza added or removed, or null for other events.
+     */
+    OrderEvent(Type type, long sequence, String sessionId, Order order, Pizza pizza) {
+        this.type = type;
+        this.sequence = sequence;
+        this.timeNanos = System.nanoTime();
+        this.sessionId = sessionId;
+        this.orderNumber = order.getNumber();
+        this.subtotalCents = order.getSubtotalCents();
+        if (order.isPlaced()) {
+            this.pizzas = order.getPizzas();
+        } else {
+            int count = order.pizzaCount();
+            List<Pizza> copy = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                copy.add(order.pizzaAt(i).snapshot());
+            }
+            this.pizzas = Collections.unmodifiableList(copy);
+        }
+        this.pizza = pizza == null ? null : pizza.snapshot();
+    }
+
+    /**
+     * Gets what happened.
+     *
+     * @return The event type.
+     */
+    public Type getType() {
+        return type;
+    }
+
+    /**
+     * Gets the position of this event in the stream of all events. Subscribers can spot events
+     * they dropped from gaps in the sequence.
+     *
+     * @return The sequence number, starting at 1.
+     */
+    public long getSequence() {
+        return sequence;
+    }
+
+    /**
+     * Gets when the event was published, for measuring how far behind a subscriber is.
+     *
+     * @return The {@link System#nanoTime()} at publication.
+     */
+    public long getTimeNanos() {
+        return timeNanos;
+    }
+
+    /**
+     * Gets the session the order belongs to.
+     *
+     * @return The session ID, or null for store orders.
+     */
+    public String getSessionId() {
+        return sessionId;
+    }
+
+    /**
+     * Gets the number of the order.
+     *
+     * @return The order number.
+     */
+    public int getOrderNumber() {
+        return orderNumber;
+    }
+
+    /**
+     * Gets the pizzas in the order when the event was published.
+     *
+     * @return A read-only list of pizzas, unaffected by later changes to the order.
+     */
+    public List<Pizza> getPizzas() {
+        return pizzas;
+    }
+
+    /**
+     * Gets the subtotal of the order when the event was published.
+     *
+     * @return The subtotal in cents.
+     */
+    public long getSubtotalCents() {
+        return subtotalCents;
+    }
+
+    /**
+     * Gets the total of the order, including sales tax, when the event was published.
+     *
+     * @return The total in cents.
+     */
+    public long getTotalCents() {
+        return subtotalCents + Money.tax(subtotalCents);
+    }
+
+    /**
+     * Gets the pizza added or removed, as it was when the event was published.
+     *
+     * @return The pizza, or null if this is not a pizza event.
+     */
+    public Pizza getPizza() {
+        return pizza;
+    }
+
+    /**
+     * Provides a short description of the event, such as {@code #12 PIZZA_ADDED order 7}.
+     *
+     * @return A description of the event.
+     */
+    @Override
+    public String toString() {
+        return "#" + sequence + " " + type + " order " + orderNumber;
+    }
+}
@@ -0,0 +1,339 @@
+package p5;
+
+import java.util.Arrays;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Singleton publish/subscribe stream of {@link OrderEvent}s from the {@link CurrentOrdersManager}
+ * and the {@link StoreOrdersManager}, so screens, kitchen displays, analytics, and persistence
+ * can react to orders without polling the managers.
+ * <p>
+ * Each subscription has its own bounded queue and its own delivery thread, so a slow subscriber
+ * never delays the others. What happens when a subscriber falls so far behind that its queue is
+ * full is chosen per subscription by its {@link Backpressure} policy. Publishing costs a single
+ * volatile read when nobody is subscribed, so the order path pays nothing for the bus until it
+ * is used. Subscribers that throw are logged and counted, and keep receiving events.
+ * @author Siddharth, Ibtesaam
+ */
+public final class OrderEventBus {
+
+    /**
+     * What to do with an event when a subscriber's queue is full.
+     */
+    public enum Backpressure {
+
+        /**
+         * Discard the oldest queued event to make room. Suits displays, which only need to
+         * catch up to the latest state.
+         */
+        DROP_OLDEST,
+
+        /** Discard the new event, keeping the queued ones. */
+        DROP_NEWEST,
+
+        /**
+         * Make the publisher wait for room. Suits subscribers that must see every event, at the
+         * cost of slowing down the order path while they are behind.
+         */
+        BLOCK
+    }
+
+    /**
+     * A subscriber's queue and delivery thread. Closing it stops delivery and discards any
+     * events still queued.
+     */
+    public static final class Subscription implements AutoCloseable {
+
+        /** Logger for subscribers that throw, which have no caller to report to. */
+        private static final Logger LOG = Logger.getLogger(OrderEventBus.class.getName());
+
+        /** Longest time a blocked publisher waits before checking whether the subscription closed. */
+        private static final long BLOCK_SLICE_MILLIS = 100L;
+
+        /** The bus this subscription belongs to. */
+        private final OrderEventBus bus;
+
+        /** What to do with an event when the queue is full. */
+        private final Backpressure backpressure;
+
+        /** The subscriber. */
+        private final OrderEventListener listener;
+
+        /** Events waiting to be delivered. */
+        private final ArrayBlockingQueue<OrderEvent> queue;
+
+        /** Number of events discarded because the queue was full. */
+        private final AtomicLong dropped = new AtomicLong();
+
+        /** Number of events the subscriber threw on. */
+        private final AtomicLong failed = new AtomicLong();
+
+        /** Thread delivering events to the subscriber. */
+        private final Thread thread;
+
+        /** Whether the subscription has been closed. */
+        private volatile boolean closed;
+
+        /**
+         * Constructs a subscription and starts its delivery thread.
+         *
+         * @param bus          The bus.
+         * @param name         Name of the subscriber, used to name the delivery thread.
+         * @param capacity     The largest number of events queued for the subscriber.
+         * @param backpressure What to do with an event when the queue is full.
+         * @param listener     The subscriber.
+         */
+        Subscription(OrderEventBus bus, String name, int capacity, Backpressure backpressure,
+                     OrderEventListener listener) {
+            this.bus = bus;
+            this.backpressure = backpressure;
+            this.listener = listener;
+            this.queue = new ArrayBlockingQueue<>(capacity);
+            this.thread = new Thread(this::deliver, "order-events-" + name);
+            thread.setDaemon(true);
+            thread.start();
+        }
+
+        /**
+         * Queues an event for the subscriber, applying the backpressure policy if the queue is full.
+         *
+         * @param event The event.
+         */
+        void offer(OrderEvent event) {
+            if (closed) {
+                return;
+            }
+            switch (backpressure) {
+                case DROP_NEWEST:
+                    if (!queue.offer(event)) {
+                        dropped.incrementAndGet();
+                    }
+                    break;
+                case DROP_OLDEST:
+                    while (!queue.offer(event)) {
+                        if (queue.poll() != null) {
+                            dropped.incrementAndGet();
+                        }
+                    }
+                    break;
+                default:
+                    try {
+                        // Wait in slices so a publisher is released when the subscription closes
+                        while (!queue.offer(event, BLOCK_SLICE_MILLIS, TimeUnit.MILLISECONDS)) {
+                            if (closed) {
+                                return;
+                            }
+                        }
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        dropped.incrementAndGet();
+                    }
+                    break;
+            }
+        }
+
+        /**
+         * Hands queued events to the subscriber until the subscription is closed.
+         */
+        private void deliver() {
+            while (!closed) {
+                OrderEvent event;
+                try {
+                    event = queue.take();
+                } catch (InterruptedException e) {
+                    continue; // Woken by close()
+                }
+                try {
+                    listener.onEvent(event);
+                } catch (RuntimeException e) {
+                    // A failing subscriber must not stop its own delivery or affect the publisher
+                    failed.incrementAndGet();
+                    LOG.log(Level.WARNING, thread.getName() + " failed on event " + event, e);
+                }
+            }
+        }
+
+        /**
+         * Gets the number of events discarded because the subscriber fell behind.
+         *
+         * @return The number of dropped events.
+         */
+        public long getDroppedCount() {
+            return dropped.get();
+        }
+
+        /**
+         * Gets the number of events the subscriber threw an exception on.
+         *
+         * @return The number of failed deliveries.
+         */
+        public long getFailedCount() {
+            return failed.get();
+        }
+
+        /**
+         * Gets the number of events waiting to be delivered.
+         *
+         * @return The number of queued events.
+         */
+        public int getQueuedCount() {
+            return queue.size();
+        }
+
+        /**
+         * Checks whether the subscription has been closed.
+         *
+         * @return True if no more events will be delivered.
+         */
+        public boolean isClosed() {
+            return closed;
+        }
+
+        /**
+         * Stops delivery and discards the queued events. Publishers blocked on this subscriber
+         * are released. Has no effect if already closed.
+         */
+        @Override
+        public void close() {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            bus.unsubscribe(this);
+            queue.clear();
+            thread.interrupt();
+        }
+    }
+
+    /** An empty list of subscriptions; declared before the instance, which uses it. */
+    private static final Subscription[] NONE = new Subscription[0];
+
+    /** Singleton instance of the OrderEventBus. */
+    private static final OrderEventBus instance = new OrderEventBus();
+
+    /** Current subscriptions, replaced as a whole on every change so publishing needs no lock. */
+    private volatile Subscription[] subscriptions = NONE;
+
+    /** Sequence number of the last event published. */
+    private final AtomicLong sequence = new AtomicLong();
+
+    /**
+     * Private constructor to enforce the singleton pattern.
+     */
+    private OrderEventBus() {
+    }
+
+    /**
+     * Provides access to the singleton instance of OrderEventBus.
+     *
+     * @return The singleton instance of OrderEventBus.
+     */
+    public static OrderEventBus getInstance() {
+        return instance;
+    }
+
+    /**
+     * Subscribes to every event published from now on.
+     * Events are delivered on a new daemon thread owned by the subscription; close the
+     * subscription to stop it.
+     *
+     * @param name         Name of the subscriber, used to name the delivery thread.
+     * @param capacity     The largest number of events queued for the subscriber.
+     * @param backpressure What to do with an event when the queue is full.
+     * @param listener     The subscriber.
+     * @return The subscription.
+     * @throws IllegalArgumentException If the capacity is less than 1.
+     */
+    public Subscription subscribe(String name, int capacity, Backpressure backpressure, OrderEventListener listener) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("Capacity must be at least 1");
+        }
+        Subscription subscription = new Subscription(this, name, capacity, backpressure, listener);
+        synchronized (this) {
+            Subscription[] current = subscriptions;
+            Subscription[] updated = Arrays.copyOf(current, current.length + 1);
+            updated[current.length] = subscription;
+            subscriptions = updated;
+        }
+        return subscription;
+    }
+
+    /**
+     * Removes a subscription from the list of subscriptions.
+     *
+     * @param subscription The subscription.
+     */
+    private synchronized void unsubscribe(Subscription subscription) {
+        Subscription[] current = subscriptions;
+        for (int i = 0; i < current.length; i++) {
+            if (current[i] == subscription) {
+                Subscription[] updated = current.length == 1 ? NONE : new Subscription[current.length - 1];
+                System.arraycopy(current, 0, updated, 0, i);
+                System.arraycopy(current, i + 1, updated, i, current.length - i - 1);
+                subscriptions = updated;
+                return;
+            }
+        }
+    }
+
+    /**
+     * Checks whether anyone is subscribed, so publishers can skip preparing events.
+     *
+     * @return True if there is at least one subscription.
+     */
+    public boolean hasSubscribers() {
+        return subscriptions.length != 0;
+    }
+
+    /**
+     * Publishes an event to every subscriber. Does nothing if nobody is subscribed.
+     * Should not be called while holding a lock, since a {@link Backpressure#BLOCK} subscriber
+     * can make it wait.
+     *
+     * @param type      What happened.
+     * @param sessionId The session the order belongs to, or null for store orders.
+     * @param order     The order.
+     * @param pizza     The pizza added or removed, or null for other events.
+     */
+    void publish(OrderEvent.Type type, String sessionId, Order order, Pizza pizza) {
+        publish(prepare(type, sessionId, order, pizza));
+    }
+
+    /**
+     * Creates an event with a snapshot of the order, to be published later with
+     * {@link #publish(OrderEvent)}. Call it while holding whatever keeps the order from changing,
+     * and publish after letting go. Does nothing if nobody is subscribed.
+     *
+     * @param type      What happened.
+     * @param sessionId The session the order belongs to, or null for store orders.
+     * @param order     The order.
+     * @param pizza     The pizza added or removed, or null for other events.
+     * @return The event, or null if nobody is subscribed.
+     */
+    OrderEvent prepare(OrderEvent.Type type, String sessionId, Order order, Pizza pizza) {
+        if (subscriptions.length == 0) {
+            return null;
+        }
+        return new OrderEvent(type, sequence.incrementAndGet(), sessionId, order, pizza);
+    }
+
+    /**
+     * Publishes an event created by {@link #prepare(OrderEvent.Type, String, Order, Pizza)} to
+     * every subscriber. Should not be called while holding a lock, for the same reason as
+     * {@link #publish(OrderEvent.Type, String, Order, Pizza)}.
+     *
+     * @param event The event, or null to do nothing.
+     */
+    void publish(OrderEvent event) {
+        if (event == null) {
+            return;
+        }
+        for (Subscription subscription : subscriptions) {
+            subscription.offer(event);
+        }
+    }
+}
@@ -0,0 +1,16 @@
+package p5;
+
+/**
+ * Receives {@link OrderEvent}s from an {@link OrderEventBus} subscription.
+ * Called on the subscription's own delivery thread, one event at a time, in publication order.
+ * @author Siddharth, Ibtesaam
+ */
+public interface OrderEventListener {
+
+    /**
+     * Handles one event.
+     *
+     * @param event The event.
+     */
+    void onEvent(OrderEvent event);
+}
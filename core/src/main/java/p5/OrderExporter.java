@@ -0,0 +1,386 @@
+package p5;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Streams store orders to CSV or JSON for accounting, one row per pizza or per order.
+ * Rows are appended to a reusable {@link StringBuilder}, encoded as UTF-8 into a fixed-size
+ * buffer, and written to a {@link WritableByteChannel} whenever the buffer fills, so memory use
+ * stays the same however many orders are exported. Output can be gzip-compressed, and a
+ * snapshot can be split across several files written in parallel.
+ * @author Siddharth, Ibtesaam
+ */
+public final class OrderExporter {
+
+    /**
+     * The output format.
+     */
+    public enum Format {
+
+        /** Comma-separated values with a header line. */
+        CSV("csv"),
+
+        /** A JSON array of objects. */
+        JSON("json");
+
+        /** The file name extension of this format. */
+        private final String extension;
+
+        /**
+         * Constructs a format.
+         *
+         * @param extension The file name extension.
+         */
+        Format(String extension) {
+            this.extension = extension;
+        }
+    }
+
+    /**
+     * What each exported row describes.
+     */
+    public enum Rows {
+
+        /** One row per pizza, carrying its order number. */
+        PIZZAS,
+
+        /** One row per order with its totals; in JSON the pizzas are nested inside. */
+        ORDERS
+    }
+
+    /** Number of characters collected before they are encoded and written. */
+    private static final int CHUNK_CHARS = 8 * 1024;
+
+    /** Size of the output byte buffer. */
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    /** CSV header of {@link Rows#PIZZAS} rows. */
+    private static final String PIZZA_HEADER = "order,line,kind,style,crust,size,toppings,price\n";
+
+    /** CSV header of {@link Rows#ORDERS} rows. */
+    private static final String ORDER_HEADER = "order,pizzas,subtotal,tax,total\n";
+
+    /** The output format. */
+    private final Format format;
+
+    /** What each row describes. */
+    private final Rows rows;
+
+    /** Whether files are gzip-compressed. */
+    private final boolean gzip;
+
+    /**
+     * Constructs an exporter.
+     *
+     * @param format The output format.
+     * @param rows   What each row describes.
+     * @param gzip   Whether files written by this exporter are gzip-compressed.
+     */
+    public OrderExporter(Format format, Rows rows, boolean gzip) {
+        this.format = format;
+        this.rows = rows;
+        this.gzip = gzip;
+    }
+
+    /**
+     * Gets the file name extension of the files this exporter writes, such as {@code csv.gz}.
+     *
+     * @return The file name extension, without the leading dot.
+     */
+    public String getFileExtension() {
+        return gzip ? format.extension + ".gz" : format.extension;
+    }
+
+    /**
+     * Writes orders to a channel. The channel is not closed.
+     *
+     * @param orders The orders to export, such as a snapshot from
+     *               {@link StoreOrdersManager#getStoreOrders()}.
+     * @param out    The channel to write to.
+     * @return The number of rows written.
+     * @throws IOException If the channel cannot be written.
+     */
+    public long export(Iterable<Order> orders, WritableByteChannel out) throws IOException {
+        Sink sink = new Sink(out);
+        long count = 0L;
+        if (format == Format.CSV) {
+            sink.text.append(rows == Rows.PIZZAS ? PIZZA_HEADER : ORDER_HEADER);
+        } else {
+            sink.text.append('[');
+        }
+        for (Order order : orders) {
+            if (rows == Rows.ORDERS) {
+                count = appendOrder(sink, order, count);
+            } else {
+                List<Pizza> pizzas = order.getPizzas();
+                for (int i = 0; i < pizzas.size(); i++) {
+                    count = appendPizzaRow(sink, order.getNumber(), i + 1, pizzas.get(i), count);
+                }
+            }
+        }
+        if (format == Format.JSON) {
+            sink.text.append(count == 0 ? "]\n" : "\n]\n");
+        }
+        sink.finish();
+        return count;
+    }
+
+    /**
+     * Writes orders to a file, compressing them if this exporter uses gzip.
+     *
+     * @param orders The orders to export.
+     * @param file   The file to write; replaced if it exists.
+     * @return The number of rows written.
+     * @throws IOException If the file cannot be written.
+     */
+    public long export(Iterable<Order> orders, File file) throws IOException {
+        try (FileOutputStream stream = new FileOutputStream(file)) {
+            if (!gzip) {
+                return export(orders, stream.getChannel());
+            }
+            try (GZIPOutputStream compressed = new GZIPOutputStream(stream, BUFFER_SIZE)) {
+                long count = export(orders, Channels.newChannel(compressed));
+                compressed.finish();
+                return count;
+            }
+        }
+    }
+
+    /**
+     * Splits a snapshot into several files and writes them in parallel, one thread per file.
+     * The files are named {@code <baseName>-<part>.<extension>} and together hold every order
+     * exactly once.
+     *
+     * @param orders    The snapshot to export.
+     * @param directory The directory to write the files in.
+     * @param baseName  The start of each file name.
+     * @param parts     The number of files.
+     * @return The number of rows written to all files.
+     * @throws IOException If a file cannot be written or the export is interrupted.
+     */
+    public long exportParallel(OrderSnapshot orders, File directory, String baseName, int parts) throws IOException {
+        ExecutorService executor = Executors.newFixedThreadPool(parts);
+        try {
+            List<Future<Long>> results = new ArrayList<>(parts);
+            for (int part = 0; part < parts; part++) {
+                Iterable<Order> slice = orders.part(part, parts);
+                File file = new File(directory,
+                        String.format(Locale.ROOT, "%s-%03d.%s", baseName, part, getFileExtension()));
+                results.add(executor.submit(() -> export(slice, file)));
+            }
+            long count = 0L;
+            for (Future<Long> result : results) {
+                count += result.get();
+            }
+            return count;
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof IOException) {
+                throw (IOException) e.getCause();
+            }
+            throw new IOException("Export failed", e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Export interrupted", e);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Appends one order row.
+     *
+     * @param sink  The output.
+     * @param order The order.
+     * @param count The number of rows written so far.
+     * @return The number of rows written including this one.
+     * @throws IOException If the output cannot be written.
+     */
+    private long appendOrder(Sink sink, Order order, long count) throws IOException {
+        StringBuilder text = sink.text;
+        List<Pizza> pizzas = order.getPizzas();
+        if (format == Format.CSV) {
+            text.append(order.getNumber()).append(',').append(pizzas.size()).append(',');
+            Money.appendTo(text, order.getSubtotalCents()).append(',');
+            Money.appendTo(text, order.getTaxCents()).append(',');
+            Money.appendTo(text, order.getTotalCents()).append('\n');
+        } else {
+            text.append(count == 0 ? "\n" : ",\n");
+            text.append("{\"order\":").append(order.getNumber()).append(",\"subtotal\":");
+            Money.appendTo(text, order.getSubtotalCents()).append(",\"tax\":");
+            Money.appendTo(text, order.getTaxCents()).append(",\"total\":");
+            Money.appendTo(text, order.getTotalCents()).append(",\"pizzas\":[");
+            for (int i = 0; i < pizzas.size(); i++) {
+                text.append(i == 0 ? "{" : ",{");
+                appendPizzaFields(text, pizzas.get(i));
+                text.append('}');
+            }
+            text.append("]}");
+        }
+        sink.endRow();
+        return count + 1;
+    }
+
+    /**
+     * Appends one pizza row.
+     *
+     * @param sink   The output.
+     * @param number The number of the pizza's order.
+     * @param line   The position of the pizza in its order, starting at 1.
+     * @param pizza  The pizza.
+     * @param count  The number of rows written so far.
+     * @return The number of rows written including this one.
+     * @throws IOException If the output cannot be written.
+     */
+    private long appendPizzaRow(Sink sink, int number, int line, Pizza pizza, long count) throws IOException {
+        StringBuilder text = sink.text;
+        if (format == Format.CSV) {
+            text.append(number).append(',').append(line).append(',')
+                    .append(pizza.getKind().name()).append(',')
+                    .append(pizza.getStyle().name()).append(',')
+                    .append(pizza.getCrust().name()).append(',')
+                    .append(pizza.getSize().name()).append(',');
+            int toppings = pizza.getToppingMask();
+            for (int rest = toppings; rest != 0; rest &= rest - 1) {
+                if (rest != toppings) {
+                    text.append(';');
+                }
+                text.append(Toppings.valueOf(Integer.numberOfTrailingZeros(rest)).name());
+            }
+            text.append(',');
+            Money.appendTo(text, pizza.priceCents()).append('\n');
+        } else {
+            text.append(count == 0 ? "\n" : ",\n");
+            text.append("{\"order\":").append(number).append(",\"line\":").append(line).append(',');
+            appendPizzaFields(text, pizza);
+            text.append('}');
+        }
+        sink.endRow();
+        return count + 1;
+    }
+
+    /**
+     * Appends the JSON fields of a pizza, without the surrounding braces.
+     *
+     * @param text  The builder to append to.
+     * @param pizza The pizza.
+     */
+    private static void appendPizzaFields(StringBuilder text, Pizza pizza) {
+        text.append("\"kind\":\"").append(pizza.getKind().name())
+                .append("\",\"style\":\"").append(pizza.getStyle().name())
+                .append("\",\"crust\":\"").append(pizza.getCrust().name())
+                .append("\",\"size\":\"").append(pizza.getSize().name())
+                .append("\",\"toppings\":[");
+        int toppings = pizza.getToppingMask();
+        for (int rest = toppings; rest != 0; rest &= rest - 1) {
+            if (rest != toppings) {
+                text.append(',');
+            }
+            text.append('"').append(Toppings.valueOf(Integer.numberOfTrailingZeros(rest)).name()).append('"');
+        }
+        text.append("],\"price\":");
+        Money.appendTo(text, pizza.priceCents());
+    }
+
+    /**
+     * Buffered UTF-8 output to a channel: characters collect in a builder, are encoded into a
+     * fixed-size byte buffer, and the buffer is written out whenever it fills.
+     */
+    private static final class Sink {
+
+        /** The characters not yet encoded. */
+        final StringBuilder text = new StringBuilder(CHUNK_CHARS + 1024);
+
+        /** The channel to write to. */
+        private final WritableByteChannel channel;
+
+        /** The UTF-8 encoder. */
+        private final CharsetEncoder encoder = StandardCharsets.UTF_8.newEncoder();
+
+        /** Encoded bytes not yet written. */
+        private final ByteBuffer bytes = ByteBuffer.allocateDirect(BUFFER_SIZE);
+
+        /**
+         * Constructs a sink writing to a channel.
+         *
+         * @param channel The channel to write to.
+         */
+        Sink(WritableByteChannel channel) {
+            this.channel = channel;
+        }
+
+        /**
+         * Marks the end of a row, encoding the collected characters once there are enough of them.
+         *
+         * @throws IOException If the channel cannot be written.
+         */
+        void endRow() throws IOException {
+            if (text.length() >= CHUNK_CHARS) {
+                encode(false);
+            }
+        }
+
+        /**
+         * Encodes and writes out everything collected so far.
+         *
+         * @throws IOException If the channel cannot be written.
+         */
+        void finish() throws IOException {
+            encode(true);
+            while (encoder.flush(bytes).isOverflow()) {
+                drain();
+            }
+            drain();
+        }
+
+        /**
+         * Encodes the collected characters into the byte buffer, writing it out when it fills.
+         *
+         * @param endOfInput Whether no more characters will follow.
+         * @throws IOException If the channel cannot be written or the text cannot be encoded.
+         */
+        private void encode(boolean endOfInput) throws IOException {
+            CharBuffer in = CharBuffer.wrap(text);
+            while (true) {
+                CoderResult result = encoder.encode(in, bytes, endOfInput);
+                if (result.isOverflow()) {
+                    drain();
+                } else if (result.isError()) {
+                    result.throwException();
+                } else {
+                    break;
+                }
+            }
+            text.setLength(0);
+        }
+
+        /**
+         * Writes out the byte buffer.
+         *
+         * @throws IOException If the channel cannot be written.
+         */
+        private void drain() throws IOException {
+            bytes.flip();
+            while (bytes.hasRemaining()) {
+                channel.write(bytes);
+            }
+            bytes.clear();
+        }
+    }
+}
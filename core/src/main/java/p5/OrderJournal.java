@@ -0,0 +1,801 @@
+package p5;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Locale;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.zip.CRC32;
+
+/**
+ * Append-only write-ahead journal of placed and removed store orders.
+ * Each change is written through a {@link FileChannel} as a length-prefixed, CRC32-checked record.
+ * How soon a record reaches the disk depends on the {@link Durability} mode; in
+ * {@link Durability#GROUP} mode concurrent writers share a single fsync.
+ * The journal is a directory of numbered segments. {@link #roll()} starts a new segment so that
+ * older ones can be deleted once a {@link StoreCheckpoint} covers them.
+ * On startup the segments after the latest checkpoint are replayed to rebuild the store; a torn
+ * record at the end of the last segment, left by a crash in the middle of a write, is discarded.
+ * Damage anywhere else, or a record that passes its checksum but cannot be decoded, stops the
+ * open with an error rather than silently dropping the changes after it.
+ * If a write or fsync fails, the records of the failed change are cut off again and the journal
+ * refuses every later change, since the file can no longer be trusted to match the store; records
+ * whose fsync failed in {@link Durability#GROUP} mode may or may not be replayed. Reopen the
+ * journal to continue.
+ * @author Siddharth, Ibtesaam
+ */
+public class OrderJournal implements Closeable {
+
+    /**
+     * How soon a journal record must reach the disk before the change returns.
+     */
+    public enum Durability {
+
+        /**
+         * Records are written to the file but not forced to disk; the operating system decides
+         * when to flush them. Fastest, but the latest changes can be lost in a power failure.
+         */
+        ASYNC,
+
+        /**
+         * Each change waits until its record is on disk, but concurrent changes share one fsync.
+         */
+        GROUP,
+
+        /**
+         * Each change forces its own record to disk before the next change is written.
+         */
+        SYNC
+    }
+
+    /**
+     * Receives the changes read back from a journal.
+     */
+    public interface Replayer {
+
+        /**
+         * Called for each placed order in the journal.
+         *
+         * @param order The restored order.
+         */
+        void orderAdded(Order order);
+
+        /**
+         * Called for each removed order in the journal.
+         *
+         * @param number The number of the removed order.
+         */
+        void orderRemoved(int number);
+    }
+
+    /** Record type of a placed order. */
+    private static final byte ADD = 1;
+
+    /** Record type of a removed order. */
+    private static final byte REMOVE = 2;
+
+    /** Size of the record header: payload length and CRC32. */
+    private static final int HEADER_SIZE = 8;
+
+    /** Largest payload accepted when reading, to reject garbage lengths. */
+    private static final int MAX_PAYLOAD = 1 << 20;
+
+    /** Initial capacity of the reusable record buffer. */
+    private static final int INITIAL_BUFFER_SIZE = 256;
+
+    /** Size at which the records of a batch are written out before the batch ends. */
+    private static final int MAX_BATCH_SIZE = 64 * 1024;
+
+    /** File name prefix of journal segments. */
+    private static final String SEGMENT_PREFIX = "journal-";
+
+    /** File name suffix of journal segments. */
+    private static final String SEGMENT_SUFFIX = ".log";
+
+    /** The directory holding the journal segments. */
+    private final File directory;
+
+    /** The segment records are appended to; replaced when the journal rolls. */
+    private volatile FileChannel channel;
+
+    /** Sequence number of the segment records are appended to; guarded by {@link #writeLock}. */
+    private long segment;
+
+    /** Journal position at which the current segment starts; guarded by {@link #writeLock}. */
+    private long segmentStart;
+
+    /** The durability mode of this journal. */
+    private final Durability durability;
+
+    /** Lock serializing writes to the file and use of the record buffer. */
+    private final Object writeLock = new Object();
+
+    /** Reusable buffer that records are encoded into before being written; guarded by {@link #writeLock}. */
+    private ByteBuffer recordBuffer = ByteBuffer.allocate(INITIAL_BUFFER_SIZE);
+
+    /** Position in the record buffer of the record being encoded; guarded by {@link #writeLock}. */
+    private int recordStart;
+
+    /** Reusable checksum for outgoing records; guarded by {@link #writeLock}. */
+    private final CRC32 recordCrc = new CRC32();
+
+    /** Lock coordinating group commit. */
+    private final ReentrantLock syncLock = new ReentrantLock();
+
+    /** Signalled whenever an fsync completes. */
+    private final Condition synced = syncLock.newCondition();
+
+    /**
+     * End of the last record written, counted across all segments since the journal was opened.
+     */
+    private volatile long writtenPosition;
+
+    /** End of the last record known to be on disk; guarded by {@link #syncLock}. */
+    private long durablePosition;
+
+    /** Whether a thread is currently running an fsync; guarded by {@link #syncLock}. */
+    private boolean syncInProgress;
+
+    /** The error that made the journal unusable, or null while it is healthy. */
+    private volatile Exception failure;
+
+    /**
+     * Constructs a journal appending to an open segment.
+     *
+     * @param directory  The directory holding the journal segments.
+     * @param channel    The segment to append to, positioned at its end.
+     * @param segment    The sequence number of that segment.
+     * @param durability The durability mode.
+     */
+    private OrderJournal(File directory, FileChannel channel, long segment, Durability durability) {
+        this.directory = directory;
+        this.channel = channel;
+        this.segment = segment;
+        this.durability = durability;
+    }
+
+    /**
+     * Opens a journal directory, creating it if it does not exist, and replays every segment
+     * from the given one onwards. A torn record at the end of the last segment is cut off
+     * so new records follow the last good one; any other damage is reported.
+     *
+     * @param directory    The directory holding the journal segments.
+     * @param durability   The durability mode for new records.
+     * @param firstSegment The first segment to replay; older segments are already covered by a
+     *                     {@link StoreCheckpoint}.
+     * @param replayer     Receives the changes already in the journal.
+     * @return The open journal, positioned for appending.
+     * @throws IOException If the directory or a segment cannot be opened or read, or a segment is
+     *                     damaged other than by a torn final record.
+     */
+    public static OrderJournal open(File directory, Durability durability, long firstSegment, Replayer replayer)
+            throws IOException {
+        if (!directory.isDirectory() && !directory.mkdirs()) {
+            throw new IOException("Cannot create journal directory " + directory);
+        }
+        long[] segments = listSegments(directory);
+        long last = firstSegment;
+        if (segments.length > 0) {
+            last = Math.max(last, segments[segments.length - 1]);
+        }
+        for (long sequence : segments) {
+            if (sequence >= firstSegment && sequence != last) {
+                File file = segmentFile(directory, sequence);
+                try (FileChannel sealed = new RandomAccessFile(file, "r").getChannel()) {
+                    replay(sealed, file, false, replayer);
+                }
+            }
+        }
+
+        File file = segmentFile(directory, last);
+        boolean created = !file.exists();
+        FileChannel channel = new RandomAccessFile(file, "rw").getChannel();
+        try {
+            if (created) {
+                forceDirectory(directory); // Otherwise forced records could be lost with the new file's name
+            }
+            long end = replay(channel, file, true, replayer);
+            channel.truncate(end);
+            channel.position(end);
+            OrderJournal journal = new OrderJournal(directory, channel, last, durability);
+            journal.writtenPosition = end;
+            journal.durablePosition = end;
+            return journal;
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Forces the entries of a directory to disk, so that files just created or renamed in it
+     * are found again after a power failure. Forcing a file only covers its contents.
+     *
+     * @param directory The directory.
+     * @throws IOException If the directory cannot be opened or forced.
+     */
+    static void forceDirectory(File directory) throws IOException {
+        try (FileChannel channel = FileChannel.open(directory.toPath(), StandardOpenOption.READ)) {
+            channel.force(true);
+        }
+    }
+
+    /**
+     * Gets the file of a journal segment.
+     *
+     * @param directory The journal directory.
+     * @param sequence  The segment sequence number.
+     * @return The segment file.
+     */
+    private static File segmentFile(File directory, long sequence) {
+        return new File(directory, String.format(Locale.ROOT, "%s%019d%s", SEGMENT_PREFIX, sequence, SEGMENT_SUFFIX));
+    }
+
+    /**
+     * Lists the sequence numbers of the segments in a journal directory.
+     *
+     * @param directory The journal directory.
+     * @return The sequence numbers in ascending order.
+     */
+    private static long[] listSegments(File directory) {
+        String[] names = directory.list();
+        if (names == null) {
+            return new long[0];
+        }
+        long[] sequences = new long[names.length];
+        int count = 0;
+        for (String name : names) {
+            if (name.startsWith(SEGMENT_PREFIX) && name.endsWith(SEGMENT_SUFFIX)) {
+                try {
+                    sequences[count++] = Long.parseLong(
+                            name.substring(SEGMENT_PREFIX.length(), name.length() - SEGMENT_SUFFIX.length()));
+                } catch (NumberFormatException e) {
+                    count--; // Not a segment written by this class
+                }
+            }
+        }
+        long[] result = Arrays.copyOf(sequences, count);
+        Arrays.sort(result);
+        return result;
+    }
+
+    /**
+     * Reads every record from the start of a segment.
+     * Only the last segment can end in a torn record, since every older one was forced to disk
+     * before the journal rolled past it. A torn record is one whose header or payload is cut short
+     * by the end of the file, the final record of the file if its checksum does not match, or
+     * zeros left where a record was about to be written; reading stops in front of it.
+     *
+     * @param channel  The segment.
+     * @param file     The segment file, for error messages.
+     * @param tail     Whether this is the last segment, which may end in a torn record.
+     * @param replayer Receives the changes.
+     * @return The position just after the last complete record.
+     * @throws IOException If the segment cannot be read, or is damaged other than by a torn
+     *                     record at the end of the last segment.
+     */
+    private static long replay(FileChannel channel, File file, boolean tail, Replayer replayer) throws IOException {
+        long position = 0L;
+        long size = channel.size();
+        ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+        CRC32 crc = new CRC32();
+        while (position < size) {
+            if (position + HEADER_SIZE > size) {
+                if (tail) {
+                    break;
+                }
+                throw damaged(file, position, "truncated record header", null);
+            }
+            header.clear();
+            readFully(channel, header, position);
+            header.flip();
+            int length = header.getInt();
+            int checksum = header.getInt();
+            if (length <= 0 || length > MAX_PAYLOAD) {
+                if (tail && length == 0 && isZeroFrom(channel, position, size)) {
+                    break;
+                }
+                throw damaged(file, position, "invalid record length " + length, null);
+            }
+            long next = position + HEADER_SIZE + length;
+            if (next > size) {
+                if (tail) {
+                    break;
+                }
+                throw damaged(file, position, "record runs past the end of the segment", null);
+            }
+            ByteBuffer payload = ByteBuffer.allocate(length);
+            readFully(channel, payload, position + HEADER_SIZE);
+            crc.reset();
+            crc.update(payload.array(), 0, length);
+            if ((int) crc.getValue() != checksum) {
+                if (tail && next == size) {
+                    break;
+                }
+                throw damaged(file, position, "checksum mismatch", null);
+            }
+            payload.flip();
+            try {
+                apply(payload, replayer);
+            } catch (BufferUnderflowException | IllegalArgumentException e) {
+                throw damaged(file, position, "record cannot be decoded", e);
+            }
+            position = next;
+        }
+        return position;
+    }
+
+    /**
+     * Checks whether a segment holds nothing but zeros from a position to its end.
+     *
+     * @param channel  The segment.
+     * @param position The position to check from.
+     * @param size     The size of the segment.
+     * @return True if every byte from the position on is zero.
+     * @throws IOException If the segment cannot be read.
+     */
+    private static boolean isZeroFrom(FileChannel channel, long position, long size) throws IOException {
+        ByteBuffer chunk = ByteBuffer.allocate(INITIAL_BUFFER_SIZE * 16);
+        while (position < size) {
+            chunk.clear();
+            chunk.limit((int) Math.min(chunk.capacity(), size - position));
+            readFully(channel, chunk, position);
+            for (int i = 0; i < chunk.limit(); i++) {
+                if (chunk.get(i) != 0) {
+                    return false;
+                }
+            }
+            position += chunk.limit();
+        }
+        return true;
+    }
+
+    /**
+     * Builds the error reported for a damaged segment.
+     *
+     * @param file     The segment file.
+     * @param position Where the damaged record starts.
+     * @param problem  What is wrong with it.
+     * @param cause    The decoding error, or null.
+     * @return The error.
+     */
+    private static IOException damaged(File file, long position, String problem, Exception cause) {
+        return new IOException("Journal segment " + file.getName() + " is damaged at byte " + position + ": " + problem, cause);
+    }
+
+    /**
+     * Decodes one record payload and passes it to the replayer.
+     *
+     * @param payload  The record payload.
+     * @param replayer Receives the change.
+     */
+    private static void apply(ByteBuffer payload, Replayer replayer) {
+        byte type = payload.get();
+        if (type == ADD) {
+            replayer.orderAdded(OrderCodec.decode(payload));
+        } else if (type == REMOVE) {
+            replayer.orderRemoved((int) OrderCodec.getVarint(payload));
+        } else {
+            throw new IllegalArgumentException("Unknown journal record type " + type);
+        }
+    }
+
+    /**
+     * Records that an order was placed.
+     *
+     * @param order The placed order.
+     * @throws IllegalArgumentException If the order is too large to be replayed; nothing is written.
+     * @throws IOException If the record cannot be written.
+     */
+    public void logAdd(Order order) throws IOException {
+        checkSize(order);
+        long start = System.nanoTime();
+        long end;
+        synchronized (writeLock) {
+            long rollback = beginChange();
+            try {
+                appendAdd(order);
+                end = writeRecords();
+            } catch (IOException | RuntimeException e) {
+                abortChange(rollback, e);
+                throw e;
+            }
+        }
+        awaitIfGrouped(end);
+        Metrics.getInstance().getJournalWrite().recordSince(start);
+    }
+
+    /**
+     * Records that several orders were placed, with one write lock and at most one fsync
+     * for the whole batch. Each order gets its own record, and a large batch is written in
+     * several writes, so a crash in the middle can leave only the first records on disk.
+     *
+     * @param orders The placed orders.
+     * @throws IllegalArgumentException If an order is too large to be replayed; nothing is written.
+     * @throws IOException If the records cannot be written.
+     */
+    public void logAdds(Collection<Order> orders) throws IOException {
+        for (Order order : orders) {
+            checkSize(order);
+        }
+        long start = System.nanoTime();
+        long end;
+        synchronized (writeLock) {
+            long rollback = beginChange();
+            try {
+                for (Order order : orders) {
+                    appendAdd(order);
+                }
+                end = writeRecords();
+            } catch (IOException | RuntimeException e) {
+                abortChange(rollback, e);
+                throw e;
+            }
+        }
+        awaitIfGrouped(end);
+        Metrics.getInstance().getJournalWrite().recordSince(start);
+    }
+
+    /**
+     * Records that an order was removed.
+     *
+     * @param number The number of the removed order.
+     * @throws IOException If the record cannot be written.
+     */
+    public void logRemove(int number) throws IOException {
+        long start = System.nanoTime();
+        long end;
+        synchronized (writeLock) {
+            long rollback = beginChange();
+            try {
+                appendRemove(number);
+                end = writeRecords();
+            } catch (IOException | RuntimeException e) {
+                abortChange(rollback, e);
+                throw e;
+            }
+        }
+        awaitIfGrouped(end);
+        Metrics.getInstance().getJournalWrite().recordSince(start);
+    }
+
+    /**
+     * Records that several orders were removed, with one write lock and at most one fsync
+     * for the whole batch. Each order gets its own record, and a large batch is written in
+     * several writes, so a crash in the middle can leave only the first records on disk.
+     *
+     * @param orders The removed orders.
+     * @throws IOException If the records cannot be written.
+     */
+    public void logRemoves(Collection<Order> orders) throws IOException {
+        long start = System.nanoTime();
+        long end;
+        synchronized (writeLock) {
+            long rollback = beginChange();
+            try {
+                for (Order order : orders) {
+                    appendRemove(order.getNumber());
+                }
+                end = writeRecords();
+            } catch (IOException | RuntimeException e) {
+                abortChange(rollback, e);
+                throw e;
+            }
+        }
+        awaitIfGrouped(end);
+        Metrics.getInstance().getJournalWrite().recordSince(start);
+    }
+
+    /**
+     * Checks that the journal can take a change, before its records are encoded.
+     * Must be called while holding the write lock.
+     *
+     * @return The journal position to roll back to if the change fails.
+     * @throws IOException If an earlier failure made the journal unusable.
+     */
+    private long beginChange() throws IOException {
+        checkNotFailed();
+        return writtenPosition;
+    }
+
+    /**
+     * Undoes a change whose records could not be encoded or written: the buffered records are
+     * dropped and anything already written is cut off the file. A failure that reached the file
+     * makes the journal unusable, since what is on disk can no longer be trusted.
+     * Must be called while holding the write lock.
+     *
+     * @param rollback The journal position before the change.
+     * @param cause    Why the change failed.
+     */
+    private void abortChange(long rollback, Exception cause) {
+        recordBuffer.clear();
+        if (cause instanceof RuntimeException && writtenPosition == rollback) {
+            return; // Nothing reached the file, so the journal is still consistent
+        }
+        try {
+            channel.truncate(rollback - segmentStart);
+            channel.position(rollback - segmentStart);
+            writtenPosition = rollback;
+        } catch (IOException e) {
+            cause.addSuppressed(e);
+        }
+        failure = cause;
+    }
+
+    /**
+     * Ensures no earlier write or fsync failure made the journal unusable.
+     *
+     * @throws IOException If the journal has failed.
+     */
+    private void checkNotFailed() throws IOException {
+        Exception failure = this.failure;
+        if (failure != null) {
+            throw new IOException("Journal is unusable after an earlier failure", failure);
+        }
+    }
+
+    /**
+     * Ensures an order's record fits within the largest payload replay accepts, so no order is
+     * written that would stop the journal from opening again.
+     *
+     * @param order The order about to be journaled.
+     * @throws IllegalArgumentException If the order could encode to a record that is too large.
+     */
+    private static void checkSize(Order order) {
+        if (1 + OrderCodec.maxEncodedSize(order) > MAX_PAYLOAD) {
+            throw new IllegalArgumentException("Order " + order.getNumber() + " is too large to journal: "
+                    + order.pizzaCount() + " pizzas");
+        }
+    }
+
+    /**
+     * Encodes a placed-order record into the record buffer.
+     * Must be called while holding the write lock.
+     *
+     * @param order The placed order.
+     * @throws IOException If earlier records have to be written out and cannot be.
+     */
+    private void appendAdd(Order order) throws IOException {
+        ByteBuffer record = beginRecord(1 + OrderCodec.maxEncodedSize(order));
+        record.put(ADD);
+        OrderCodec.encode(order, record);
+        endRecord();
+    }
+
+    /**
+     * Encodes a removed-order record into the record buffer.
+     * Must be called while holding the write lock.
+     *
+     * @param number The number of the removed order.
+     * @throws IOException If earlier records have to be written out and cannot be.
+     */
+    private void appendRemove(int number) throws IOException {
+        ByteBuffer record = beginRecord(1 + OrderCodec.MAX_VARINT_SIZE);
+        record.put(REMOVE);
+        OrderCodec.putVarint(record, number);
+        endRecord();
+    }
+
+    /**
+     * Starts a record in the reusable record buffer, positioned after its header.
+     * If the buffer already holds a full batch, those records are written out first.
+     * Must be called while holding the write lock.
+     *
+     * @param maxPayloadLength The largest payload the record can have.
+     * @return The record buffer.
+     * @throws IOException If earlier records have to be written out and cannot be.
+     */
+    private ByteBuffer beginRecord(int maxPayloadLength) throws IOException {
+        int needed = HEADER_SIZE + maxPayloadLength;
+        if (recordBuffer.remaining() < needed && recordBuffer.position() > 0
+                && recordBuffer.position() + needed > MAX_BATCH_SIZE) {
+            drainRecords();
+        }
+        if (recordBuffer.remaining() < needed) {
+            ByteBuffer larger = ByteBuffer.allocate(Math.max(recordBuffer.capacity() * 2, recordBuffer.position() + needed));
+            recordBuffer.flip();
+            larger.put(recordBuffer);
+            recordBuffer = larger;
+        }
+        recordStart = recordBuffer.position();
+        recordBuffer.position(recordStart + HEADER_SIZE);
+        return recordBuffer;
+    }
+
+    /**
+     * Fills in the header of the record started by {@link #beginRecord(int)}.
+     * Must be called while holding the write lock.
+     */
+    private void endRecord() {
+        int length = recordBuffer.position() - recordStart - HEADER_SIZE;
+        recordCrc.reset();
+        recordCrc.update(recordBuffer.array(), recordStart + HEADER_SIZE, length);
+        recordBuffer.putInt(recordStart, length).putInt(recordStart + 4, (int) recordCrc.getValue());
+    }
+
+    /**
+     * Writes the buffered records to the file, forcing them to disk in {@link Durability#SYNC} mode.
+     * Must be called while holding the write lock.
+     *
+     * @return The journal position just after the last record.
+     * @throws IOException If the records cannot be written.
+     */
+    private long writeRecords() throws IOException {
+        drainRecords();
+        if (durability == Durability.SYNC) {
+            channel.force(false);
+        }
+        return writtenPosition;
+    }
+
+    /**
+     * Writes the buffered records to the file without forcing them to disk and empties the buffer.
+     * Must be called while holding the write lock.
+     *
+     * @throws IOException If the records cannot be written.
+     */
+    private void drainRecords() throws IOException {
+        int bytes = recordBuffer.position();
+        recordBuffer.flip();
+        while (recordBuffer.hasRemaining()) {
+            channel.write(recordBuffer);
+        }
+        recordBuffer.clear();
+        writtenPosition = segmentStart + channel.position();
+        Metrics.getInstance().getJournalBytes().add(bytes);
+    }
+
+    /**
+     * Waits for a record to reach the disk in {@link Durability#GROUP} mode.
+     *
+     * @param end The journal position just after the record.
+     * @throws IOException If the fsync fails.
+     */
+    private void awaitIfGrouped(long end) throws IOException {
+        if (durability == Durability.GROUP) {
+            awaitDurable(end);
+        }
+    }
+
+    /**
+     * Waits until the journal is on disk up to the given position. The first waiting thread runs the
+     * fsync for everything written so far; the others wait for it instead of issuing their own.
+     *
+     * @param position The position that must be durable.
+     * @throws IOException If the fsync fails, now or earlier.
+     */
+    private void awaitDurable(long position) throws IOException {
+        syncLock.lock();
+        try {
+            while (durablePosition < position) {
+                checkNotFailed();
+                if (syncInProgress) {
+                    synced.awaitUninterruptibly();
+                    continue;
+                }
+                syncInProgress = true;
+                long target = writtenPosition;
+                syncLock.unlock();
+                try {
+                    channel.force(false);
+                } catch (IOException | RuntimeException e) {
+                    failure = e;
+                    throw e;
+                } finally {
+                    syncLock.lock();
+                    syncInProgress = false;
+                    synced.signalAll();
+                }
+                durablePosition = Math.max(durablePosition, target);
+            }
+        } finally {
+            syncLock.unlock();
+        }
+    }
+
+    /**
+     * Starts a new segment and makes it the one records are appended to.
+     * Every record written before the call is in an older segment and on disk when this returns,
+     * as is the new segment's directory entry; every record written after it is in the new
+     * segment or a later one.
+     *
+     * @return The sequence number of the new segment.
+     * @throws IOException If the journal has failed, or the old segment cannot be forced or the new
+     *                     one cannot be created.
+     */
+    public long roll() throws IOException {
+        synchronized (writeLock) {
+            checkNotFailed();
+            FileChannel old = channel;
+            old.force(false);
+            syncLock.lock();
+            try {
+                while (syncInProgress) {
+                    synced.awaitUninterruptibly(); // Let a running group commit finish with the old segment
+                }
+                durablePosition = Math.max(durablePosition, writtenPosition);
+                synced.signalAll();
+            } finally {
+                syncLock.unlock();
+            }
+            long next = segment + 1;
+            FileChannel created = new RandomAccessFile(segmentFile(directory, next), "rw").getChannel();
+            try {
+                forceDirectory(directory);
+            } catch (IOException e) {
+                created.close();
+                throw e;
+            }
+            channel = created;
+            segment = next;
+            segmentStart = writtenPosition;
+            old.close();
+            return next;
+        }
+    }
+
+    /**
+     * Deletes every segment older than the given one, once a {@link StoreCheckpoint} covers them.
+     *
+     * @param sequence The oldest segment to keep.
+     * @return The number of segments deleted.
+     */
+    public int deleteSegmentsBefore(long sequence) {
+        int deleted = 0;
+        for (long old : listSegments(directory)) {
+            if (old < sequence && segmentFile(directory, old).delete()) {
+                deleted++;
+            }
+        }
+        return deleted;
+    }
+
+    /**
+     * Forces every record written so far to disk.
+     *
+     * @throws IOException If the fsync fails.
+     */
+    public void flush() throws IOException {
+        awaitDurable(writtenPosition);
+    }
+
+    /**
+     * Flushes and closes the current segment.
+     *
+     * @throws IOException If the segment cannot be flushed or closed.
+     */
+    @Override
+    public void close() throws IOException {
+        try {
+            flush();
+        } finally {
+            channel.close();
+        }
+    }
+
+    /**
+     * Reads from a segment until the buffer is full.
+     *
+     * @param channel  The segment.
+     * @param buffer   The buffer to fill.
+     * @param position The file position to read from.
+     * @throws IOException If the segment ends early or cannot be read.
+     */
+    private static void readFully(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            int read = channel.read(buffer, position);
+            if (read < 0) {
+                throw new IOException("Unexpected end of journal");
+            }
+            position += read;
+        }
+    }
+}
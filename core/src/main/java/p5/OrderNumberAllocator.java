@@ -0,0 +1,274 @@
+package p5;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.CRC32;
+
+/**
+ * Allocates unique order numbers.
+ * Numbers are handed out from an {@link AtomicLong}, so the common path is a single lock-free
+ * increment that is safe from any number of threads. Numbers are reserved in blocks: only when
+ * a block is used up is the new high-water mark written to disk, so a restarted process resumes
+ * after the last reserved block and never repeats a number.
+ * The high-water mark is kept in two checksummed slots that are written alternately, so a crash
+ * in the middle of a write always leaves the previous mark readable.
+ * @author Siddharth, Ibtesaam
+ */
+public final class OrderNumberAllocator {
+
+    /** Default number of order numbers reserved by each write to disk. */
+    public static final int DEFAULT_BLOCK_SIZE = 64;
+
+    /** Size in bytes of one high-water mark slot: the mark followed by its CRC32. */
+    private static final int SLOT_SIZE = 16;
+
+    /**
+     * Counter value that retires an in-memory allocator once a persistent one takes over:
+     * far beyond any order number, so every later call takes the slow path and hands off.
+     */
+    private static final long RETIRED = Long.MAX_VALUE / 2;
+
+    /** The allocator used by new {@link Order} objects; starts in memory only. */
+    private static volatile OrderNumberAllocator instance = new OrderNumberAllocator(null, DEFAULT_BLOCK_SIZE, 0L);
+
+    /** The file holding the high-water mark, or null if nothing is persisted. */
+    private final FileChannel channel;
+
+    /** Number of order numbers reserved at a time. */
+    private final int blockSize;
+
+    /** The next order number to hand out. */
+    private final AtomicLong next;
+
+    /** Order numbers below this limit have been reserved and may be handed out. */
+    private volatile long reservedLimit;
+
+    /** Lock guarding block reservation and the slot written next. */
+    private final Object reserveLock = new Object();
+
+    /** The slot (0 or 1) that the next high-water mark is written to. */
+    private int nextSlot;
+
+    /** The allocator that took over from this retired one, or null while this one is in use. */
+    private volatile OrderNumberAllocator successor;
+
+    /**
+     * Constructs an allocator that starts at the given number.
+     *
+     * @param channel   The file holding the high-water mark, or null to keep it in memory only.
+     * @param blockSize The number of order numbers reserved at a time.
+     * @param start     The first order number to hand out.
+     */
+    OrderNumberAllocator(FileChannel channel, int blockSize, long start) {
+        this.channel = channel;
+        this.blockSize = blockSize;
+        this.next = new AtomicLong(start);
+        this.reservedLimit = channel == null ? RETIRED : start;
+    }
+
+    /**
+     * Gets the allocator used by new orders.
+     *
+     * @return The current allocator.
+     */
+    public static OrderNumberAllocator getInstance() {
+        return instance;
+    }
+
+    /**
+     * Switches new orders to an allocator whose high-water mark is stored in the given file.
+     * Numbering resumes after the last block reserved in that file, or after the numbers
+     * already handed out by the in-memory allocator, whichever is higher.
+     * Has no effect if a persistent allocator is already in use.
+     * Threads still holding the in-memory allocator keep getting unique numbers: it is retired
+     * atomically and hands every later call to the persistent one.
+     *
+     * @param file      The file holding the high-water mark; created if it does not exist.
+     * @param blockSize The number of order numbers reserved by each write to disk.
+     * @throws IOException If the file cannot be opened or read.
+     */
+    public static synchronized void persistTo(File file, int blockSize) throws IOException {
+        if (instance.channel != null) {
+            return;
+        }
+        instance = takeOver(instance, file, blockSize);
+    }
+
+    /**
+     * Opens a persistent allocator that takes over from an in-memory one.
+     * The in-memory counter is swapped for {@link #RETIRED} in one atomic step, so every number
+     * it handed out is seen by the new allocator and every later call on it is handed off.
+     *
+     * @param previous  The in-memory allocator to retire.
+     * @param file      The file holding the high-water mark; created if it does not exist.
+     * @param blockSize The number of order numbers reserved by each write to disk.
+     * @return The persistent allocator.
+     * @throws IllegalArgumentException If the block size is not positive.
+     * @throws IOException If the file cannot be opened or read.
+     */
+    static OrderNumberAllocator takeOver(OrderNumberAllocator previous, File file, int blockSize) throws IOException {
+        OrderNumberAllocator allocator = open(file, blockSize, 0L);
+        long handedOut = previous.next.getAndSet(RETIRED);
+        allocator.next.accumulateAndGet(handedOut, Math::max);
+        previous.successor = allocator;
+        return allocator;
+    }
+
+    /**
+     * Opens an allocator whose high-water mark is stored in the given file, without making it
+     * the one used by new orders.
+     *
+     * @param file      The file holding the high-water mark; created if it does not exist.
+     * @param blockSize The number of order numbers reserved by each write to disk.
+     * @param start     The lowest number to hand out, even if the file holds a lower mark.
+     * @return The allocator.
+     * @throws IllegalArgumentException If the block size is not positive.
+     * @throws IOException If the file cannot be opened or read.
+     */
+    static OrderNumberAllocator open(File file, int blockSize, long start) throws IOException {
+        if (blockSize <= 0) {
+            throw new IllegalArgumentException("Block size must be positive: " + blockSize);
+        }
+        FileChannel channel = new RandomAccessFile(file, "rw").getChannel();
+        long[] slots = {readSlot(channel, 0), readSlot(channel, 1)};
+        OrderNumberAllocator allocator = new OrderNumberAllocator(channel, blockSize,
+                Math.max(Math.max(slots[0], slots[1]), start));
+        allocator.nextSlot = slots[0] <= slots[1] ? 0 : 1; // Overwrite the older slot first
+        return allocator;
+    }
+
+    /**
+     * Closes the file holding the high-water mark. Numbers already reserved can still be handed
+     * out, but reserving another block fails.
+     *
+     * @throws IOException If the file cannot be closed.
+     */
+    void close() throws IOException {
+        if (channel != null) {
+            channel.close();
+        }
+    }
+
+    /**
+     * Hands out the next order number.
+     *
+     * @return A unique order number.
+     * @throws IllegalStateException If the order numbers are exhausted.
+     * @throws UncheckedIOException If a new block cannot be reserved on disk.
+     */
+    public int next() {
+        long number = next.getAndIncrement();
+        if (number >= reservedLimit) {
+            if (channel == null) {
+                return handedOff().next();
+            }
+            reserveThrough(number);
+        }
+        if (number > Integer.MAX_VALUE) {
+            throw new IllegalStateException("Order numbers exhausted");
+        }
+        return (int) number;
+    }
+
+    /**
+     * Makes sure no number up to the given one is handed out again, as after restoring orders
+     * that used them. Nothing is written to disk: the restored orders themselves keep the numbers
+     * taken, and a block is reserved as usual when the next number is handed out.
+     *
+     * @param number The highest order number already in use.
+     */
+    void advancePast(int number) {
+        next.accumulateAndGet(number + 1L, Math::max);
+    }
+
+    /**
+     * Waits for the allocator that takes over from this retired one; it is set right after the
+     * counter is retired.
+     *
+     * @return The successor.
+     */
+    private OrderNumberAllocator handedOff() {
+        OrderNumberAllocator taken;
+        while ((taken = successor) == null) {
+            Thread.yield();
+        }
+        return taken;
+    }
+
+    /**
+     * Reserves the block containing the given number, writing the new high-water mark to disk
+     * before the number is handed out.
+     *
+     * @param number The order number that needs to be reserved.
+     */
+    private void reserveThrough(long number) {
+        synchronized (reserveLock) {
+            if (number < reservedLimit) {
+                return; // Another thread reserved it while we waited
+            }
+            long limit = (number / blockSize + 1) * blockSize;
+            try {
+                writeSlot(nextSlot, limit);
+            } catch (IOException e) {
+                throw new UncheckedIOException("Could not reserve order numbers", e);
+            }
+            nextSlot ^= 1;
+            reservedLimit = limit;
+        }
+    }
+
+    /**
+     * Writes a high-water mark to a slot and forces it to disk.
+     *
+     * @param slot  The slot to write (0 or 1).
+     * @param limit The high-water mark.
+     * @throws IOException If the write fails.
+     */
+    private void writeSlot(int slot, long limit) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(SLOT_SIZE);
+        buffer.putLong(limit).putLong(checksum(limit)).flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer, (long) slot * SLOT_SIZE + buffer.position());
+        }
+        channel.force(false);
+    }
+
+    /**
+     * Reads the high-water mark stored in a slot.
+     *
+     * @param channel The file holding the slots.
+     * @param slot    The slot to read (0 or 1).
+     * @return The stored mark, or 0 if the slot is empty or damaged.
+     * @throws IOException If the read fails.
+     */
+    private static long readSlot(FileChannel channel, int slot) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(SLOT_SIZE);
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, (long) slot * SLOT_SIZE + buffer.position()) < 0) {
+                return 0L;
+            }
+        }
+        buffer.flip();
+        long limit = buffer.getLong();
+        return buffer.getLong() == checksum(limit) && limit >= 0 ? limit : 0L;
+    }
+
+    /**
+     * Calculates the checksum stored next to a high-water mark.
+     *
+     * @param limit The high-water mark.
+     * @return The CRC32 of the mark's bytes.
+     */
+    private static long checksum(long limit) {
+        CRC32 crc = new CRC32();
+        for (int shift = 56; shift >= 0; shift -= 8) {
+            crc.update((int) (limit >>> shift));
+        }
+        return crc.getValue();
+    }
+}
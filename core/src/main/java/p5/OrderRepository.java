@@ -0,0 +1,259 @@
+package p5;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Predicate;
+
+/**
+ * Thread-safe storage for placed orders, indexed by order number.
+ * Orders are kept in an append-only log of entries plus a hash index from order number
+ * to entry, so adding, looking up, and removing an order are constant time.
+ * Every change publishes a new immutable {@link OrderSnapshot} version; readers take the
+ * current snapshot in constant time and scan it without locking or copying while writers
+ * keep appending. Removed entries are only dropped from the log once it is compacted, and
+ * older log arrays are reclaimed by the garbage collector when no snapshot refers to them.
+ * @author Siddharth, Ibtesaam
+ */
+public class OrderRepository {
+
+    /** Initial capacity of the entry log. */
+    private static final int INITIAL_CAPACITY = 16;
+
+    /** Minimum log size before removed entries are compacted away. */
+    private static final int MIN_COMPACT_SIZE = 64;
+
+    /** Index from order number to the entry holding that order. */
+    private final ConcurrentHashMap<Integer, Entry> index = new ConcurrentHashMap<>();
+
+    /** Lock serializing writers; readers never take it. */
+    private final Object writeLock = new Object();
+
+    /** The latest published version of the repository. */
+    private volatile OrderSnapshot current = new OrderSnapshot(new Entry[INITIAL_CAPACITY], 0, 0, 0L);
+
+    /**
+     * An order in the log, with the version at which it was removed.
+     */
+    static final class Entry {
+
+        /** The stored order. */
+        final Order order;
+
+        /** The version that removed this entry, or {@link Long#MAX_VALUE} while it is live. */
+        volatile long removedVersion = Long.MAX_VALUE;
+
+        /**
+         * Constructs a live entry for an order.
+         *
+         * @param order The stored order.
+         */
+        Entry(Order order) {
+            this.order = order;
+        }
+
+        /**
+         * Checks whether this entry is part of a given version.
+         *
+         * @param version The snapshot version.
+         * @return True if the entry had not been removed at that version.
+         */
+        boolean isVisibleAt(long version) {
+            return removedVersion > version;
+        }
+    }
+
+    /**
+     * Stores an order, replacing any order with the same number.
+     *
+     * @param order The order to store.
+     */
+    public void add(Order order) {
+        synchronized (writeLock) {
+            OrderSnapshot state = current;
+            long version = state.version() + 1;
+            Entry entry = new Entry(order);
+            Entry replaced = index.put(order.getNumber(), entry);
+            int live = state.size() + 1;
+            if (replaced != null) {
+                replaced.removedVersion = version;
+                live--;
+            }
+
+            Entry[] entries = state.entries();
+            int length = state.length();
+            if (length == entries.length) {
+                entries = Arrays.copyOf(entries, length * 2);
+            }
+            entries[length] = entry; // Beyond the length of every published snapshot
+            current = new OrderSnapshot(entries, length + 1, live, version);
+        }
+    }
+
+    /**
+     * Stores several orders under one lock and publishes a single new version for all of them.
+     * Orders replace any stored order with the same number, including earlier ones in the batch.
+     *
+     * @param orders The orders to store, in the order they were added.
+     */
+    public void addAll(Collection<Order> orders) {
+        if (orders.isEmpty()) {
+            return;
+        }
+        synchronized (writeLock) {
+            OrderSnapshot state = current;
+            long version = state.version() + 1;
+            int live = state.size();
+            Entry[] entries = state.entries();
+            int length = state.length();
+            if (length + orders.size() > entries.length) {
+                entries = Arrays.copyOf(entries, Math.max(entries.length * 2, length + orders.size()));
+            }
+            for (Order order : orders) {
+                Entry entry = new Entry(order);
+                Entry replaced = index.put(order.getNumber(), entry);
+                if (replaced != null) {
+                    replaced.removedVersion = version;
+                } else {
+                    live++;
+                }
+                entries[length++] = entry; // Beyond the length of every published snapshot
+            }
+            current = new OrderSnapshot(entries, length, live, version);
+        }
+    }
+
+    /**
+     * Looks up an order by its number.
+     *
+     * @param number The order number.
+     * @return The order, or null if no order has that number.
+     */
+    public Order get(int number) {
+        Entry entry = index.get(number);
+        return entry == null ? null : entry.order;
+    }
+
+    /**
+     * Removes the order with the given number.
+     *
+     * @param number The order number.
+     * @return The removed order, or null if no order has that number.
+     */
+    public Order remove(int number) {
+        synchronized (writeLock) {
+            Entry entry = index.remove(number);
+            if (entry == null) {
+                return null;
+            }
+            retire(entry);
+            return entry.order;
+        }
+    }
+
+    /**
+     * Removes an order if it is the one stored under its number.
+     *
+     * @param order The order to remove.
+     * @return True if the order was removed, false otherwise.
+     */
+    public boolean remove(Order order) {
+        synchronized (writeLock) {
+            Entry entry = index.get(order.getNumber());
+            if (entry == null || entry.order != order) {
+                return false;
+            }
+            index.remove(order.getNumber());
+            retire(entry);
+            return true;
+        }
+    }
+
+    /**
+     * Removes every order that matches a filter in one pass over the log, publishing a single
+     * new version for all of them.
+     *
+     * @param filter Selects the orders to remove; called once per stored order under the write lock.
+     * @return The removed orders, in the order they were added.
+     */
+    public List<Order> removeIf(Predicate<? super Order> filter) {
+        List<Order> removed = new ArrayList<>();
+        synchronized (writeLock) {
+            OrderSnapshot state = current;
+            long version = state.version() + 1;
+            Entry[] entries = state.entries();
+            int length = state.length();
+            for (int i = 0; i < length; i++) {
+                Entry entry = entries[i];
+                if (entry.isVisibleAt(state.version()) && filter.test(entry.order)) {
+                    index.remove(entry.order.getNumber(), entry);
+                    entry.removedVersion = version;
+                    removed.add(entry.order);
+                }
+            }
+            if (!removed.isEmpty()) {
+                publish(entries, length, state.size() - removed.size(), version);
+            }
+        }
+        return removed;
+    }
+
+    /**
+     * Marks an entry removed in a new version and publishes that version.
+     * Must be called while holding the write lock.
+     *
+     * @param entry The entry to remove.
+     */
+    private void retire(Entry entry) {
+        OrderSnapshot state = current;
+        long version = state.version() + 1;
+        entry.removedVersion = version;
+        publish(state.entries(), state.length(), state.size() - 1, version);
+    }
+
+    /**
+     * Publishes a new version after removals, compacting the log first if it is mostly
+     * removed entries. Must be called while holding the write lock.
+     *
+     * @param entries The entry log.
+     * @param length  Number of log entries in use, including removed ones.
+     * @param live    Number of orders visible in the new version.
+     * @param version The new version.
+     */
+    private void publish(Entry[] entries, int length, int live, long version) {
+        if (length >= MIN_COMPACT_SIZE && live < length / 2) {
+            // Copy the live entries into a fresh array; older snapshots keep the old one
+            Entry[] compacted = new Entry[Math.max(INITIAL_CAPACITY, live * 2)];
+            int kept = 0;
+            for (int i = 0; i < length; i++) {
+                if (entries[i].isVisibleAt(version)) {
+                    compacted[kept++] = entries[i];
+                }
+            }
+            entries = compacted;
+            length = kept;
+        }
+        current = new OrderSnapshot(entries, length, live, version);
+    }
+
+    /**
+     * Gets the number of stored orders.
+     *
+     * @return The number of orders.
+     */
+    public int size() {
+        return current.size();
+    }
+
+    /**
+     * Takes a consistent, immutable view of the stored orders in the order they were added.
+     * Taking a snapshot is constant time and never blocks writers.
+     *
+     * @return The current snapshot.
+     */
+    public OrderSnapshot snapshot() {
+        return current;
+    }
+}
@@ -0,0 +1,191 @@
+package p5;
+
+import java.util.AbstractList;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * An immutable, consistent view of the store orders at one version of the {@link OrderRepository}.
+ * Orders appear in the order they were placed. The snapshot shares the repository's entry log
+ * instead of copying it, and is unaffected by orders added or removed after it was taken.
+ * @author Siddharth, Ibtesaam
+ */
+public final class OrderSnapshot extends AbstractList<Order> {
+
+    /** The entry log shared with the repository. */
+    private final OrderRepository.Entry[] entries;
+
+    /** Number of log entries that belong to this snapshot, including removed ones. */
+    private final int length;
+
+    /** Number of orders visible in this snapshot. */
+    private final int live;
+
+    /** The version of the repository this snapshot shows. */
+    private final long version;
+
+    /** Log positions of the visible orders, built the first time {@link #get(int)} needs them. */
+    private volatile int[] positions;
+
+    /**
+     * Constructs a snapshot over the first entries of a log.
+     *
+     * @param entries The entry log.
+     * @param length  Number of log entries that belong to this snapshot.
+     * @param live    Number of orders visible in this snapshot.
+     * @param version The version of the repository.
+     */
+    OrderSnapshot(OrderRepository.Entry[] entries, int length, int live, long version) {
+        this.entries = entries;
+        this.length = length;
+        this.live = live;
+        this.version = version;
+    }
+
+    /**
+     * Gets the version of the repository this snapshot shows.
+     * A later change to the repository always has a higher version.
+     *
+     * @return The snapshot version.
+     */
+    public long version() {
+        return version;
+    }
+
+    /**
+     * Gets the entry log shared with the repository.
+     *
+     * @return The entry log.
+     */
+    OrderRepository.Entry[] entries() {
+        return entries;
+    }
+
+    /**
+     * Gets the number of log entries that belong to this snapshot, including removed ones.
+     *
+     * @return The log length.
+     */
+    int length() {
+        return length;
+    }
+
+    /**
+     * Gets the number of orders in this snapshot.
+     *
+     * @return The number of orders.
+     */
+    @Override
+    public int size() {
+        return live;
+    }
+
+    /**
+     * Gets the order at a position in this snapshot.
+     * Constant time unless orders were removed before the snapshot was taken, in which case
+     * the first call builds a position table in one pass over the log.
+     *
+     * @param index The position of the order.
+     * @return The order at that position.
+     */
+    @Override
+    public Order get(int index) {
+        if (index < 0 || index >= live) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + live);
+        }
+        if (live == length) {
+            return entries[index].order;
+        }
+        int[] table = positions;
+        if (table == null) {
+            table = new int[live];
+            int found = 0;
+            for (int i = 0; i < length && found < live; i++) {
+                if (entries[i].isVisibleAt(version)) {
+                    table[found++] = i;
+                }
+            }
+            positions = table;
+        }
+        return entries[table[index]].order;
+    }
+
+    /**
+     * Iterates over the orders in this snapshot without allocating a position table.
+     *
+     * @return An iterator over the orders.
+     */
+    @Override
+    public Iterator<Order> iterator() {
+        return new Cursor(0, length);
+    }
+
+    /**
+     * Splits this snapshot into roughly equal parts that can be scanned independently,
+     * for example by several threads. Together the parts hold every order exactly once,
+     * in order, and splitting allocates nothing per order.
+     *
+     * @param part  The part to get, from 0 to {@code parts - 1}.
+     * @param parts The number of parts.
+     * @return The orders in that part.
+     */
+    public Iterable<Order> part(int part, int parts) {
+        if (parts <= 0 || part < 0 || part >= parts) {
+            throw new IndexOutOfBoundsException("Part " + part + " of " + parts);
+        }
+        int from = (int) ((long) length * part / parts);
+        int to = (int) ((long) length * (part + 1) / parts);
+        return () -> new Cursor(from, to);
+    }
+
+    /**
+     * Iterator over the visible orders in a range of the log.
+     */
+    private final class Cursor implements Iterator<Order> {
+
+        /** Log position of the next visible order, or {@link #end} if there is none. */
+        private int next;
+
+        /** Log position where the range ends. */
+        private final int end;
+
+        /**
+         * Constructs a cursor over a range of the log.
+         *
+         * @param from The first log position of the range.
+         * @param end  The log position where the range ends.
+         */
+        Cursor(int from, int end) {
+            this.end = end;
+            this.next = advance(from);
+        }
+
+        /**
+         * Finds the first visible order at or after a log position.
+         *
+         * @param from The log position to start from.
+         * @return The position of the visible order, or {@link #end} if there is none.
+         */
+        private int advance(int from) {
+            while (from < end && !entries[from].isVisibleAt(version)) {
+                from++;
+            }
+            return from;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return next < end;
+        }
+
+        @Override
+        public Order next() {
+            if (next >= end) {
+                throw new NoSuchElementException();
+            }
+            Order order = entries[next].order;
+            next = advance(next + 1);
+            return order;
+        }
+    }
+}
@@ -0,0 +1,419 @@
+package p5;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.function.Consumer;
+import java.util.function.LongSupplier;
+
+/**
+ * Decides which oven bakes each pizza of the placed orders, and when.
+ * Waiting orders are kept in a priority queue ordered by the {@link Policy}; ovens are kept in
+ * a min-heap by the time they become free. Whenever an oven is free, it takes the next pizza of
+ * the first waiting order, longest bake first, so the pizzas of one order are spread across
+ * ovens and finish close together. Each step is O(log n) in the number of waiting orders and
+ * ovens, so the scheduler keeps up with peak-hour intake.
+ * Time is measured in seconds on a clock chosen by the caller: wall-clock seconds in the store,
+ * or simulated seconds in an {@link OvenSimulation}. In the store,
+ * {@link #followPlacedOrders(LongSupplier, Consumer)} feeds the scheduler every order placed with
+ * the {@link StoreOrdersManager}.
+ * @author Siddharth, Ibtesaam
+ */
+public final class OvenScheduler {
+
+    /**
+     * The order in which waiting orders are served.
+     */
+    public enum Policy {
+
+        /** Orders are served in the order they arrived. */
+        FIFO,
+
+        /**
+         * The order with the least bake time left is served first, which minimizes the mean
+         * time customers wait; ties are served in arrival order.
+         */
+        SHORTEST_ORDER_FIRST
+    }
+
+    /**
+     * One pizza put in an oven.
+     */
+    public static final class Assignment {
+
+        /** The order the pizza belongs to. */
+        private final Order order;
+
+        /** The pizza. */
+        private final Pizza pizza;
+
+        /** The oven, from 0 to the number of ovens minus 1. */
+        private final int oven;
+
+        /** When the order arrived. */
+        private final long arrival;
+
+        /** When the pizza goes in. */
+        private final long start;
+
+        /** When the pizza comes out. */
+        private final long end;
+
+        /** When the whole order is baked, or -1 if the order still has pizzas waiting. */
+        private final long orderFinish;
+
+        /**
+         * Constructs an assignment.
+         *
+         * @param order       The order the pizza belongs to.
+         * @param pizza       The pizza.
+         * @param oven        The oven.
+         * @param arrival     When the order arrived.
+         * @param start       When the pizza goes in.
+         * @param end         When the pizza comes out.
+         * @param orderFinish When the whole order is baked, or -1 if it still has pizzas waiting.
+         */
+        Assignment(Order order, Pizza pizza, int oven, long arrival, long start, long end, long orderFinish) {
+            this.order = order;
+            this.pizza = pizza;
+            this.oven = oven;
+            this.arrival = arrival;
+            this.start = start;
+            this.end = end;
+            this.orderFinish = orderFinish;
+        }
+
+        /**
+         * Gets the order the pizza belongs to.
+         *
+         * @return The order.
+         */
+        public Order getOrder() {
+            return order;
+        }
+
+        /**
+         * Gets the pizza.
+         *
+         * @return The pizza.
+         */
+        public Pizza getPizza() {
+            return pizza;
+        }
+
+        /**
+         * Gets the oven the pizza was put in.
+         *
+         * @return The oven, from 0 to the number of ovens minus 1.
+         */
+        public int getOven() {
+            return oven;
+        }
+
+        /**
+         * Gets when the pizza's order arrived.
+         *
+         * @return The arrival time in seconds.
+         */
+        public long getArrival() {
+            return arrival;
+        }
+
+        /**
+         * Gets when the pizza goes in.
+         *
+         * @return The start time in seconds.
+         */
+        public long getStart() {
+            return start;
+        }
+
+        /**
+         * Gets when the pizza comes out.
+         *
+         * @return The end time in seconds.
+         */
+        public long getEnd() {
+            return end;
+        }
+
+        /**
+         * Checks whether this was the last pizza of its order to go in.
+         *
+         * @return True if every pizza of the order has now been assigned.
+         */
+        public boolean isOrderComplete() {
+            return orderFinish >= 0;
+        }
+
+        /**
+         * Gets when the whole order is baked.
+         *
+         * @return The finish time in seconds, or -1 if the order still has pizzas waiting.
+         */
+        public long getOrderFinish() {
+            return orderFinish;
+        }
+    }
+
+    /**
+     * A waiting order, with its pizzas sorted from longest to shortest bake.
+     */
+    private static final class Job {
+
+        /** The order. */
+        final Order order;
+
+        /** When the order arrived. */
+        final long arrival;
+
+        /** Arrival sequence number, for ties. */
+        final long sequence;
+
+        /** The pizzas, longest bake first. */
+        final Pizza[] pizzas;
+
+        /** Bake time of each pizza in seconds. */
+        final long[] bakes;
+
+        /** Index of the next pizza to assign. */
+        int next;
+
+        /** Bake time in seconds of the pizzas not yet assigned. */
+        long remaining;
+
+        /** Latest end time of the pizzas assigned so far. */
+        long finish;
+
+        /**
+         * Constructs a job for an order.
+         *
+         * @param order    The order.
+         * @param arrival  When the order arrived.
+         * @param sequence Arrival sequence number.
+         * @param profile  The bake times.
+         */
+        Job(Order order, long arrival, long sequence, BakeProfile profile) {
+            this.order = order;
+            this.arrival = arrival;
+            this.sequence = sequence;
+            List<Pizza> list = order.getPizzas();
+            pizzas = new Pizza[list.size()];
+            bakes = new long[pizzas.length];
+            for (int i = 0; i < pizzas.length; i++) {
+                Pizza pizza = list.get(i);
+                long bake = profile.bakeSeconds(pizza);
+                int j = i;
+                while (j > 0 && bakes[j - 1] < bake) { // Insertion sort; orders hold a few pizzas
+                    pizzas[j] = pizzas[j - 1];
+                    bakes[j] = bakes[j - 1];
+                    j--;
+                }
+                pizzas[j] = pizza;
+                bakes[j] = bake;
+                remaining += bake;
+            }
+        }
+    }
+
+    /**
+     * An oven and the time it becomes free.
+     */
+    private static final class Oven {
+
+        /** The oven number. */
+        final int id;
+
+        /** When the oven finishes its current pizza. */
+        long freeAt;
+
+        /**
+         * Constructs an oven that is free from time 0.
+         *
+         * @param id The oven number.
+         */
+        Oven(int id) {
+            this.id = id;
+        }
+    }
+
+    /** Number of placed-order events queued while the scheduler catches up. */
+    private static final int PLACED_ORDER_BUFFER = 1024;
+
+    /** Serves jobs in arrival order. */
+    private static final Comparator<Job> BY_ARRIVAL = (a, b) -> Long.compare(a.sequence, b.sequence);
+
+    /**
+     * Serves the job with the least bake time left first. Only the job at the head of the queue
+     * is ever assigned pizzas, and that only lowers its key, so the heap stays valid.
+     */
+    private static final Comparator<Job> BY_REMAINING_WORK = (a, b) -> {
+        int byWork = Long.compare(a.remaining, b.remaining);
+        return byWork != 0 ? byWork : Long.compare(a.sequence, b.sequence);
+    };
+
+    /** The bake times. */
+    private final BakeProfile profile;
+
+    /** The scheduling policy. */
+    private final Policy policy;
+
+    /** The number of ovens. */
+    private final int ovenCount;
+
+    /** Waiting orders, by policy. */
+    private final PriorityQueue<Job> waiting;
+
+    /** Ovens, by the time they become free. */
+    private final PriorityQueue<Oven> ovens;
+
+    /** Arrival sequence number of the next order. */
+    private long sequence;
+
+    /**
+     * Constructs a scheduler with every oven free.
+     *
+     * @param ovenCount The number of ovens.
+     * @param profile   The bake times.
+     * @param policy    The order in which waiting orders are served.
+     * @throws IllegalArgumentException If there are no ovens.
+     */
+    public OvenScheduler(int ovenCount, BakeProfile profile, Policy policy) {
+        if (ovenCount < 1) {
+            throw new IllegalArgumentException("Need at least one oven");
+        }
+        this.profile = profile;
+        this.policy = policy;
+        this.ovenCount = ovenCount;
+        this.waiting = new PriorityQueue<>(policy == Policy.FIFO ? BY_ARRIVAL : BY_REMAINING_WORK);
+        this.ovens = new PriorityQueue<>(ovenCount, (a, b) -> {
+            int byTime = Long.compare(a.freeAt, b.freeAt);
+            return byTime != 0 ? byTime : Integer.compare(a.id, b.id);
+        });
+        for (int i = 0; i < ovenCount; i++) {
+            ovens.add(new Oven(i));
+        }
+    }
+
+    /**
+     * Gets the scheduling policy.
+     *
+     * @return The policy.
+     */
+    public Policy getPolicy() {
+        return policy;
+    }
+
+    /**
+     * Gets the number of ovens.
+     *
+     * @return The number of ovens.
+     */
+    public int getOvenCount() {
+        return ovenCount;
+    }
+
+    /**
+     * Adds a placed order to the waiting orders. Empty orders are ignored.
+     *
+     * @param order   The order.
+     * @param arrival When the order arrived, in seconds.
+     */
+    public synchronized void submit(Order order, long arrival) {
+        if (!order.getPizzas().isEmpty()) {
+            waiting.add(new Job(order, arrival, sequence++, profile));
+        }
+    }
+
+    /**
+     * Submits every order placed with the {@link StoreOrdersManager} from now on, as its
+     * {@link OrderEvent.Type#ORDER_PLACED} event arrives, and puts its pizzas into any ovens that
+     * are free at once. Orders removed from the store before their event arrives are not baked.
+     * The subscription blocks placements while it is behind rather than miss an order. Keep calling
+     * {@link #dispatch(long)} as ovens become free, for the pizzas that had to wait.
+     *
+     * @param clock    Gives the current time in seconds.
+     * @param assigned Receives the pizzas put in an oven when an order arrives; called on the
+     *                 subscription's thread, and not called when no oven was free.
+     * @return The subscription; close it to stop following placed orders.
+     */
+    public OrderEventBus.Subscription followPlacedOrders(LongSupplier clock, Consumer<List<Assignment>> assigned) {
+        return OrderEventBus.getInstance().subscribe("oven-scheduler", PLACED_ORDER_BUFFER,
+                OrderEventBus.Backpressure.BLOCK, event -> {
+                    if (event.getType() != OrderEvent.Type.ORDER_PLACED) {
+                        return;
+                    }
+                    Order order = StoreOrdersManager.getInstance().getOrder(event.getOrderNumber());
+                    if (order == null) {
+                        return;
+                    }
+                    List<Assignment> assignments;
+                    synchronized (this) {
+                        long now = clock.getAsLong();
+                        submit(order, now);
+                        assignments = dispatch(now);
+                    }
+                    if (!assignments.isEmpty()) {
+                        assigned.accept(assignments);
+                    }
+                });
+    }
+
+    /**
+     * Puts waiting pizzas into every oven that is free at the given time.
+     * Call it whenever an order arrives and whenever an oven becomes free
+     * (see {@link #nextOvenFreeAt()}).
+     *
+     * @param now The current time in seconds.
+     * @return The pizzas put in an oven, in the order they were assigned.
+     */
+    public synchronized List<Assignment> dispatch(long now) {
+        List<Assignment> assignments = new ArrayList<>();
+        while (!waiting.isEmpty() && ovens.peek().freeAt <= now) {
+            Oven oven = ovens.poll();
+            Job job = waiting.peek();
+            int index = job.next++;
+            long bake = job.bakes[index];
+            long end = now + bake;
+            oven.freeAt = end;
+            ovens.add(oven);
+            job.remaining -= bake;
+            job.finish = Math.max(job.finish, end);
+            long orderFinish = -1L;
+            if (job.next == job.pizzas.length) {
+                waiting.poll();
+                orderFinish = job.finish;
+            }
+            assignments.add(new Assignment(job.order, job.pizzas[index], oven.id, job.arrival, now, end, orderFinish));
+        }
+        return assignments;
+    }
+
+    /**
+     * Checks whether any order is waiting for an oven.
+     *
+     * @return True if an order has pizzas not yet in an oven.
+     */
+    public synchronized boolean hasWaitingOrders() {
+        return !waiting.isEmpty();
+    }
+
+    /**
+     * Gets the number of orders waiting for an oven.
+     *
+     * @return The number of waiting orders.
+     */
+    public synchronized int getWaitingOrderCount() {
+        return waiting.size();
+    }
+
+    /**
+     * Gets when the next oven becomes free.
+     *
+     * @return The time in seconds; may be in the past if an oven is idle.
+     */
+    public synchronized long nextOvenFreeAt() {
+        return ovens.peek().freeAt;
+    }
+}
@@ -0,0 +1,180 @@
+package p5;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Replays a stream of orders through an {@link OvenScheduler} on a simulated clock, so
+ * scheduling policies, oven counts and bake profiles can be compared without waiting for
+ * real ovens. The simulation jumps from event to event (an order arriving or an oven becoming
+ * free), so a full day of orders runs in milliseconds.
+ * @author Siddharth, Ibtesaam
+ */
+public final class OvenSimulation {
+
+    /**
+     * The outcome of a simulation run.
+     */
+    public static final class Result {
+
+        /** Time from arrival to the last pizza coming out, of each order, sorted. */
+        private final long[] completions;
+
+        /** Number of pizzas baked. */
+        private final long pizzas;
+
+        /** Time the last pizza came out. */
+        private final long makespan;
+
+        /** Fraction of oven time spent baking, from time 0 to the makespan. */
+        private final double utilization;
+
+        /**
+         * Constructs a result.
+         *
+         * @param completions Completion time of each order, sorted.
+         * @param pizzas      Number of pizzas baked.
+         * @param makespan    Time the last pizza came out.
+         * @param utilization Fraction of oven time spent baking.
+         */
+        Result(long[] completions, long pizzas, long makespan, double utilization) {
+            this.completions = completions;
+            this.pizzas = pizzas;
+            this.makespan = makespan;
+            this.utilization = utilization;
+        }
+
+        /**
+         * Gets the number of orders baked.
+         *
+         * @return The number of orders.
+         */
+        public int getOrders() {
+            return completions.length;
+        }
+
+        /**
+         * Gets the number of pizzas baked.
+         *
+         * @return The number of pizzas.
+         */
+        public long getPizzas() {
+            return pizzas;
+        }
+
+        /**
+         * Gets the mean time from an order arriving to its last pizza coming out.
+         *
+         * @return The mean completion time in seconds, or 0 if there were no orders.
+         */
+        public double getMeanCompletion() {
+            if (completions.length == 0) {
+                return 0.0;
+            }
+            double sum = 0.0;
+            for (long completion : completions) {
+                sum += completion;
+            }
+            return sum / completions.length;
+        }
+
+        /**
+         * Gets the completion time below which the given percentage of orders finished.
+         *
+         * @param percentile The percentile, from 0 to 100.
+         * @return The completion time in seconds, or 0 if there were no orders.
+         */
+        public long getCompletionAtPercentile(double percentile) {
+            if (completions.length == 0) {
+                return 0L;
+            }
+            int index = (int) Math.ceil(percentile / 100.0 * completions.length) - 1;
+            return completions[Math.max(0, Math.min(completions.length - 1, index))];
+        }
+
+        /**
+         * Gets the longest time an order took to complete.
+         *
+         * @return The longest completion time in seconds, or 0 if there were no orders.
+         */
+        public long getMaxCompletion() {
+            return completions.length == 0 ? 0L : completions[completions.length - 1];
+        }
+
+        /**
+         * Gets the time the last pizza came out.
+         *
+         * @return The makespan in seconds.
+         */
+        public long getMakespan() {
+            return makespan;
+        }
+
+        /**
+         * Gets the fraction of oven time spent baking, from time 0 to the makespan.
+         *
+         * @return The utilization, from 0 to 1.
+         */
+        public double getUtilization() {
+            return utilization;
+        }
+    }
+
+    /**
+     * Prevents instantiation; use {@link #run(OvenScheduler, long[], List)}.
+     */
+    private OvenSimulation() {
+    }
+
+    /**
+     * Runs orders through a scheduler until every pizza has been put in an oven.
+     * The scheduler should be new, with every oven free at time 0.
+     *
+     * @param scheduler The scheduler to test.
+     * @param arrivals  Arrival time in seconds of each order, in non-decreasing order.
+     * @param orders    The orders, in arrival order.
+     * @return The result of the run.
+     * @throws IllegalArgumentException If there is not one arrival time per order, or the
+     *                                  arrival times are out of order.
+     */
+    public static Result run(OvenScheduler scheduler, long[] arrivals, List<Order> orders) {
+        if (arrivals.length != orders.size()) {
+            throw new IllegalArgumentException("Expected one arrival time per order");
+        }
+        long[] completions = new long[orders.size()];
+        int completed = 0;
+        long pizzas = 0L;
+        long busy = 0L;
+        long makespan = 0L;
+        int next = 0;
+        while (next < arrivals.length || scheduler.hasWaitingOrders()) {
+            long now;
+            if (next == arrivals.length) {
+                now = scheduler.nextOvenFreeAt();
+            } else if (scheduler.hasWaitingOrders()) {
+                now = Math.min(arrivals[next], scheduler.nextOvenFreeAt());
+            } else {
+                now = arrivals[next];
+            }
+            while (next < arrivals.length && arrivals[next] <= now) {
+                if (next > 0 && arrivals[next] < arrivals[next - 1]) {
+                    throw new IllegalArgumentException("Arrival times must be in order");
+                }
+                scheduler.submit(orders.get(next), arrivals[next]);
+                next++;
+            }
+            for (OvenScheduler.Assignment assignment : scheduler.dispatch(now)) {
+                pizzas++;
+                busy += assignment.getEnd() - assignment.getStart();
+                makespan = Math.max(makespan, assignment.getEnd());
+                if (assignment.isOrderComplete()) {
+                    completions[completed++] = assignment.getOrderFinish() - assignment.getArrival();
+                }
+            }
+        }
+        long[] sorted = Arrays.copyOf(completions, completed);
+        Arrays.sort(sorted);
+        double utilization = makespan == 0 ? 0.0 : (double) busy / ((double) makespan * scheduler.getOvenCount());
+        return new Result(sorted, pizzas, makespan, utilization);
+    }
+}
@@ -0,0 +1,316 @@
+package p5;
+
+import java.util.List;
+
+/**
+ * Represents the base class for all types of pizzas.
+ * Provides common properties such as toppings, crust, and size, as well as methods
+ * for managing toppings and retrieving pizza details.
+ * This class is abstract and must be extended by specific pizza types.
+ * @author Siddharth, Ibtesaam
+ */
+public abstract class Pizza {
+
+    /**
+     * The toppings on the pizza, stored as a {@link Toppings} bitmask.
+     */
+    protected int toppings;
+
+    /**
+     * The kind of the pizza, used to look up its price in the {@link PriceTable}.
+     */
+    protected final PizzaKind kind;
+
+    /**
+     * The style of the pizza, set by the {@link PizzaFactory} that created it.
+     */
+    protected final Style style;
+
+    /**
+     * The crust type of the pizza (e.g., Pan, Thin, Hand-tossed).
+     */
+    protected Crust crust;
+
+    /**
+     * The size of the pizza (Small, Medium, Large).
+     */
+    protected Size size;
+
+    /**
+     * The cached price of the pizza in cents.
+     * Refreshed whenever the size or toppings change.
+     */
+    private long priceCents;
+
+    /**
+     * The order this pizza currently belongs to, notified when the price changes.
+     */
+    private Order order;
+
+    /**
+     * Constructs a new Pizza object of the given kind and style with no toppings.
+     *
+     * @param kind  The kind of the pizza.
+     * @param style The style of the pizza.
+     */
+    protected Pizza(PizzaKind kind, Style style) {
+        this.kind = kind;
+        this.style = style;
+    }
+
+    /**
+     * Creates a pizza from its kind, style, crust, size, and toppings.
+     * Specialty pizzas return the shared instance and ignore the toppings, which are fixed by the kind.
+     *
+     * @param kind     The kind of the pizza.
+     * @param style    The style of the pizza.
+     * @param crust    The crust type for the pizza.
+     * @param size     The size of the pizza.
+     * @param toppings The toppings, as a {@link Toppings} mask; only used for Build Your Own pizzas.
+     * @return The pizza.
+     * @throws IllegalArgumentException If a Build Your Own pizza has more than
+     *                                  {@link Toppings#MAX_TOPPINGS} toppings.
+     */
+    public static Pizza of(PizzaKind kind, Style style, Crust crust, Size size, int toppings) {
+        if (kind == PizzaKind.BUILD_YOUR_OWN) {
+            return new BuildYourOwn(style, crust, size, toppings);
+        }
+        return SpecialtyPizza.of(kind, style, crust, size);
+    }
+
+    /**
+     * Recreates a recorded pizza at the price it was sold for, even if the {@link PriceTable}
+     * has changed since. Specialty pizzas return the shared instance while its price still
+     * matches, and a copy of their own otherwise.
+     *
+     * @param kind       The kind of the pizza.
+     * @param style      The style of the pizza.
+     * @param crust      The crust type for the pizza.
+     * @param size       The size of the pizza.
+     * @param toppings   The toppings, as a {@link Toppings} mask; only used for Build Your Own pizzas.
+     * @param priceCents The recorded price in cents.
+     * @return The pizza.
+     * @throws IllegalArgumentException If a Build Your Own pizza has more than
+     *                                  {@link Toppings#MAX_TOPPINGS} toppings.
+     */
+    static Pizza restore(PizzaKind kind, Style style, Crust crust, Size size, int toppings, long priceCents) {
+        Pizza pizza = of(kind, style, crust, size, toppings);
+        if (pizza.priceCents != priceCents) {
+            if (pizza instanceof SpecialtyPizza) {
+                pizza = SpecialtyPizza.create(kind, style, crust, size);
+            }
+            pizza.priceCents = priceCents;
+        }
+        return pizza;
+    }
+
+    /**
+     * Gets the kind of the pizza.
+     *
+     * @return The {@link PizzaKind} of the pizza.
+     */
+    public final PizzaKind getKind() {
+        return kind;
+    }
+
+    /**
+     * Calculates the price of the pizza in cents from its current size and toppings
+     * using the {@link PriceTable}.
+     *
+     * @return The price of the pizza in cents.
+     */
+    private long computePriceCents() {
+        return PriceTable.price(kind, size, toppings);
+    }
+
+    /**
+     * Gets the price of the pizza in cents.
+     * The price is cached and only recalculated when the pizza changes.
+     *
+     * @return The price of the pizza in cents.
+     */
+    public final long priceCents() {
+        return priceCents;
+    }
+
+    /**
+     * Recalculates the cached price after the size or toppings change.
+     * If the pizza belongs to an order, the order's running subtotal is adjusted.
+     */
+    protected final void refreshPrice() {
+        long oldPrice = priceCents;
+        priceCents = computePriceCents();
+        if (order != null && priceCents != oldPrice) {
+            order.repriced(priceCents - oldPrice);
+        }
+    }
+
+    /**
+     * Gets a copy of this pizza that later changes to it do not affect, for publishing in
+     * {@link OrderEvent}s.
+     *
+     * @return The copy.
+     */
+    Pizza snapshot() {
+        return restore(kind, style, crust, size, toppings, priceCents);
+    }
+
+    /**
+     * Ensures the pizza can still be changed.
+     *
+     * @throws IllegalStateException If the pizza belongs to an order that has already been placed.
+     */
+    protected final void checkMutable() {
+        if (order != null) {
+            order.checkNotPlaced();
+        }
+    }
+
+    /**
+     * Records the order this pizza has been added to, or clears it when removed.
+     *
+     * @param order The owning order, or null if the pizza no longer belongs to one.
+     */
+    void setOrder(Order order) {
+        this.order = order;
+    }
+
+    /**
+     * Gets the order this pizza currently belongs to.
+     *
+     * @return The owning order, or null if the pizza is not in an order.
+     */
+    Order getOrder() {
+        return order;
+    }
+
+    /**
+     * Calculates the price of the pizza in dollars.
+     * This is a display convenience; use {@link #priceCents()} for arithmetic.
+     *
+     * @return The price of the pizza.
+     */
+    public double price() {
+        return Money.toDollars(priceCents());
+    }
+
+    /**
+     * Gets the style of the pizza.
+     *
+     * @return The {@link Style} of the pizza.
+     */
+    public final Style getStyle() {
+        return style;
+    }
+
+    /**
+     * Gets the list of toppings on the pizza.
+     *
+     * @return A read-only list of {@link Topping} objects representing the toppings on the pizza.
+     */
+    public List<Topping> getToppings() {
+        return Toppings.asList(toppings);
+    }
+
+    /**
+     * Gets the toppings on the pizza as a bitmask.
+     *
+     * @return The {@link Toppings} mask of the toppings on the pizza.
+     */
+    public int getToppingMask() {
+        return toppings;
+    }
+
+    /**
+     * Checks whether the pizza has a topping.
+     *
+     * @param topping The {@link Topping} to check.
+     * @return True if the topping is on the pizza, false otherwise.
+     */
+    public boolean hasTopping(Topping topping) {
+        return Toppings.contains(toppings, topping);
+    }
+
+    /**
+     * Gets the crust type of the pizza.
+     *
+     * @return The {@link Crust} type of the pizza.
+     */
+    public Crust getCrust() {
+        return crust;
+    }
+
+    /**
+     * Gets the size of the pizza.
+     *
+     * @return The {@link Size} of the pizza.
+     */
+    public Size getSize() {
+        return size;
+    }
+
+    /**
+     * Sets the size of the pizza.
+     *
+     * @param size The {@link Size} to set for the pizza.
+     */
+    public void setSize(Size size) {
+        checkMutable();
+        this.size = size;
+        refreshPrice();
+    }
+
+    /**
+     * Gets a pizza identical to this one but with the given size.
+     * Pizzas that can be customized are resized in place and returned;
+     * shared specialty pizzas return the shared instance for the new size.
+     *
+     * @param size The {@link Size} of the pizza to return.
+     * @return A pizza with the given size.
+     */
+    public Pizza withSize(Size size) {
+        setSize(size);
+        return this;
+    }
+
+    /**
+     * Adds a topping to the pizza.
+     * This method is primarily used for BuildYourOwn pizzas.
+     * A topping will not be added if it is already present or if the maximum
+     * of 7 toppings has been reached.
+     *
+     * @param topping The {@link Topping} to add to the pizza.
+     */
+    public void addTopping(Topping topping) {
+        checkMutable();
+        if (!Toppings.contains(toppings, topping) && Toppings.count(toppings) < Toppings.MAX_TOPPINGS) {
+            toppings |= Toppings.bit(topping);
+            refreshPrice();
+        }
+    }
+
+    /**
+     * Removes a topping from the pizza.
+     * This method is primarily used for BuildYourOwn pizzas.
+     *
+     * @param topping The {@link Topping} to remove from the pizza.
+     */
+    public void removeTopping(Topping topping) {
+        checkMutable();
+        if (Toppings.contains(toppings, topping)) {
+            toppings &= ~Toppings.bit(topping);
+            refreshPrice();
+        }
+    }
+
+    /**
+     * Provides a string representation of the pizza, including its kind, style, crust, size,
+     * toppings, and price, as rendered on receipts by the {@link ReceiptRenderer}.
+     *
+     * @return A string representation of the pizza.
+     */
+    @Override
+    public String toString() {
+        return ReceiptRenderer.appendPizza(new StringBuilder(ReceiptRenderer.PIZZA_LINE_SIZE), this).toString();
+    }
+}
@@ -9,6 +9,13 @@ package p5;
  */
 public interface PizzaFactory {
 
+    /**
+     * Gets the style of the pizzas created by this factory.
+     *
+     * @return The {@link Style} of the pizzas this factory creates.
+     */
+    Style getStyle();
+
     /**
      * Creates a Deluxe pizza with predefined toppings and crust.
      *
@@ -0,0 +1,52 @@
+package p5;
+
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Registry of the {@link PizzaFactory} for each {@link Style}.
+ * The New York and Chicago factories are registered by default; new styles plug in
+ * by registering their factory instead of changing any existing code.
+ * @author Siddharth, Ibtesaam
+ */
+public final class PizzaFactoryRegistry {
+
+    /** The registered factories, keyed by the style they create. */
+    private static final Map<Style, PizzaFactory> factories = new EnumMap<>(Style.class);
+
+    static {
+        register(new NYPizza());
+        register(new ChicagoPizza());
+    }
+
+    /**
+     * Private constructor to prevent instantiation of this utility class.
+     */
+    private PizzaFactoryRegistry() {
+    }
+
+    /**
+     * Registers a factory for the style it creates, replacing any previous factory for that style.
+     * The factory is wrapped so the time it takes to create each pizza is recorded in {@link Metrics}.
+     *
+     * @param factory The factory to register.
+     */
+    public static synchronized void register(PizzaFactory factory) {
+        factories.put(factory.getStyle(), new InstrumentedPizzaFactory(factory));
+    }
+
+    /**
+     * Gets the factory registered for a style.
+     *
+     * @param style The style of pizza to create.
+     * @return The registered factory.
+     * @throws IllegalArgumentException If no factory is registered for the style.
+     */
+    public static synchronized PizzaFactory forStyle(Style style) {
+        PizzaFactory factory = factories.get(style);
+        if (factory == null) {
+            throw new IllegalArgumentException("No pizza factory registered for " + style);
+        }
+        return factory;
+    }
+}
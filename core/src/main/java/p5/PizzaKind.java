@@ -0,0 +1,29 @@
+package p5;
+
+/**
+ * Represents the kinds of pizza on the menu.
+ * The kind, together with the size, determines the base price of a pizza.
+ * @author Siddharth, Ibtesaam
+ */
+public enum PizzaKind {
+
+    /**
+     * Deluxe specialty pizza with Sausage, Pepperoni, Green Pepper, Onion, and Mushroom.
+     */
+    DELUXE,
+
+    /**
+     * BBQ Chicken specialty pizza with BBQ Chicken, Green Pepper, Provolone, and Cheddar.
+     */
+    BBQ_CHICKEN,
+
+    /**
+     * Meatzza specialty pizza with Sausage, Pepperoni, Beef, and Ham.
+     */
+    MEATZZA,
+
+    /**
+     * Build Your Own pizza with up to 7 toppings chosen by the customer.
+     */
+    BUILD_YOUR_OWN
+}
@@ -0,0 +1,99 @@
+package p5;
+
+/**
+ * The compiled price table for the whole menu.
+ * Base prices are stored in one flat array indexed by pizza kind and size,
+ * and topping surcharges in a second flat array indexed by pizza kind and topping,
+ * so pricing a pizza is a few array loads with no per-class branching.
+ * All prices are in cents.
+ * @author Siddharth, Ibtesaam
+ */
+public final class PriceTable {
+
+    /** Number of pizza sizes, the row stride of the base price table. */
+    private static final int SIZE_COUNT = Size.values().length;
+
+    /** Number of toppings, the row stride of the topping surcharge table. */
+    private static final int TOPPING_COUNT = Topping.values().length;
+
+    /** Base prices in cents, indexed by {@code kind.ordinal() * SIZE_COUNT + size.ordinal()}. */
+    private static final long[] BASE_PRICES = new long[PizzaKind.values().length * SIZE_COUNT];
+
+    /** Topping surcharges in cents, indexed by {@code kind.ordinal() * TOPPING_COUNT + topping.ordinal()}. */
+    private static final long[] TOPPING_PRICES = new long[PizzaKind.values().length * TOPPING_COUNT];
+
+    static {
+        setBasePrices(PizzaKind.DELUXE, Money.of(16, 99), Money.of(18, 99), Money.of(20, 99));
+        setBasePrices(PizzaKind.BBQ_CHICKEN, Money.of(14, 99), Money.of(16, 99), Money.of(19, 99));
+        setBasePrices(PizzaKind.MEATZZA, Money.of(17, 99), Money.of(19, 99), Money.of(21, 99));
+        setBasePrices(PizzaKind.BUILD_YOUR_OWN, Money.of(8, 99), Money.of(10, 99), Money.of(12, 99));
+
+        // Specialty toppings are included in the base price; Build Your Own toppings are $1.69 each
+        for (Topping topping : Topping.values()) {
+            TOPPING_PRICES[PizzaKind.BUILD_YOUR_OWN.ordinal() * TOPPING_COUNT + topping.ordinal()] = Money.of(1, 69);
+        }
+    }
+
+    /**
+     * Private constructor to prevent instantiation of this utility class.
+     */
+    private PriceTable() {
+    }
+
+    /**
+     * Fills the base price row for one kind of pizza.
+     *
+     * @param kind   The kind of pizza.
+     * @param small  The price in cents of a small pizza.
+     * @param medium The price in cents of a medium pizza.
+     * @param large  The price in cents of a large pizza.
+     */
+    private static void setBasePrices(PizzaKind kind, long small, long medium, long large) {
+        int row = kind.ordinal() * SIZE_COUNT;
+        BASE_PRICES[row + Size.SMALL.ordinal()] = small;
+        BASE_PRICES[row + Size.MEDIUM.ordinal()] = medium;
+        BASE_PRICES[row + Size.LARGE.ordinal()] = large;
+    }
+
+    /**
+     * Gets the base price of a pizza before any topping surcharges.
+     *
+     * @param kind The kind of pizza.
+     * @param size The size of the pizza.
+     * @return The base price in cents.
+     */
+    public static long basePrice(PizzaKind kind, Size size) {
+        return BASE_PRICES[kind.ordinal() * SIZE_COUNT + size.ordinal()];
+    }
+
+    /**
+     * Gets the surcharge for one topping on a pizza of the given kind.
+     *
+     * @param kind    The kind of pizza.
+     * @param topping The topping.
+     * @return The surcharge in cents, or 0 if the topping is included in the base price.
+     */
+    public static long toppingPrice(PizzaKind kind, Topping topping) {
+        return TOPPING_PRICES[kind.ordinal() * TOPPING_COUNT + topping.ordinal()];
+    }
+
+    /**
+     * Calculates the price of a pizza from its kind, size, and toppings.
+     *
+     * @param kind     The kind of pizza.
+     * @param size     The size of the pizza.
+     * @param toppings The toppings on the pizza, as a {@link Toppings} mask.
+     * @return The price in cents. If the size is not set, returns 0.
+     */
+    public static long price(PizzaKind kind, Size size, int toppings) {
+        if (size == null) {
+            return 0L;
+        }
+        long price = BASE_PRICES[kind.ordinal() * SIZE_COUNT + size.ordinal()];
+        int row = kind.ordinal() * TOPPING_COUNT;
+        for (int mask = toppings; mask != 0; mask &= mask - 1) {
+            price += TOPPING_PRICES[row + Integer.numberOfTrailingZeros(mask)];
+        }
+        return price;
+    }
+}
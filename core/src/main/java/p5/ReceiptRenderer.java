@@ -0,0 +1,212 @@
+package p5;
+
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Renders orders and pizzas as receipt text into caller-supplied buffers.
+ * Labels for every enum constant are computed once, amounts are formatted from cents by
+ * {@link Money#appendTo(StringBuilder, long)}, and the order's pizzas are read without copying
+ * or wrapping the list, so rendering into a reused buffer creates no garbage. Printing or
+ * logging many receipts should keep one renderer, or one {@link StringBuilder}, per thread.
+ * <p>
+ * A receipt looks like:
+ * <pre>
+ * Order Number: 12
+ * Pizzas in Order:
+ * Deluxe{style=NY Style, crust=BROOKLYN, size=SMALL, toppings=[SAUSAGE, PEPPERONI, GREEN_PEPPER, ONION, MUSHROOM], price=16.99}
+ * Subtotal: $16.99
+ * Tax: $1.13
+ * Total: $18.12
+ * </pre>
+ * All of the text is ASCII, so the {@link ByteBuffer} form writes one byte per character.
+ * @author Siddharth, Ibtesaam
+ */
+public final class ReceiptRenderer {
+
+    /** Name of each pizza kind on a receipt, by ordinal. */
+    private static final String[] KIND_LABELS = new String[PizzaKind.values().length];
+
+    /** Opening of each pizza line, such as {@code "Deluxe{style="}, by kind ordinal. */
+    private static final String[] PIZZA_OPENINGS = new String[PizzaKind.values().length];
+
+    /** Name of each style on a receipt, by ordinal. */
+    private static final String[] STYLE_LABELS = labels(Style.values());
+
+    /** Name of each crust on a receipt, by ordinal. */
+    private static final String[] CRUST_LABELS = labels(Crust.values());
+
+    /** Name of each size on a receipt, by ordinal. */
+    private static final String[] SIZE_LABELS = labels(Size.values());
+
+    /** Name of each topping on a receipt, by ordinal. */
+    private static final String[] TOPPING_LABELS = labels(Topping.values());
+
+    /** Typical length of a receipt line for one pizza, for sizing builders. */
+    static final int PIZZA_LINE_SIZE = 128;
+
+    /** Length of a receipt without its pizza lines, for sizing builders. */
+    static final int ORDER_FRAME_SIZE = 96;
+
+    static {
+        KIND_LABELS[PizzaKind.DELUXE.ordinal()] = "Deluxe";
+        KIND_LABELS[PizzaKind.BBQ_CHICKEN.ordinal()] = "BBQChicken";
+        KIND_LABELS[PizzaKind.MEATZZA.ordinal()] = "Meatzza";
+        KIND_LABELS[PizzaKind.BUILD_YOUR_OWN.ordinal()] = "BuildYourOwn";
+        for (int i = 0; i < KIND_LABELS.length; i++) {
+            PIZZA_OPENINGS[i] = KIND_LABELS[i] + "{style=";
+        }
+    }
+
+    /** Builder reused by the buffer forms of {@link #render}. */
+    private final StringBuilder scratch = new StringBuilder(ORDER_FRAME_SIZE + 4 * PIZZA_LINE_SIZE);
+
+    /** Encoder reused by {@link #render(Order, ByteBuffer)}; every receipt character is ASCII. */
+    private final CharsetEncoder encoder = StandardCharsets.ISO_8859_1.newEncoder();
+
+    /** Characters reused by the buffer forms of {@link #render}, so the buffer gets one bulk copy. */
+    private char[] chars = new char[0];
+
+    /** View of {@link #chars} handed to the encoder. */
+    private CharBuffer charView = CharBuffer.wrap(chars);
+
+    /** Bytes reused by {@link #render(Order, ByteBuffer)}; always as long as {@link #chars}. */
+    private byte[] bytes = new byte[0];
+
+    /** View of {@link #bytes} the encoder writes into. */
+    private ByteBuffer byteView = ByteBuffer.wrap(bytes);
+
+    /**
+     * Gets the receipt label of each constant of an enum.
+     *
+     * @param values The enum constants, in ordinal order.
+     * @return The labels, by ordinal.
+     */
+    private static String[] labels(Enum<?>[] values) {
+        String[] labels = new String[values.length];
+        for (int i = 0; i < values.length; i++) {
+            labels[i] = values[i].toString();
+        }
+        return labels;
+    }
+
+    /**
+     * Appends the receipt of an order.
+     *
+     * @param out   The builder to append to.
+     * @param order The order.
+     * @return The builder.
+     */
+    public static StringBuilder appendOrder(StringBuilder out, Order order) {
+        out.append("Order Number: ").append(order.getNumber()).append('\n');
+        out.append("Pizzas in Order:\n");
+        for (int i = 0, count = order.pizzaCount(); i < count; i++) {
+            appendPizza(out, order.pizzaAt(i)).append('\n');
+        }
+        long subtotal = order.getSubtotalCents();
+        long tax = Money.tax(subtotal);
+        Money.appendTo(out.append("Subtotal: $"), subtotal).append('\n');
+        Money.appendTo(out.append("Tax: $"), tax).append('\n');
+        Money.appendTo(out.append("Total: $"), subtotal + tax).append('\n');
+        return out;
+    }
+
+    /**
+     * Appends the receipt line of a pizza, without a line break.
+     *
+     * @param out   The builder to append to.
+     * @param pizza The pizza.
+     * @return The builder.
+     */
+    public static StringBuilder appendPizza(StringBuilder out, Pizza pizza) {
+        out.append(PIZZA_OPENINGS[pizza.getKind().ordinal()])
+                .append(STYLE_LABELS[pizza.getStyle().ordinal()])
+                .append(", crust=").append(CRUST_LABELS[pizza.getCrust().ordinal()])
+                .append(", size=").append(SIZE_LABELS[pizza.getSize().ordinal()])
+                .append(", toppings=[");
+        int toppings = pizza.getToppingMask();
+        for (int rest = toppings; rest != 0; rest &= rest - 1) {
+            if (rest != toppings) {
+                out.append(", ");
+            }
+            out.append(TOPPING_LABELS[Integer.numberOfTrailingZeros(rest)]);
+        }
+        return Money.appendTo(out.append("], price="), pizza.priceCents()).append('}');
+    }
+
+    /**
+     * Writes the receipt of an order into a character buffer at its current position.
+     * Not thread-safe; use one renderer per thread.
+     *
+     * @param order The order.
+     * @param out   The buffer to write to.
+     * @throws BufferOverflowException If the buffer does not have room for the whole receipt;
+     *                                 nothing is written in that case.
+     */
+    public void render(Order order, CharBuffer out) {
+        StringBuilder text = renderToScratch(order);
+        int length = text.length();
+        if (out.remaining() < length) {
+            throw new BufferOverflowException();
+        }
+        ensureCapacity(length, text.capacity());
+        text.getChars(0, length, chars, 0);
+        out.put(chars, 0, length);
+    }
+
+    /**
+     * Writes the receipt of an order into a byte buffer at its current position, one ASCII
+     * byte per character, ready to send to a printer or a log file.
+     * Not thread-safe; use one renderer per thread.
+     *
+     * @param order The order.
+     * @param out   The buffer to write to.
+     * @throws BufferOverflowException If the buffer does not have room for the whole receipt;
+     *                                 nothing is written in that case.
+     */
+    public void render(Order order, ByteBuffer out) {
+        StringBuilder text = renderToScratch(order);
+        int length = text.length();
+        if (out.remaining() < length) {
+            throw new BufferOverflowException();
+        }
+        ensureCapacity(length, text.capacity());
+        // Copy out in bulk and encode array to array, which the JDK vectorizes; narrowing one
+        // character at a time is several times slower
+        text.getChars(0, length, chars, 0);
+        charView.clear().limit(length);
+        byteView.clear();
+        encoder.reset();
+        encoder.encode(charView, byteView, true);
+        out.put(bytes, 0, length);
+    }
+
+    /**
+     * Grows the reused arrays, and their views, if a receipt does not fit.
+     *
+     * @param length   The length of the receipt.
+     * @param capacity The length to grow to if needed.
+     */
+    private void ensureCapacity(int length, int capacity) {
+        if (chars.length < length) {
+            chars = new char[capacity];
+            charView = CharBuffer.wrap(chars);
+            bytes = new byte[capacity];
+            byteView = ByteBuffer.wrap(bytes);
+        }
+    }
+
+    /**
+     * Renders an order into the reused builder.
+     *
+     * @param order The order.
+     * @return The builder holding the receipt.
+     */
+    private StringBuilder renderToScratch(Order order) {
+        scratch.setLength(0);
+        return appendOrder(scratch, order);
+    }
+}
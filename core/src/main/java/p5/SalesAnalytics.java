@@ -0,0 +1,268 @@
+package p5;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Running sales totals of the store orders, with breakdowns by pizza kind, style, crust, size,
+ * and topping. The {@link StoreOrdersManager} updates the counters as orders are placed and
+ * removed, so reading a total or a breakdown is constant time and never scans the order history.
+ * Counters are {@link LongAdder}s in arrays indexed by enum ordinal, so concurrent placements
+ * update them without contending on a shared lock or memory location.
+ * Each counter is exact on its own; counters read while orders are being placed may reflect
+ * slightly different moments.
+ * @author Siddharth, Ibtesaam
+ */
+public final class SalesAnalytics {
+
+    /** Cached topping values, indexed by ordinal. */
+    private static final Topping[] TOPPINGS = Topping.values();
+
+    /** Number of orders in the store. */
+    private final LongAdder orders = new LongAdder();
+
+    /** Number of pizzas in the store. */
+    private final LongAdder pizzas = new LongAdder();
+
+    /** Sum of the order subtotals in cents. */
+    private final LongAdder subtotalCents = new LongAdder();
+
+    /** Sum of the order taxes in cents. */
+    private final LongAdder taxCents = new LongAdder();
+
+    /** Pizzas sold and their revenue in cents, by pizza kind. */
+    private final LongAdder[] kindUnits = newCounters(PizzaKind.values().length);
+    private final LongAdder[] kindRevenue = newCounters(PizzaKind.values().length);
+
+    /** Pizzas sold and their revenue in cents, by style. */
+    private final LongAdder[] styleUnits = newCounters(Style.values().length);
+    private final LongAdder[] styleRevenue = newCounters(Style.values().length);
+
+    /** Pizzas sold and their revenue in cents, by crust. */
+    private final LongAdder[] crustUnits = newCounters(Crust.values().length);
+    private final LongAdder[] crustRevenue = newCounters(Crust.values().length);
+
+    /** Pizzas sold and their revenue in cents, by size. */
+    private final LongAdder[] sizeUnits = newCounters(Size.values().length);
+    private final LongAdder[] sizeRevenue = newCounters(Size.values().length);
+
+    /** Pizzas sold with each topping and the topping surcharges in cents, by topping. */
+    private final LongAdder[] toppingUnits = newCounters(TOPPINGS.length);
+    private final LongAdder[] toppingRevenue = newCounters(TOPPINGS.length);
+
+    /**
+     * Creates an array of zeroed counters.
+     *
+     * @param length The number of counters.
+     * @return The counters.
+     */
+    private static LongAdder[] newCounters(int length) {
+        LongAdder[] counters = new LongAdder[length];
+        for (int i = 0; i < length; i++) {
+            counters[i] = new LongAdder();
+        }
+        return counters;
+    }
+
+    /**
+     * Adds a placed order to the totals.
+     *
+     * @param order The placed order.
+     */
+    public void orderPlaced(Order order) {
+        record(order, 1);
+    }
+
+    /**
+     * Takes a removed order out of the totals.
+     *
+     * @param order The removed order.
+     */
+    public void orderRemoved(Order order) {
+        record(order, -1);
+    }
+
+    /**
+     * Adds an order to, or subtracts it from, every counter.
+     *
+     * @param order The order.
+     * @param sign  1 to add the order, -1 to subtract it.
+     */
+    private void record(Order order, int sign) {
+        orders.add(sign);
+        subtotalCents.add(sign * order.getSubtotalCents());
+        taxCents.add(sign * order.getTaxCents());
+        for (Pizza pizza : order.getPizzas()) {
+            long price = sign * pizza.priceCents();
+            pizzas.add(sign);
+            add(kindUnits, kindRevenue, pizza.getKind().ordinal(), sign, price);
+            add(styleUnits, styleRevenue, pizza.getStyle().ordinal(), sign, price);
+            add(crustUnits, crustRevenue, pizza.getCrust().ordinal(), sign, price);
+            add(sizeUnits, sizeRevenue, pizza.getSize().ordinal(), sign, price);
+            for (int rest = pizza.getToppingMask(); rest != 0; rest &= rest - 1) {
+                int topping = Integer.numberOfTrailingZeros(rest);
+                add(toppingUnits, toppingRevenue, topping, sign,
+                        sign * PriceTable.toppingPrice(pizza.getKind(), TOPPINGS[topping]));
+            }
+        }
+    }
+
+    /**
+     * Adds to one slot of a breakdown.
+     *
+     * @param units   The unit counters.
+     * @param revenue The revenue counters.
+     * @param ordinal The slot.
+     * @param count   The units to add.
+     * @param cents   The revenue to add.
+     */
+    private static void add(LongAdder[] units, LongAdder[] revenue, int ordinal, int count, long cents) {
+        units[ordinal].add(count);
+        revenue[ordinal].add(cents);
+    }
+
+    /**
+     * Gets the number of orders in the store.
+     *
+     * @return The number of orders.
+     */
+    public long getOrderCount() {
+        return orders.sum();
+    }
+
+    /**
+     * Gets the number of pizzas in the store.
+     *
+     * @return The number of pizzas.
+     */
+    public long getPizzaCount() {
+        return pizzas.sum();
+    }
+
+    /**
+     * Gets the sum of the order subtotals.
+     *
+     * @return The subtotal in cents.
+     */
+    public long getSubtotalCents() {
+        return subtotalCents.sum();
+    }
+
+    /**
+     * Gets the sum of the order taxes.
+     *
+     * @return The tax in cents.
+     */
+    public long getTaxCents() {
+        return taxCents.sum();
+    }
+
+    /**
+     * Gets the sum of the order totals including tax.
+     *
+     * @return The total in cents.
+     */
+    public long getTotalCents() {
+        return subtotalCents.sum() + taxCents.sum();
+    }
+
+    /**
+     * Gets the number of pizzas sold of a kind.
+     *
+     * @param kind The pizza kind.
+     * @return The number of pizzas.
+     */
+    public long getUnits(PizzaKind kind) {
+        return kindUnits[kind.ordinal()].sum();
+    }
+
+    /**
+     * Gets the revenue from pizzas of a kind, before tax.
+     *
+     * @param kind The pizza kind.
+     * @return The revenue in cents.
+     */
+    public long getRevenueCents(PizzaKind kind) {
+        return kindRevenue[kind.ordinal()].sum();
+    }
+
+    /**
+     * Gets the number of pizzas sold in a style.
+     *
+     * @param style The style.
+     * @return The number of pizzas.
+     */
+    public long getUnits(Style style) {
+        return styleUnits[style.ordinal()].sum();
+    }
+
+    /**
+     * Gets the revenue from pizzas in a style, before tax.
+     *
+     * @param style The style.
+     * @return The revenue in cents.
+     */
+    public long getRevenueCents(Style style) {
+        return styleRevenue[style.ordinal()].sum();
+    }
+
+    /**
+     * Gets the number of pizzas sold with a crust.
+     *
+     * @param crust The crust.
+     * @return The number of pizzas.
+     */
+    public long getUnits(Crust crust) {
+        return crustUnits[crust.ordinal()].sum();
+    }
+
+    /**
+     * Gets the revenue from pizzas with a crust, before tax.
+     *
+     * @param crust The crust.
+     * @return The revenue in cents.
+     */
+    public long getRevenueCents(Crust crust) {
+        return crustRevenue[crust.ordinal()].sum();
+    }
+
+    /**
+     * Gets the number of pizzas sold in a size.
+     *
+     * @param size The size.
+     * @return The number of pizzas.
+     */
+    public long getUnits(Size size) {
+        return sizeUnits[size.ordinal()].sum();
+    }
+
+    /**
+     * Gets the revenue from pizzas in a size, before tax.
+     *
+     * @param size The size.
+     * @return The revenue in cents.
+     */
+    public long getRevenueCents(Size size) {
+        return sizeRevenue[size.ordinal()].sum();
+    }
+
+    /**
+     * Gets the number of pizzas sold with a topping, whether added or part of a specialty.
+     *
+     * @param topping The topping.
+     * @return The number of pizzas.
+     */
+    public long getUnits(Topping topping) {
+        return toppingUnits[topping.ordinal()].sum();
+    }
+
+    /**
+     * Gets the surcharges collected for a topping, before tax.
+     * Toppings included in a specialty pizza's base price contribute nothing.
+     *
+     * @param topping The topping.
+     * @return The revenue in cents.
+     */
+    public long getRevenueCents(Topping topping) {
+        return toppingRevenue[topping.ordinal()].sum();
+    }
+}
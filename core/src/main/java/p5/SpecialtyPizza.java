@@ -0,0 +1,158 @@
+package p5;
+
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Represents the base class for specialty pizzas, whose toppings are fixed by the kind of pizza.
+ * A specialty pizza is fully defined by its kind, style, crust, and size, so instances are immutable
+ * and shared: {@link #of(PizzaKind, Style, Crust, Size)} returns one interned instance per combination,
+ * and {@link #withSize(Size)} returns the shared instance for the new size instead of
+ * changing this one. The only unshared instances are pizzas restored from a saved order at a
+ * price that has changed since.
+ * @author Siddharth, Ibtesaam
+ */
+public abstract class SpecialtyPizza extends Pizza {
+
+    /** Number of styles, used to index the cache. */
+    private static final int STYLE_COUNT = Style.values().length;
+
+    /** Number of crust types, used to index the cache. */
+    private static final int CRUST_COUNT = Crust.values().length;
+
+    /** Number of sizes, used to index the cache. */
+    private static final int SIZE_COUNT = Size.values().length;
+
+    /**
+     * Interned specialty pizzas, indexed by kind, style, crust, and size.
+     * Entries are created the first time they are requested.
+     */
+    private static final AtomicReferenceArray<SpecialtyPizza> CACHE =
+            new AtomicReferenceArray<>(PizzaKind.values().length * STYLE_COUNT * CRUST_COUNT * SIZE_COUNT);
+
+    /**
+     * Constructs a specialty pizza with fixed toppings.
+     *
+     * @param kind     The kind of the pizza.
+     * @param style    The style of the pizza.
+     * @param crust    The crust type for the pizza.
+     * @param size     The size of the pizza.
+     * @param toppings The fixed toppings, as a {@link Toppings} mask.
+     */
+    SpecialtyPizza(PizzaKind kind, Style style, Crust crust, Size size, int toppings) {
+        super(kind, style);
+        this.crust = crust;
+        this.size = size;
+        this.toppings = toppings;
+        refreshPrice();
+    }
+
+    /**
+     * Gets the shared specialty pizza for a kind, style, crust, and size.
+     *
+     * @param kind  The kind of specialty pizza.
+     * @param style The style of the pizza.
+     * @param crust The crust type for the pizza.
+     * @param size  The size of the pizza.
+     * @return The interned specialty pizza.
+     * @throws IllegalArgumentException If the kind is not a specialty pizza.
+     */
+    public static SpecialtyPizza of(PizzaKind kind, Style style, Crust crust, Size size) {
+        int index = ((kind.ordinal() * STYLE_COUNT + style.ordinal()) * CRUST_COUNT + crust.ordinal())
+                * SIZE_COUNT + size.ordinal();
+        SpecialtyPizza pizza = CACHE.get(index);
+        if (pizza == null) {
+            pizza = create(kind, style, crust, size);
+            if (!CACHE.compareAndSet(index, null, pizza)) {
+                pizza = CACHE.get(index); // Another thread interned it first
+            }
+        }
+        return pizza;
+    }
+
+    /**
+     * Creates a new specialty pizza instance, for the cache or for a pizza restored at an old price.
+     *
+     * @param kind  The kind of specialty pizza.
+     * @param style The style of the pizza.
+     * @param crust The crust type for the pizza.
+     * @param size  The size of the pizza.
+     * @return A new specialty pizza.
+     */
+    static SpecialtyPizza create(PizzaKind kind, Style style, Crust crust, Size size) {
+        switch (kind) {
+            case DELUXE:
+                return new Deluxe(style, crust, size);
+            case BBQ_CHICKEN:
+                return new BBQChicken(style, crust, size);
+            case MEATZZA:
+                return new Meatzza(style, crust, size);
+            default:
+                throw new IllegalArgumentException(kind + " is not a specialty pizza");
+        }
+    }
+
+    /**
+     * Gets the shared specialty pizza of the same kind and crust in another size.
+     *
+     * @param size The {@link Size} of the pizza to return.
+     * @return The interned specialty pizza with the given size.
+     */
+    @Override
+    public Pizza withSize(Size size) {
+        return of(kind, style, crust, size);
+    }
+
+    /**
+     * Specialty pizzas are shared, so their size cannot be changed in place.
+     * Use {@link #withSize(Size)} instead.
+     *
+     * @param size The size that was requested.
+     * @throws UnsupportedOperationException Always.
+     */
+    @Override
+    public void setSize(Size size) {
+        throw new UnsupportedOperationException("Specialty pizzas are shared; use withSize instead");
+    }
+
+    /**
+     * The toppings of a specialty pizza are fixed and cannot be changed.
+     *
+     * @param topping The topping that was requested.
+     * @throws UnsupportedOperationException Always.
+     */
+    @Override
+    public void addTopping(Topping topping) {
+        throw new UnsupportedOperationException("Specialty pizza toppings cannot be changed");
+    }
+
+    /**
+     * The toppings of a specialty pizza are fixed and cannot be changed.
+     *
+     * @param topping The topping that was requested.
+     * @throws UnsupportedOperationException Always.
+     */
+    @Override
+    public void removeTopping(Topping topping) {
+        throw new UnsupportedOperationException("Specialty pizza toppings cannot be changed");
+    }
+
+    /**
+     * Specialty pizzas never change, so they are their own snapshot.
+     *
+     * @return This pizza.
+     */
+    @Override
+    Pizza snapshot() {
+        return this;
+    }
+
+    /**
+     * Specialty pizzas are shared between orders and never change price,
+     * so they do not track an owning order.
+     *
+     * @param order Ignored.
+     */
+    @Override
+    void setOrder(Order order) {
+    }
+}
@@ -0,0 +1,243 @@
+package p5;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.Locale;
+import java.util.zip.CRC32;
+
+/**
+ * Binary checkpoint of the store orders, so that startup only replays the journal written since.
+ * A checkpoint file holds a header (magic number, format version, the first {@link OrderJournal}
+ * segment it does not cover, and the order count), the orders encoded with {@link OrderCodec},
+ * and a CRC32 of everything before it.
+ * A checkpoint is written to a temporary file and renamed into place, so a crash leaves either
+ * the previous checkpoint or the new one. Loading maps the file into memory and decodes the
+ * orders straight from the mapping.
+ * @author Siddharth, Ibtesaam
+ */
+public final class StoreCheckpoint {
+
+    /** Magic number at the start of every checkpoint file ("P5CP"). */
+    private static final int MAGIC = 0x50354350;
+
+    /** Version of the checkpoint file format. */
+    private static final int FORMAT_VERSION = 1;
+
+    /** Size of the header: magic, format version, segment, and order count. */
+    private static final int HEADER_SIZE = 4 + 4 + 8 + 4;
+
+    /** Size of the trailing CRC32. */
+    private static final int TRAILER_SIZE = 4;
+
+    /** Size of the buffer orders are encoded into before being written. */
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    /** File name prefix of checkpoints. */
+    private static final String PREFIX = "checkpoint-";
+
+    /** File name suffix of complete checkpoints. */
+    private static final String SUFFIX = ".bin";
+
+    /** File name suffix of a checkpoint still being written. */
+    private static final String TEMP_SUFFIX = ".tmp";
+
+    /**
+     * Private constructor to prevent instantiation of this utility class.
+     */
+    private StoreCheckpoint() {
+    }
+
+    /**
+     * Writes a checkpoint of a snapshot and deletes any older checkpoints.
+     * The snapshot must hold exactly the changes journaled before the given segment.
+     * When this returns, the checkpoint is on disk under its final name, so the journal segments
+     * it covers can be deleted.
+     *
+     * @param directory The directory holding the checkpoints.
+     * @param segment   The first journal segment the checkpoint does not cover.
+     * @param orders    The store orders to write.
+     * @throws IOException If the checkpoint cannot be written.
+     */
+    public static void write(File directory, long segment, OrderSnapshot orders) throws IOException {
+        File temp = file(directory, segment, TEMP_SUFFIX);
+        CRC32 crc = new CRC32();
+        try (RandomAccessFile raf = new RandomAccessFile(temp, "rw")) {
+            raf.setLength(0L);
+            FileChannel channel = raf.getChannel();
+            ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE);
+            buffer.putInt(MAGIC).putInt(FORMAT_VERSION).putLong(segment).putInt(orders.size());
+            for (Order order : orders) {
+                int needed = OrderCodec.maxEncodedSize(order);
+                if (buffer.remaining() < needed) {
+                    drain(buffer, channel, crc);
+                    if (buffer.capacity() < needed) {
+                        buffer = ByteBuffer.allocate(needed);
+                    }
+                }
+                OrderCodec.encode(order, buffer);
+            }
+            drain(buffer, channel, crc);
+            buffer.putInt((int) crc.getValue()).flip();
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            channel.force(true);
+        }
+        if (!temp.renameTo(file(directory, segment, SUFFIX))) {
+            throw new IOException("Cannot move checkpoint " + temp + " into place");
+        }
+        // The rename must be on disk before anything it replaces is deleted
+        OrderJournal.forceDirectory(directory);
+        deleteBefore(directory, segment);
+    }
+
+    /**
+     * Loads the latest checkpoint in a directory.
+     *
+     * @param directory The directory holding the checkpoints.
+     * @param replayer  Receives each order in the checkpoint.
+     * @return The first journal segment to replay after the checkpoint, or 0 if there is no checkpoint.
+     * @throws IOException If the checkpoint cannot be read or is corrupt.
+     */
+    public static long load(File directory, OrderJournal.Replayer replayer) throws IOException {
+        long segment = latest(directory);
+        if (segment < 0) {
+            return 0L;
+        }
+        File file = file(directory, segment, SUFFIX);
+        try (RandomAccessFile raf = new RandomAccessFile(file, "r")) {
+            FileChannel channel = raf.getChannel();
+            long size = channel.size();
+            if (size < HEADER_SIZE + TRAILER_SIZE || size > Integer.MAX_VALUE) {
+                throw new IOException("Checkpoint " + file + " has an invalid size");
+            }
+            MappedByteBuffer mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0L, size);
+            int end = (int) size - TRAILER_SIZE;
+            if (checksum(mapped, end) != mapped.getInt(end)) {
+                throw new IOException("Checkpoint " + file + " is corrupt");
+            }
+            if (mapped.getInt() != MAGIC || mapped.getInt() != FORMAT_VERSION || mapped.getLong() != segment) {
+                throw new IOException("Checkpoint " + file + " has an unknown format");
+            }
+            int count = mapped.getInt();
+            mapped.limit(end);
+            try {
+                for (int i = 0; i < count; i++) {
+                    replayer.orderAdded(OrderCodec.decode(mapped));
+                }
+            } catch (BufferUnderflowException | IllegalArgumentException e) {
+                throw new IOException("Checkpoint " + file + " cannot be decoded", e);
+            }
+        }
+        return segment;
+    }
+
+    /**
+     * Computes the CRC32 of the start of a buffer, copying it through a small array so the
+     * whole mapping never has to be on the heap.
+     *
+     * @param buffer The buffer, which is left unchanged.
+     * @param length The number of bytes to check.
+     * @return The checksum.
+     */
+    private static int checksum(ByteBuffer buffer, int length) {
+        ByteBuffer view = buffer.duplicate();
+        view.position(0).limit(length);
+        byte[] chunk = new byte[Math.min(length, BUFFER_SIZE)];
+        CRC32 crc = new CRC32();
+        while (view.hasRemaining()) {
+            int n = Math.min(chunk.length, view.remaining());
+            view.get(chunk, 0, n);
+            crc.update(chunk, 0, n);
+        }
+        return (int) crc.getValue();
+    }
+
+    /**
+     * Writes out the contents of the encoding buffer and adds them to the checksum.
+     *
+     * @param buffer  The buffer, positioned at the end of its contents; cleared on return.
+     * @param channel The checkpoint file.
+     * @param crc     The running checksum.
+     * @throws IOException If the file cannot be written.
+     */
+    private static void drain(ByteBuffer buffer, FileChannel channel, CRC32 crc) throws IOException {
+        crc.update(buffer.array(), 0, buffer.position());
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        buffer.clear();
+    }
+
+    /**
+     * Finds the latest complete checkpoint in a directory.
+     *
+     * @param directory The directory holding the checkpoints.
+     * @return The segment of the latest checkpoint, or -1 if there is none.
+     */
+    private static long latest(File directory) {
+        long latest = -1L;
+        String[] names = directory.list();
+        if (names != null) {
+            for (String name : names) {
+                latest = Math.max(latest, segmentOf(name, SUFFIX));
+            }
+        }
+        return latest;
+    }
+
+    /**
+     * Deletes every checkpoint and leftover temporary file older than the given segment.
+     *
+     * @param directory The directory holding the checkpoints.
+     * @param segment   The segment of the checkpoint to keep.
+     */
+    private static void deleteBefore(File directory, long segment) {
+        String[] names = directory.list();
+        if (names == null) {
+            return;
+        }
+        for (String name : names) {
+            long old = Math.max(segmentOf(name, SUFFIX), segmentOf(name, TEMP_SUFFIX));
+            if (old >= 0 && old < segment) {
+                new File(directory, name).delete();
+            }
+        }
+    }
+
+    /**
+     * Gets the file of a checkpoint.
+     *
+     * @param directory The directory holding the checkpoints.
+     * @param segment   The first journal segment the checkpoint does not cover.
+     * @param suffix    The file name suffix.
+     * @return The checkpoint file.
+     */
+    private static File file(File directory, long segment, String suffix) {
+        return new File(directory, String.format(Locale.ROOT, "%s%019d%s", PREFIX, segment, suffix));
+    }
+
+    /**
+     * Parses the segment out of a checkpoint file name.
+     *
+     * @param name   The file name.
+     * @param suffix The expected file name suffix.
+     * @return The segment, or -1 if the name is not a checkpoint with that suffix.
+     */
+    private static long segmentOf(String name, String suffix) {
+        if (!name.startsWith(PREFIX) || !name.endsWith(suffix)) {
+            return -1L;
+        }
+        try {
+            return Long.parseLong(name.substring(PREFIX.length(), name.length() - suffix.length()));
+        } catch (NumberFormatException e) {
+            return -1L;
+        }
+    }
+}
@@ -0,0 +1,537 @@
+package p5;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Predicate;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Singleton class to manage store orders.
+ * Provides shared access to all completed orders in the store and ensures centralized management.
+ */
+public class StoreOrdersManager {
+
+    /** Logger for failures on background threads, which have no caller to report to. */
+    private static final Logger LOG = Logger.getLogger(StoreOrdersManager.class.getName());
+
+    /** Singleton instance of the StoreOrdersManager. */
+    private static final StoreOrdersManager instance = new StoreOrdersManager();
+
+    /** Repository of all completed orders in the store, indexed by order number. */
+    private final OrderRepository storeOrders;
+
+    /** Running sales totals of the store orders. */
+    private final SalesAnalytics analytics = new SalesAnalytics();
+
+    /** Bus that placements and removals are published on. */
+    private final OrderEventBus events = OrderEventBus.getInstance();
+
+    /** Numbers of the orders being placed right now, so two placements cannot share a number. */
+    private final Set<Integer> placing = ConcurrentHashMap.newKeySet();
+
+    /** Journal that every change is written to, or null if orders are kept in memory only. */
+    private volatile OrderJournal journal;
+
+    /** The directory holding the journal and checkpoints; guarded by this manager's monitor. */
+    private File directory;
+
+    /**
+     * Lock letting changes run concurrently with each other but not with the moment a checkpoint
+     * rolls the journal and takes its snapshot, so each change is on exactly one side of it.
+     */
+    private final ReentrantReadWriteLock changeLock = new ReentrantReadWriteLock();
+
+    /** Version of the store orders at the last checkpoint; guarded by this manager's monitor. */
+    private long checkpointVersion = -1L;
+
+    /** Background thread taking periodic checkpoints, or null if none are scheduled. */
+    private ScheduledExecutorService checkpointer;
+
+    /**
+     * Constructs an empty store. The app uses the singleton; tests use their own stores.
+     * Initializes the repository of store orders.
+     */
+    StoreOrdersManager() {
+        storeOrders = new OrderRepository();
+    }
+
+    /**
+     * Gets the singleton instance of the StoreOrdersManager.
+     *
+     * @return The singleton instance of StoreOrdersManager.
+     */
+    public static StoreOrdersManager getInstance() {
+        return instance;
+    }
+
+    /**
+     * Opens the journal that persists the store orders, restoring every order it contains.
+     * The latest {@link StoreCheckpoint} is loaded first and only the journal written since is
+     * replayed. New orders are then numbered after every restored one, and from then on each
+     * added or removed order is written to the journal.
+     * Has no effect if a journal is already open.
+     *
+     * @param directory  The directory holding the journal and checkpoints; created if it does not exist.
+     * @param durability How soon each change must reach the disk.
+     * @throws IOException If the checkpoint or journal cannot be opened or read.
+     */
+    public synchronized void openJournal(File directory, OrderJournal.Durability durability) throws IOException {
+        if (journal != null) {
+            return;
+        }
+        int[] highestNumber = {-1};
+        OrderJournal.Replayer replayer = new OrderJournal.Replayer() {
+            @Override
+            public void orderAdded(Order order) {
+                highestNumber[0] = Math.max(highestNumber[0], order.getNumber());
+                order.markPlaced();
+                Order replaced = storeOrders.get(order.getNumber());
+                if (replaced != null) {
+                    analytics.orderRemoved(replaced); // Journals written before numbers were checked
+                }
+                storeOrders.add(order);
+                analytics.orderPlaced(order);
+            }
+
+            @Override
+            public void orderRemoved(int number) {
+                highestNumber[0] = Math.max(highestNumber[0], number);
+                Order removed = storeOrders.remove(number);
+                if (removed != null) {
+                    analytics.orderRemoved(removed);
+                }
+            }
+        };
+        long firstSegment = 0L;
+        if (directory.isDirectory()) {
+            // Checkpointed orders are loaded in one batch, publishing a single repository version
+            List<Order> restored = new ArrayList<>();
+            firstSegment = StoreCheckpoint.load(directory, new OrderJournal.Replayer() {
+                @Override
+                public void orderAdded(Order order) {
+                    highestNumber[0] = Math.max(highestNumber[0], order.getNumber());
+                    order.markPlaced();
+                    restored.add(order);
+                    analytics.orderPlaced(order);
+                }
+
+                @Override
+                public void orderRemoved(int number) {
+                    throw new IllegalStateException("Checkpoints hold no removals");
+                }
+            });
+            storeOrders.addAll(restored);
+        }
+        journal = OrderJournal.open(directory, durability, firstSegment, replayer);
+        this.directory = directory;
+        if (highestNumber[0] >= 0) {
+            OrderNumberAllocator.getInstance().advancePast(highestNumber[0]);
+        }
+    }
+
+    /**
+     * Writes a checkpoint of the store orders and deletes the journal segments it covers.
+     * Changes are held back only while the journal rolls to a new segment and the current
+     * snapshot is taken; the checkpoint itself is written while changes continue.
+     * Does nothing if no journal is open or nothing changed since the last checkpoint.
+     *
+     * @throws IOException If the checkpoint cannot be written.
+     */
+    public synchronized void checkpoint() throws IOException {
+        OrderJournal journal = this.journal;
+        if (journal == null) {
+            return;
+        }
+        long segment;
+        OrderSnapshot snapshot;
+        changeLock.writeLock().lock();
+        try {
+            snapshot = storeOrders.snapshot();
+            if (snapshot.version() == checkpointVersion) {
+                return;
+            }
+            segment = journal.roll();
+        } finally {
+            changeLock.writeLock().unlock();
+        }
+        long start = System.nanoTime();
+        StoreCheckpoint.write(directory, segment, snapshot);
+        journal.deleteSegmentsBefore(segment);
+        checkpointVersion = snapshot.version();
+        Metrics.getInstance().getCheckpoint().recordSince(start);
+    }
+
+    /**
+     * Takes a checkpoint periodically on a background thread.
+     * Replaces any schedule set up earlier. A failed checkpoint is logged and counted in the
+     * {@link Metrics}, and the next run tries again; the journal still holds every change meanwhile.
+     *
+     * @param period The time between the end of one checkpoint and the start of the next.
+     * @param unit   The unit of the period.
+     */
+    public synchronized void scheduleCheckpoints(long period, TimeUnit unit) {
+        if (checkpointer != null) {
+            checkpointer.shutdown();
+        }
+        checkpointer = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "store-checkpoint");
+            thread.setDaemon(true);
+            return thread;
+        });
+        checkpointer.scheduleWithFixedDelay(() -> {
+            try {
+                checkpoint();
+            } catch (IOException | RuntimeException e) {
+                // A runnable that throws would cancel the schedule, so every failure is caught here
+                Metrics.getInstance().getCheckpointFailures().increment();
+                LOG.log(Level.WARNING, "Checkpoint of the store orders failed", e);
+            }
+        }, period, period, unit);
+    }
+
+    /**
+     * Adds a completed order to the store orders.
+     * The order is marked as placed, after which its pizzas can no longer be changed.
+     * If a journal is open, the order is written to it first; if that fails, the order is
+     * left unplaced so it can be changed or placed again. Order numbers are unique in the store:
+     * an order whose number is already stored, or being placed, is rejected. Once the order is in the store,
+     * an {@link OrderEvent.Type#ORDER_PLACED} event is published on the {@link OrderEventBus}.
+     * Safe to call from multiple threads.
+     *
+     * @param order The completed order to add.
+     * @throws IllegalStateException If the order was already placed or another order has its number.
+     * @throws IllegalArgumentException If the order is too large to journal.
+     * @throws UncheckedIOException If the order cannot be written to the journal.
+     */
+    public void addOrder(Order order) {
+        long start = System.nanoTime();
+        claimNumber(order);
+        changeLock.readLock().lock();
+        try {
+            order.markPlaced();
+            OrderJournal journal = this.journal;
+            if (journal != null) {
+                try {
+                    journal.logAdd(order);
+                } catch (IOException e) {
+                    throw new UncheckedIOException("Could not journal order " + order.getNumber(), e);
+                }
+            }
+            storeOrders.add(order);
+            analytics.orderPlaced(order);
+        } catch (RuntimeException e) {
+            order.unmarkPlaced();
+            throw e;
+        } finally {
+            changeLock.readLock().unlock();
+            placing.remove(order.getNumber());
+        }
+        Metrics metrics = Metrics.getInstance();
+        metrics.getOrdersPlaced().increment();
+        metrics.getPizzasPlaced().add(order.getPizzas().size());
+        metrics.getOrderPlacement().recordSince(start);
+        events.publish(OrderEvent.Type.ORDER_PLACED, null, order, null);
+    }
+
+    /**
+     * Adds several completed orders to the store orders as one batch.
+     * The orders are journaled under one lock with at most one fsync, and the store publishes a
+     * single new version for all of them. If the batch cannot be journaled, none of the orders
+     * is placed. Each order is its own journal record, written out in chunks for a large batch,
+     * so a crash in the middle of the write can leave only the first orders of the batch to be
+     * restored; every order restored is complete.
+     * Safe to call from multiple threads.
+     *
+     * @param orders The completed orders to add.
+     * @throws IllegalStateException If an order was already placed, another order has its number,
+     *                               or two orders in the batch share a number; nothing is placed.
+     * @throws IllegalArgumentException If an order is too large to journal; nothing is placed.
+     * @throws UncheckedIOException If the orders cannot be written to the journal.
+     */
+    public void addOrders(Collection<Order> orders) {
+        if (orders.isEmpty()) {
+            return;
+        }
+        long start = System.nanoTime();
+        long pizzaCount = 0L;
+        int claimed = 0;
+        try {
+            for (Order order : orders) {
+                claimNumber(order);
+                claimed++;
+            }
+        } catch (RuntimeException e) {
+            releaseNumbers(orders, claimed);
+            throw e;
+        }
+        changeLock.readLock().lock();
+        try {
+            for (Order order : orders) {
+                order.markPlaced();
+                pizzaCount += order.pizzaCount();
+            }
+            OrderJournal journal = this.journal;
+            if (journal != null) {
+                try {
+                    journal.logAdds(orders);
+                } catch (IOException e) {
+                    throw new UncheckedIOException("Could not journal a batch of " + orders.size() + " orders", e);
+                }
+            }
+            storeOrders.addAll(orders);
+            for (Order order : orders) {
+                analytics.orderPlaced(order);
+            }
+        } catch (RuntimeException e) {
+            for (Order order : orders) {
+                order.unmarkPlaced();
+            }
+            throw e;
+        } finally {
+            changeLock.readLock().unlock();
+            releaseNumbers(orders, claimed);
+        }
+        Metrics metrics = Metrics.getInstance();
+        metrics.getOrdersPlaced().add(orders.size());
+        metrics.getPizzasPlaced().add(pizzaCount);
+        metrics.getBatchPlacement().recordSince(start);
+        if (events.hasSubscribers()) {
+            for (Order order : orders) {
+                events.publish(OrderEvent.Type.ORDER_PLACED, null, order, null);
+            }
+        }
+    }
+
+    /**
+     * Claims the number of an order about to be placed; the caller removes it from
+     * {@link #placing} once the placement ends, whether or not it succeeded.
+     *
+     * @param order The order.
+     * @throws IllegalStateException If the order was already placed, or its number is stored or
+     *                               being placed.
+     */
+    private void claimNumber(Order order) {
+        int number = order.getNumber();
+        if (order.isPlaced() || !placing.add(number)) {
+            throw new IllegalStateException("Order " + number + " has already been placed");
+        }
+        if (storeOrders.get(number) != null) {
+            placing.remove(number);
+            throw new IllegalStateException("Order " + number + " has already been placed");
+        }
+    }
+
+    /**
+     * Releases the numbers claimed for the first orders of a batch.
+     *
+     * @param orders  The batch.
+     * @param claimed How many of its orders had their numbers claimed.
+     */
+    private void releaseNumbers(Collection<Order> orders, int claimed) {
+        for (Order order : orders) {
+            if (claimed-- == 0) {
+                return;
+            }
+            placing.remove(order.getNumber());
+        }
+    }
+
+    /**
+     * Writes a removal to the journal, if one is open.
+     *
+     * @param number The number of the removed order.
+     * @throws UncheckedIOException If the removal cannot be written to the journal.
+     */
+    private void journalRemove(int number) {
+        OrderJournal journal = this.journal;
+        if (journal != null) {
+            try {
+                journal.logRemove(number);
+            } catch (IOException e) {
+                throw new UncheckedIOException("Could not journal removal of order " + number, e);
+            }
+        }
+    }
+
+    /**
+     * Writes a batch of removals to the journal, if one is open.
+     *
+     * @param removed The removed orders.
+     * @throws UncheckedIOException If the removals cannot be written to the journal.
+     */
+    private void journalRemoves(List<Order> removed) {
+        OrderJournal journal = this.journal;
+        if (journal != null) {
+            try {
+                journal.logRemoves(removed);
+            } catch (IOException e) {
+                throw new UncheckedIOException("Could not journal removal of " + removed.size() + " orders", e);
+            }
+        }
+    }
+
+    /**
+     * Retrieves all completed store orders in the order they were placed.
+     * Returns an immutable snapshot in constant time without copying; orders placed or removed
+     * afterwards do not affect it.
+     *
+     * @return A snapshot of the store orders.
+     */
+    public OrderSnapshot getStoreOrders() {
+        return storeOrders.snapshot();
+    }
+
+    /**
+     * Gets the running sales totals of the store orders, kept up to date as orders are
+     * placed and removed.
+     *
+     * @return The sales analytics.
+     */
+    public SalesAnalytics getAnalytics() {
+        return analytics;
+    }
+
+    /**
+     * Looks up a completed order by its number.
+     *
+     * @param number The order number.
+     * @return The order, or null if no order has that number.
+     */
+    public Order getOrder(int number) {
+        return storeOrders.get(number);
+    }
+
+    /**
+     * Gets the number of completed store orders.
+     *
+     * @return The number of store orders.
+     */
+    public int getOrderCount() {
+        return storeOrders.size();
+    }
+
+    /**
+     * Removes a completed order from the store orders.
+     * Every removal, here and in the other remove methods, is written to the journal, if one is
+     * open, before the store changes, and publishes an {@link OrderEvent.Type#ORDER_REMOVED}
+     * event on the {@link OrderEventBus}.
+     *
+     * @param order The order to remove.
+     * @throws UncheckedIOException If the removal cannot be written to the journal.
+     */
+    public void removeOrder(Order order) {
+        boolean removed = false;
+        changeLock.readLock().lock();
+        try {
+            if (storeOrders.get(order.getNumber()) == order) {
+                journalRemove(order.getNumber());
+                removed = storeOrders.remove(order);
+                if (removed) {
+                    analytics.orderRemoved(order);
+                    Metrics.getInstance().getOrdersRemoved().increment();
+                }
+            }
+        } finally {
+            changeLock.readLock().unlock();
+        }
+        if (removed) {
+            events.publish(OrderEvent.Type.ORDER_REMOVED, null, order, null);
+        }
+    }
+
+    /**
+     * Removes the completed order with the given number from the store orders.
+     *
+     * @param number The number of the order to remove.
+     * @return The removed order, or null if no order has that number.
+     * @throws UncheckedIOException If the removal cannot be written to the journal.
+     */
+    public Order removeOrder(int number) {
+        Order removed = null;
+        changeLock.readLock().lock();
+        try {
+            Order stored = storeOrders.get(number);
+            if (stored != null) {
+                journalRemove(number);
+                if (storeOrders.remove(stored)) {
+                    removed = stored;
+                    analytics.orderRemoved(removed);
+                    Metrics.getInstance().getOrdersRemoved().increment();
+                }
+            }
+        } finally {
+            changeLock.readLock().unlock();
+        }
+        if (removed != null) {
+            events.publish(OrderEvent.Type.ORDER_REMOVED, null, removed, null);
+        }
+        return removed;
+    }
+
+    /**
+     * Removes every completed order whose number is in a range, in one pass over the store.
+     *
+     * @param fromNumber The lowest order number to remove.
+     * @param toNumber   The order number just past the highest one to remove.
+     * @return The removed orders, in the order they were placed.
+     * @throws UncheckedIOException If the removals cannot be written to the journal.
+     */
+    public List<Order> removeOrders(int fromNumber, int toNumber) {
+        return removeOrders(order -> order.getNumber() >= fromNumber && order.getNumber() < toNumber);
+    }
+
+    /**
+     * Removes every completed order that matches a filter, in one pass over the store.
+     * The store publishes a single new version for all removals and they are journaled under
+     * one lock with at most one fsync. As with {@link #addOrders(Collection)}, a crash in the
+     * middle of the journal write can leave only some of the removals to be replayed.
+     *
+     * @param filter Selects the orders to remove; called once per order of a snapshot of the store,
+     *               before anything is journaled or removed.
+     * @return The removed orders, in the order they were placed.
+     * @throws UncheckedIOException If the removals cannot be written to the journal.
+     */
+    public List<Order> removeOrders(Predicate<? super Order> filter) {
+        List<Order> removed = Collections.emptyList();
+        changeLock.readLock().lock();
+        try {
+            List<Order> selected = new ArrayList<>();
+            for (Order order : storeOrders.snapshot()) {
+                if (filter.test(order)) {
+                    selected.add(order);
+                }
+            }
+            if (!selected.isEmpty()) {
+                journalRemoves(selected);
+                Set<Order> chosen = Collections.newSetFromMap(new IdentityHashMap<>());
+                chosen.addAll(selected);
+                removed = storeOrders.removeIf(chosen::contains);
+                for (Order order : removed) {
+                    analytics.orderRemoved(order);
+                }
+                Metrics.getInstance().getOrdersRemoved().add(removed.size());
+            }
+        } finally {
+            changeLock.readLock().unlock();
+        }
+        if (events.hasSubscribers()) {
+            for (Order order : removed) {
+                events.publish(OrderEvent.Type.ORDER_REMOVED, null, order, null);
+            }
+        }
+        return removed;
+    }
+}
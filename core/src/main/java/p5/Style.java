@@ -0,0 +1,41 @@
+package p5;
+
+/**
+ * Represents the regional styles of pizza offered by the pizzeria.
+ * The style of a pizza is set by the {@link PizzaFactory} that creates it.
+ * @author Siddharth, Ibtesaam
+ */
+public enum Style {
+
+    /**
+     * New York style, with thinner and foldable crusts.
+     */
+    NY("NY Style"),
+
+    /**
+     * Chicago style, with deep and stuffed crusts.
+     */
+    CHICAGO("Chicago Style");
+
+    /** The display name of the style. */
+    private final String label;
+
+    /**
+     * Constructs a style with its display name.
+     *
+     * @param label The display name of the style.
+     */
+    Style(String label) {
+        this.label = label;
+    }
+
+    /**
+     * Gets the display name of the style.
+     *
+     * @return The display name, e.g. "NY Style".
+     */
+    @Override
+    public String toString() {
+        return label;
+    }
+}
@@ -0,0 +1,150 @@
+package p5;
+
+import java.util.AbstractList;
+import java.util.Collection;
+import java.util.List;
+import java.util.RandomAccess;
+
+/**
+ * Helper methods for storing a set of toppings as a primitive bitmask.
+ * Bit {@code n} of a mask is set when the topping with ordinal {@code n} is present,
+ * so adding, removing and checking a topping are single bit operations and the
+ * topping count is a {@link Integer#bitCount(int)}.
+ * @author Siddharth, Ibtesaam
+ */
+public final class Toppings {
+
+    /** Maximum number of toppings allowed on a single pizza. */
+    public static final int MAX_TOPPINGS = 7;
+
+    /** Mask with every topping present. */
+    public static final int ALL = (1 << Topping.values().length) - 1;
+
+    /** Cached copy of {@link Topping#values()} so lookups by ordinal do not allocate. */
+    private static final Topping[] VALUES = Topping.values();
+
+    /**
+     * Private constructor to prevent instantiation of this utility class.
+     */
+    private Toppings() {
+    }
+
+    /**
+     * Gets the bit representing a single topping.
+     *
+     * @param topping The topping.
+     * @return The mask with only that topping present.
+     */
+    public static int bit(Topping topping) {
+        return 1 << topping.ordinal();
+    }
+
+    /**
+     * Builds a mask from the given toppings.
+     *
+     * @param toppings The toppings to include.
+     * @return The mask with those toppings present.
+     */
+    public static int maskOf(Topping... toppings) {
+        int mask = 0;
+        for (Topping topping : toppings) {
+            mask |= bit(topping);
+        }
+        return mask;
+    }
+
+    /**
+     * Builds a mask from a collection of toppings.
+     *
+     * @param toppings The toppings to include.
+     * @return The mask with those toppings present.
+     */
+    public static int maskOf(Collection<Topping> toppings) {
+        int mask = 0;
+        for (Topping topping : toppings) {
+            mask |= bit(topping);
+        }
+        return mask;
+    }
+
+    /**
+     * Checks whether a topping is present in a mask.
+     *
+     * @param mask    The topping mask.
+     * @param topping The topping to check.
+     * @return True if the topping is present, false otherwise.
+     */
+    public static boolean contains(int mask, Topping topping) {
+        return (mask & bit(topping)) != 0;
+    }
+
+    /**
+     * Counts the toppings in a mask.
+     *
+     * @param mask The topping mask.
+     * @return The number of toppings present.
+     */
+    public static int count(int mask) {
+        return Integer.bitCount(mask);
+    }
+
+    /**
+     * Gets the topping with the given ordinal.
+     *
+     * @param ordinal The ordinal of the topping.
+     * @return The topping.
+     */
+    public static Topping valueOf(int ordinal) {
+        return VALUES[ordinal];
+    }
+
+    /**
+     * Provides a read-only list view of the toppings in a mask, in menu order.
+     *
+     * @param mask The topping mask.
+     * @return A read-only list of the toppings present.
+     */
+    public static List<Topping> asList(int mask) {
+        return new ToppingList(mask);
+    }
+
+    /**
+     * Read-only list of the toppings in a mask.
+     */
+    private static final class ToppingList extends AbstractList<Topping> implements RandomAccess {
+
+        /** The topping mask backing this list. */
+        private final int mask;
+
+        /**
+         * Constructs a list view of the given mask.
+         *
+         * @param mask The topping mask.
+         */
+        ToppingList(int mask) {
+            this.mask = mask;
+        }
+
+        @Override
+        public Topping get(int index) {
+            if (index < 0 || index >= size()) {
+                throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size());
+            }
+            int remaining = mask;
+            for (int i = 0; i < index; i++) {
+                remaining &= remaining - 1; // Drop the lowest topping
+            }
+            return VALUES[Integer.numberOfTrailingZeros(remaining)];
+        }
+
+        @Override
+        public int size() {
+            return Integer.bitCount(mask);
+        }
+
+        @Override
+        public boolean contains(Object o) {
+            return o instanceof Topping && Toppings.contains(mask, (Topping) o);
+        }
+    }
+}
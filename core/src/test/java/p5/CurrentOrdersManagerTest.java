@@ -0,0 +1,162 @@
+package p5;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.Test;
+
+/**
+ * Tests that the {@link CurrentOrdersManager} keeps sessions apart, hands placed orders to the
+ * store, and stays within its session budget and idle timeout.
+ * @author Siddharth, Ibtesaam
+ */
+public class CurrentOrdersManagerTest {
+
+    /** Idle timeout of the managers under test, in clock nanoseconds. */
+    private static final long IDLE_TIMEOUT = 100L;
+
+    /** The clock of the managers under test, moved by hand. */
+    private final AtomicLong time = new AtomicLong();
+
+    /**
+     * Creates a manager that reads the test clock.
+     *
+     * @param maxSessions Maximum number of sessions kept at once.
+     * @return The manager.
+     */
+    private CurrentOrdersManager manager(int maxSessions) {
+        return new CurrentOrdersManager(maxSessions, IDLE_TIMEOUT, time::get);
+    }
+
+    /**
+     * Creates a Build Your Own pizza with no toppings.
+     *
+     * @return The pizza.
+     */
+    private static Pizza pizza() {
+        return Pizza.of(PizzaKind.BUILD_YOUR_OWN, Style.NY, Crust.HAND_TOSSED, Size.SMALL, 0);
+    }
+
+    @Test
+    public void sessionsBuildSeparateOrders() {
+        CurrentOrdersManager manager = manager(10);
+        Pizza first = pizza();
+        Pizza second = pizza();
+        manager.addPizza("a", first);
+        manager.addPizza("b", second);
+        manager.addPizza("b", pizza());
+        assertNotSame(manager.getOrder("a"), manager.getOrder("b"));
+        assertEquals(1, manager.getOrder("a").pizzaCount());
+        assertEquals(2, manager.getOrder("b").pizzaCount());
+        manager.removePizza("b", second);
+        assertEquals(1, manager.getOrder("b").pizzaCount());
+        assertEquals(2, manager.getSessionCount());
+    }
+
+    @Test
+    public void placingHandsTheOrderToTheStoreAndStartsANewOne() {
+        CurrentOrdersManager manager = manager(10);
+        manager.addPizza("a", pizza());
+        Order building = manager.getOrder("a");
+        Order placed = manager.placeOrder("a");
+        assertSame(building, placed);
+        assertTrue(placed.isPlaced());
+        assertSame(placed, StoreOrdersManager.getInstance().getOrder(placed.getNumber()));
+        assertEquals(0, manager.getSessionCount());
+        Order next = manager.getOrder("a");
+        assertNotSame(placed, next);
+        assertEquals(0, next.pizzaCount());
+        try {
+            manager.placeOrder("a");
+            fail("An empty order must not be placed");
+        } catch (IllegalStateException expected) {
+            // The empty order stays open
+        }
+        assertSame(next, manager.getOrder("a"));
+    }
+
+    @Test
+    public void placingAnUnknownSessionFails() {
+        CurrentOrdersManager manager = manager(10);
+        try {
+            manager.placeOrder("missing");
+            fail("A session with no order must not be placed");
+        } catch (IllegalStateException expected) {
+            assertEquals(0, manager.getSessionCount());
+        }
+    }
+
+    @Test
+    public void budgetEvictsTheLeastRecentlyUsedSession() {
+        CurrentOrdersManager manager = manager(2);
+        Order a = manager.getOrder("a");
+        time.set(1L);
+        manager.getOrder("b");
+        time.set(2L);
+        manager.getOrder("a"); // Now b is the least recently used
+        time.set(3L);
+        manager.getOrder("c");
+        assertEquals(2, manager.getSessionCount());
+        assertSame(a, manager.getOrder("a"));
+        time.set(4L);
+        assertEquals(0, manager.getOrder("b").pizzaCount()); // A new session, evicting c
+        assertEquals(2, manager.getSessionCount());
+    }
+
+    @Test
+    public void idleSessionsAreEvictedAsSessionsAreUsed() {
+        CurrentOrdersManager manager = manager(10);
+        Order a = manager.getOrder("a");
+        time.set(IDLE_TIMEOUT / 2);
+        manager.getOrder("b");
+        assertEquals(2, manager.getSessionCount()); // Neither is idle yet
+        assertSame(a, manager.getOrder("a"));
+        time.set(10 * IDLE_TIMEOUT);
+        manager.getOrder("c");
+        assertEquals(1, manager.getSessionCount()); // Well below the cap, a and b were still evicted
+        assertNotSame(a, manager.getOrder("a"));
+    }
+
+    @Test
+    public void discardedOrdersArePublished() throws InterruptedException {
+        CurrentOrdersManager manager = manager(1);
+        BlockingQueue<OrderEvent> discarded = new LinkedBlockingQueue<>();
+        try (OrderEventBus.Subscription subscription = OrderEventBus.getInstance().subscribe("test", 64,
+                OrderEventBus.Backpressure.BLOCK, event -> {
+                    if (event.getType() == OrderEvent.Type.ORDER_DISCARDED) {
+                        discarded.add(event);
+                    }
+                })) {
+            manager.addPizza("a", pizza());
+            int closed = manager.getOrder("a").getNumber();
+            manager.closeSession("a");
+            OrderEvent event = discarded.poll(2, TimeUnit.SECONDS);
+            assertEquals("a", event.getSessionId());
+            assertEquals(closed, event.getOrderNumber());
+            assertEquals(1, event.getPizzas().size());
+
+            int evicted = manager.getOrder("b").getNumber();
+            time.set(1L);
+            manager.getOrder("c"); // Over budget
+            event = discarded.poll(2, TimeUnit.SECONDS);
+            assertEquals("b", event.getSessionId());
+            assertEquals(evicted, event.getOrderNumber());
+
+            int idle = manager.getOrder("c").getNumber();
+            time.set(10 * IDLE_TIMEOUT);
+            assertEquals(1, manager.evictIdle());
+            event = discarded.poll(2, TimeUnit.SECONDS);
+            assertEquals("c", event.getSessionId());
+            assertEquals(idle, event.getOrderNumber());
+            assertNull(discarded.poll(100, TimeUnit.MILLISECONDS));
+        }
+    }
+}
@@ -0,0 +1,215 @@
+package p5;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.fail;
+
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import org.junit.Test;
+
+/**
+ * Tests that the {@link OrderCodec} round-trips orders at their recorded prices and rejects
+ * data that is not a valid order.
+ * @author Siddharth, Ibtesaam
+ */
+public class OrderCodecTest {
+
+    /** Packed first byte of a small NY Style hand tossed Build Your Own pizza. */
+    private static final int BUILD_YOUR_OWN_CODE = PizzaKind.BUILD_YOUR_OWN.ordinal() << 6
+            | Style.NY.ordinal() << 5 | Crust.HAND_TOSSED.ordinal() << 2 | Size.SMALL.ordinal();
+
+    /**
+     * Encodes an order into a buffer ready to be read.
+     *
+     * @param order The order.
+     * @return The encoded order.
+     */
+    private static ByteBuffer encode(Order order) {
+        ByteBuffer buffer = ByteBuffer.allocate(OrderCodec.maxEncodedSize(order));
+        OrderCodec.encode(order, buffer);
+        buffer.flip();
+        return buffer;
+    }
+
+    /**
+     * Encodes an order of one pizza from raw field values, valid or not.
+     *
+     * @param number   The order number.
+     * @param code     The packed kind, style, crust, and size byte.
+     * @param toppings The topping mask.
+     * @param price    The price, as an unsigned varint.
+     * @return The encoded order, ready to be read.
+     */
+    private static ByteBuffer rawOrder(long number, int code, int toppings, long price) {
+        ByteBuffer buffer = ByteBuffer.allocate(64);
+        OrderCodec.putVarint(buffer, number);
+        OrderCodec.putVarint(buffer, 1);
+        buffer.put((byte) code).putShort((short) toppings);
+        OrderCodec.putVarint(buffer, price);
+        buffer.flip();
+        return buffer;
+    }
+
+    /**
+     * Checks that decoding an encoded order fails because the data is invalid.
+     *
+     * @param buffer The encoded order.
+     */
+    private static void assertRejected(ByteBuffer buffer) {
+        try {
+            OrderCodec.decode(buffer);
+            fail("Invalid order data was decoded");
+        } catch (IllegalArgumentException expected) {
+            // Rejected
+        }
+    }
+
+    /**
+     * Checks that two pizzas are the same on every encoded field.
+     *
+     * @param expected The original pizza.
+     * @param actual   The decoded pizza.
+     */
+    private static void assertSamePizza(Pizza expected, Pizza actual) {
+        assertEquals(expected.getKind(), actual.getKind());
+        assertEquals(expected.getStyle(), actual.getStyle());
+        assertEquals(expected.getCrust(), actual.getCrust());
+        assertEquals(expected.getSize(), actual.getSize());
+        assertEquals(expected.getToppingMask(), actual.getToppingMask());
+        assertEquals(expected.priceCents(), actual.priceCents());
+    }
+
+    @Test
+    public void orderRoundTrips() {
+        Order order = new Order(123456);
+        order.addPizza(Pizza.of(PizzaKind.DELUXE, Style.CHICAGO, Crust.DEEP_DISH, Size.LARGE, 0));
+        order.addPizza(Pizza.of(PizzaKind.BUILD_YOUR_OWN, Style.NY, Crust.THIN, Size.SMALL,
+                Toppings.maskOf(Topping.SAUSAGE, Topping.OLIVE, Topping.TOMATO)));
+        order.addPizza(Pizza.of(PizzaKind.MEATZZA, Style.NY, Crust.BROOKLYN, Size.MEDIUM, 0));
+
+        ByteBuffer buffer = encode(order);
+        Order decoded = OrderCodec.decode(buffer);
+
+        assertFalse(buffer.hasRemaining());
+        assertEquals(order.getNumber(), decoded.getNumber());
+        assertEquals(order.getPizzas().size(), decoded.getPizzas().size());
+        for (int i = 0; i < order.getPizzas().size(); i++) {
+            assertSamePizza(order.getPizzas().get(i), decoded.getPizzas().get(i));
+        }
+        assertEquals(order.getSubtotalCents(), decoded.getSubtotalCents());
+    }
+
+    @Test
+    public void decodeKeepsTheRecordedPrice() {
+        Pizza current = Pizza.of(PizzaKind.BBQ_CHICKEN, Style.NY, Crust.PAN, Size.MEDIUM, 0);
+        long recorded = current.priceCents() - 100;
+        Order order = new Order(1);
+        order.addPizza(Pizza.restore(PizzaKind.BBQ_CHICKEN, Style.NY, Crust.PAN, Size.MEDIUM, 0, recorded));
+        order.addPizza(Pizza.restore(PizzaKind.BUILD_YOUR_OWN, Style.NY, Crust.PAN, Size.MEDIUM,
+                Toppings.maskOf(Topping.HAM), 999));
+
+        Order decoded = OrderCodec.decode(encode(order));
+
+        assertEquals(recorded, decoded.getPizzas().get(0).priceCents());
+        assertEquals(999, decoded.getPizzas().get(1).priceCents());
+        assertEquals(recorded + 999, decoded.getSubtotalCents());
+        // The shared specialty pizza keeps the current price
+        assertEquals(current.priceCents(),
+                Pizza.of(PizzaKind.BBQ_CHICKEN, Style.NY, Crust.PAN, Size.MEDIUM, 0).priceCents());
+    }
+
+    @Test
+    public void decodePizzasRepricesFromThePriceTable() {
+        Pizza current = Pizza.of(PizzaKind.DELUXE, Style.NY, Crust.BROOKLYN, Size.SMALL, 0);
+        Order sent = new Order(77);
+        sent.addPizza(Pizza.restore(PizzaKind.DELUXE, Style.NY, Crust.BROOKLYN, Size.SMALL, 0, 1));
+        ByteBuffer buffer = encode(sent);
+        OrderCodec.getVarint(buffer); // Skip the sender's number
+
+        Order received = new Order(5);
+        OrderCodec.decodePizzas(buffer, received);
+
+        assertNotEquals(1, current.priceCents());
+        assertEquals(current.priceCents(), received.getSubtotalCents());
+    }
+
+    @Test
+    public void varintsRoundTrip() {
+        long[] values = {0L, 1L, 127L, 128L, 16_383L, 16_384L, Integer.MAX_VALUE, Long.MAX_VALUE, -1L};
+        ByteBuffer buffer = ByteBuffer.allocate(values.length * OrderCodec.MAX_VARINT_SIZE);
+        for (long value : values) {
+            OrderCodec.putVarint(buffer, value);
+        }
+        buffer.flip();
+        for (long value : values) {
+            assertEquals(value, OrderCodec.getVarint(buffer));
+        }
+    }
+
+    @Test
+    public void validRawOrderIsAccepted() {
+        Order decoded = OrderCodec.decode(rawOrder(3, BUILD_YOUR_OWN_CODE, Toppings.maskOf(Topping.HAM), 1000));
+
+        assertEquals(3, decoded.getNumber());
+        assertEquals(1000, decoded.getSubtotalCents());
+    }
+
+    @Test
+    public void orderNumberOutOfRangeIsRejected() {
+        assertRejected(rawOrder(Integer.MAX_VALUE + 1L, BUILD_YOUR_OWN_CODE, 0, 1000));
+    }
+
+    @Test
+    public void unknownCrustIsRejected() {
+        assertRejected(rawOrder(1, BUILD_YOUR_OWN_CODE | 7 << 2, 0, 1000));
+    }
+
+    @Test
+    public void unknownSizeIsRejected() {
+        assertRejected(rawOrder(1, BUILD_YOUR_OWN_CODE | 3, 0, 1000));
+    }
+
+    @Test
+    public void unknownToppingIsRejected() {
+        assertRejected(rawOrder(1, BUILD_YOUR_OWN_CODE, Toppings.ALL + 1, 1000));
+    }
+
+    @Test
+    public void tooManyToppingsAreRejected() {
+        int eight = (1 << (Toppings.MAX_TOPPINGS + 1)) - 1;
+        assertRejected(rawOrder(1, BUILD_YOUR_OWN_CODE, eight, 1000));
+    }
+
+    @Test
+    public void negativePriceIsRejected() {
+        assertRejected(rawOrder(1, BUILD_YOUR_OWN_CODE, 0, -1L));
+    }
+
+    @Test
+    public void pizzaCountLargerThanTheDataIsRejected() {
+        ByteBuffer buffer = ByteBuffer.allocate(16);
+        OrderCodec.putVarint(buffer, 1);
+        OrderCodec.putVarint(buffer, 1_000_000);
+        buffer.flip();
+
+        assertRejected(buffer);
+    }
+
+    @Test(expected = BufferUnderflowException.class)
+    public void truncatedOrderIsRejected() {
+        Order order = new Order(9);
+        order.addPizza(Pizza.of(PizzaKind.MEATZZA, Style.CHICAGO, Crust.STUFFED, Size.LARGE, 0));
+        order.addPizza(Pizza.of(PizzaKind.MEATZZA, Style.CHICAGO, Crust.STUFFED, Size.LARGE, 0));
+        ByteBuffer buffer = encode(order);
+        buffer.limit(buffer.limit() - 2);
+
+        OrderCodec.decode(buffer);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void buildYourOwnWithTooManyToppingsCannotBeCreated() {
+        Pizza.of(PizzaKind.BUILD_YOUR_OWN, Style.NY, Crust.THIN, Size.SMALL, (1 << (Toppings.MAX_TOPPINGS + 1)) - 1);
+    }
+}
@@ -0,0 +1,206 @@
+package p5;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import org.junit.After;
+import org.junit.Test;
+
+/**
+ * Tests how the {@link OrderEventBus} queues, drops, and delivers events to a subscriber that
+ * falls behind, under each {@link OrderEventBus.Backpressure} policy.
+ * @author Siddharth, Ibtesaam
+ */
+public class OrderEventBusTest {
+
+    /** Number of events each test subscription can queue. */
+    private static final int CAPACITY = 2;
+
+    /** Longest time to wait for a delivery or a thread, in milliseconds. */
+    private static final long TIMEOUT_MILLIS = 2000L;
+
+    /** The bus under test. */
+    private final OrderEventBus bus = OrderEventBus.getInstance();
+
+    /** Sequence numbers of the events delivered to the subscriber, in delivery order. */
+    private final BlockingQueue<Long> delivered = new LinkedBlockingQueue<>();
+
+    /** Counted down when the subscriber starts handling the first event. */
+    private final CountDownLatch entered = new CountDownLatch(1);
+
+    /** Holds the subscriber inside the first event until counted down. */
+    private final CountDownLatch release = new CountDownLatch(1);
+
+    /** The subscription under test. */
+    private OrderEventBus.Subscription subscription;
+
+    /**
+     * Closes the subscription and lets its delivery thread finish.
+     */
+    @After
+    public void tearDown() {
+        release.countDown();
+        if (subscription != null) {
+            subscription.close();
+        }
+    }
+
+    /**
+     * Subscribes a listener that records every event and stays inside the first one until
+     * {@link #release} is counted down, so later events pile up in its queue.
+     *
+     * @param backpressure The policy for a full queue.
+     */
+    private void subscribeSlowListener(OrderEventBus.Backpressure backpressure) {
+        subscription = bus.subscribe("test", CAPACITY, backpressure, event -> {
+            if (entered.getCount() > 0) {
+                entered.countDown();
+                awaitUninterruptibly(release);
+            }
+            delivered.add(event.getSequence());
+        });
+    }
+
+    /**
+     * Publishes an event with a given sequence number.
+     *
+     * @param sequence The sequence number.
+     */
+    private void publish(long sequence) {
+        bus.publish(new OrderEvent(OrderEvent.Type.ORDER_CREATED, sequence, "test", new Order(1), null));
+    }
+
+    /**
+     * Publishes the first event and waits until the subscriber is busy with it, so the queue
+     * is empty and every later event is queued.
+     *
+     * @throws InterruptedException If interrupted while waiting.
+     */
+    private void publishFirstAndStall() throws InterruptedException {
+        publish(1L);
+        assertTrue(entered.await(TIMEOUT_MILLIS, TimeUnit.MILLISECONDS));
+    }
+
+    /**
+     * Starts a thread that publishes one event.
+     *
+     * @param sequence The sequence number of the event.
+     * @return The started thread.
+     */
+    private Thread publishInBackground(long sequence) {
+        Thread publisher = new Thread(() -> publish(sequence));
+        publisher.start();
+        return publisher;
+    }
+
+    /**
+     * Checks the sequence numbers of the next events delivered, waiting for each.
+     *
+     * @param expected The expected sequence numbers, in order.
+     * @throws InterruptedException If interrupted while waiting.
+     */
+    private void assertDelivered(long... expected) throws InterruptedException {
+        for (long sequence : expected) {
+            assertEquals(Long.valueOf(sequence), delivered.poll(TIMEOUT_MILLIS, TimeUnit.MILLISECONDS));
+        }
+    }
+
+    /**
+     * Waits for a latch, ignoring interrupts, as a subscriber that cannot be hurried would.
+     *
+     * @param latch The latch.
+     */
+    private static void awaitUninterruptibly(CountDownLatch latch) {
+        while (true) {
+            try {
+                latch.await();
+                return;
+            } catch (InterruptedException e) {
+                // Keep waiting
+            }
+        }
+    }
+
+    @Test
+    public void dropOldestKeepsTheLatestEvents() throws InterruptedException {
+        subscribeSlowListener(OrderEventBus.Backpressure.DROP_OLDEST);
+        publishFirstAndStall();
+        publish(2L);
+        publish(3L);
+        publish(4L);
+        assertEquals(CAPACITY, subscription.getQueuedCount());
+        assertEquals(1L, subscription.getDroppedCount());
+        release.countDown();
+        assertDelivered(1L, 3L, 4L);
+        assertNull(delivered.poll(100L, TimeUnit.MILLISECONDS));
+    }
+
+    @Test
+    public void dropNewestKeepsTheQueuedEvents() throws InterruptedException {
+        subscribeSlowListener(OrderEventBus.Backpressure.DROP_NEWEST);
+        publishFirstAndStall();
+        publish(2L);
+        publish(3L);
+        publish(4L);
+        assertEquals(CAPACITY, subscription.getQueuedCount());
+        assertEquals(1L, subscription.getDroppedCount());
+        release.countDown();
+        assertDelivered(1L, 2L, 3L);
+        assertNull(delivered.poll(100L, TimeUnit.MILLISECONDS));
+    }
+
+    @Test
+    public void blockMakesThePublisherWaitAndDropsNothing() throws InterruptedException {
+        subscribeSlowListener(OrderEventBus.Backpressure.BLOCK);
+        publishFirstAndStall();
+        publish(2L);
+        publish(3L);
+        Thread publisher = publishInBackground(4L);
+        publisher.join(300L);
+        assertTrue("Publisher should wait for room", publisher.isAlive());
+        assertEquals(CAPACITY, subscription.getQueuedCount());
+        release.countDown();
+        publisher.join(TIMEOUT_MILLIS);
+        assertFalse(publisher.isAlive());
+        assertDelivered(1L, 2L, 3L, 4L);
+        assertEquals(0L, subscription.getDroppedCount());
+    }
+
+    @Test
+    public void closingReleasesABlockedPublisher() throws InterruptedException {
+        subscribeSlowListener(OrderEventBus.Backpressure.BLOCK);
+        publishFirstAndStall();
+        publish(2L);
+        publish(3L);
+        Thread publisher = publishInBackground(4L);
+        publisher.join(300L);
+        assertTrue("Publisher should wait for room", publisher.isAlive());
+        subscription.close();
+        publisher.join(TIMEOUT_MILLIS);
+        assertFalse("Publisher should be released by close()", publisher.isAlive());
+        assertTrue(subscription.isClosed());
+        assertFalse(bus.hasSubscribers());
+    }
+
+    @Test
+    public void throwingListenerIsCountedAndKeepsReceivingEvents() throws InterruptedException {
+        subscription = bus.subscribe("test", CAPACITY, OrderEventBus.Backpressure.BLOCK, event -> {
+            if (event.getSequence() == 1L) {
+                throw new IllegalStateException("Subscriber failure");
+            }
+            delivered.add(event.getSequence());
+        });
+        publish(1L);
+        publish(2L);
+        publish(3L);
+        assertDelivered(2L, 3L);
+        assertEquals(1L, subscription.getFailedCount());
+        assertEquals(0L, subscription.getDroppedCount());
+    }
+}
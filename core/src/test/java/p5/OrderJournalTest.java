@@ -0,0 +1,269 @@
+package p5;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import static p5.OrderRepositoryTest.order;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/**
+ * Tests that the {@link OrderJournal} replays what was logged, discards only a torn final record,
+ * and refuses to open a journal damaged anywhere else.
+ * @author Siddharth, Ibtesaam
+ */
+public class OrderJournalTest {
+
+    /** Directory holding the journal of each test. */
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    /**
+     * Replayer writing each change down as {@code +number} or {@code -number}.
+     */
+    private static final class Recorder implements OrderJournal.Replayer {
+
+        /** The changes replayed so far. */
+        final List<String> changes = new ArrayList<>();
+
+        /** The subtotals of the orders replayed so far. */
+        final List<Long> subtotals = new ArrayList<>();
+
+        @Override
+        public void orderAdded(Order order) {
+            changes.add("+" + order.getNumber());
+            subtotals.add(order.getSubtotalCents());
+        }
+
+        @Override
+        public void orderRemoved(int number) {
+            changes.add("-" + number);
+        }
+    }
+
+    /**
+     * Opens the journal in the test directory.
+     *
+     * @param recorder Receives the changes already in the journal.
+     * @return The open journal.
+     * @throws IOException If the journal cannot be opened.
+     */
+    private OrderJournal open(Recorder recorder) throws IOException {
+        return OrderJournal.open(folder.getRoot(), OrderJournal.Durability.SYNC, 0L, recorder);
+    }
+
+    /**
+     * Reopens the journal in the test directory and closes it again.
+     *
+     * @return The changes replayed.
+     * @throws IOException If the journal cannot be opened.
+     */
+    private List<String> replay() throws IOException {
+        Recorder recorder = new Recorder();
+        open(recorder).close();
+        return recorder.changes;
+    }
+
+    /**
+     * Gets the file of a journal segment in the test directory.
+     *
+     * @param sequence The segment sequence number.
+     * @return The segment file.
+     */
+    private File segment(long sequence) {
+        return new File(folder.getRoot(), String.format("journal-%019d.log", sequence));
+    }
+
+    /**
+     * Writes two placed orders to a new journal.
+     *
+     * @throws IOException If the journal cannot be written.
+     */
+    private void logTwoOrders() throws IOException {
+        OrderJournal journal = open(new Recorder());
+        journal.logAdd(order(1));
+        journal.logAdd(order(2, Topping.HAM));
+        journal.close();
+    }
+
+    /**
+     * Changes one byte of a file.
+     *
+     * @param file     The file.
+     * @param position The position of the byte, counted back from the end if negative.
+     * @throws IOException If the file cannot be changed.
+     */
+    private static void flipByte(File file, long position) throws IOException {
+        try (RandomAccessFile raf = new RandomAccessFile(file, "rw")) {
+            raf.seek(position < 0 ? raf.length() + position : position);
+            int value = raf.read();
+            raf.seek(raf.getFilePointer() - 1);
+            raf.write(value ^ 0xFF);
+        }
+    }
+
+    /**
+     * Appends bytes to a file.
+     *
+     * @param file  The file.
+     * @param bytes The bytes to append.
+     * @throws IOException If the file cannot be changed.
+     */
+    private static void append(File file, byte[] bytes) throws IOException {
+        try (RandomAccessFile raf = new RandomAccessFile(file, "rw")) {
+            raf.seek(raf.length());
+            raf.write(bytes);
+        }
+    }
+
+    /**
+     * Checks that opening the journal fails because it is damaged.
+     */
+    private void assertDamaged() {
+        try {
+            replay();
+            fail("A damaged journal was opened");
+        } catch (IOException expected) {
+            assertTrue(expected.getMessage(), expected.getMessage().contains("damaged"));
+        }
+    }
+
+    /**
+     * Creates an order with more pizzas than one journal record can hold.
+     *
+     * @param number The order number.
+     * @return The order.
+     */
+    static Order oversizedOrder(int number) {
+        Order order = new Order(number);
+        Pizza pizza = Pizza.of(PizzaKind.DELUXE, Style.NY, Crust.BROOKLYN, Size.SMALL, 0);
+        for (int i = 0; i <= (1 << 20) / OrderCodec.MAX_PIZZA_SIZE; i++) {
+            order.addPizza(pizza);
+        }
+        return order;
+    }
+
+    @Test
+    public void orderTooLargeToReplayIsNotWritten() throws IOException {
+        OrderJournal journal = open(new Recorder());
+        journal.logAdd(order(1));
+        try {
+            journal.logAdd(oversizedOrder(2));
+            fail("An order too large to replay was journaled");
+        } catch (IllegalArgumentException expected) {
+            // Rejected
+        }
+        try {
+            journal.logAdds(Arrays.asList(order(3), oversizedOrder(4)));
+            fail("A batch with an order too large to replay was journaled");
+        } catch (IllegalArgumentException expected) {
+            // Rejected
+        }
+        journal.logAdd(order(5)); // The journal is still usable
+        journal.close();
+
+        assertEquals(Arrays.asList("+1", "+5"), replay());
+    }
+
+    @Test
+    public void replaysEveryChangeInOrder() throws IOException {
+        Order kept = order(4, Topping.PINEAPPLE, Topping.HAM);
+        OrderJournal journal = open(new Recorder());
+        journal.logAdd(order(1));
+        journal.logAdds(Arrays.asList(order(2), order(3), kept));
+        journal.logRemove(1);
+        journal.logRemoves(Arrays.asList(order(2), order(3)));
+        journal.roll();
+        journal.logAdd(order(5));
+        journal.close();
+
+        Recorder recorder = new Recorder();
+        open(recorder).close();
+
+        assertEquals(Arrays.asList("+1", "+2", "+3", "+4", "-1", "-2", "-3", "+5"), recorder.changes);
+        assertEquals(Long.valueOf(kept.getSubtotalCents()), recorder.subtotals.get(3));
+    }
+
+    @Test
+    public void tornHeaderAtTheEndIsCutOff() throws IOException {
+        logTwoOrders();
+        long goodLength = segment(0).length();
+        append(segment(0), new byte[] {0, 0, 0, 9, 1});
+
+        assertEquals(Arrays.asList("+1", "+2"), replay());
+        assertEquals(goodLength, segment(0).length());
+    }
+
+    @Test
+    public void recordCutShortAtTheEndIsCutOffAndLoggingContinues() throws IOException {
+        logTwoOrders();
+        long goodLength = segment(0).length();
+        append(segment(0), new byte[] {0, 0, 0, 40, 1, 2, 3, 4, 1, 7});
+
+        OrderJournal journal = open(new Recorder());
+        journal.logAdd(order(3));
+        journal.close();
+
+        assertEquals(Arrays.asList("+1", "+2", "+3"), replay());
+        assertTrue(segment(0).length() > goodLength);
+    }
+
+    @Test
+    public void finalRecordWithABadChecksumIsCutOff() throws IOException {
+        logTwoOrders();
+        flipByte(segment(0), -1);
+
+        assertEquals(Arrays.asList("+1"), replay());
+    }
+
+    @Test
+    public void zerosAtTheEndAreCutOff() throws IOException {
+        logTwoOrders();
+        append(segment(0), new byte[64]);
+
+        assertEquals(Arrays.asList("+1", "+2"), replay());
+    }
+
+    @Test
+    public void badChecksumBeforeTheFinalRecordIsReported() throws IOException {
+        logTwoOrders();
+        flipByte(segment(0), 9); // Payload of the first record
+
+        assertDamaged();
+    }
+
+    @Test
+    public void sealedSegmentWithABadChecksumIsReported() throws IOException {
+        OrderJournal journal = open(new Recorder());
+        journal.logAdd(order(1));
+        journal.roll();
+        journal.logAdd(order(2));
+        journal.close();
+        flipByte(segment(0), -1); // The end of a sealed segment is never torn
+
+        assertDamaged();
+    }
+
+    @Test
+    public void sealedSegmentCutShortIsReported() throws IOException {
+        OrderJournal journal = open(new Recorder());
+        journal.logAdd(order(1));
+        journal.logAdd(order(2));
+        journal.roll();
+        journal.logAdd(order(3));
+        journal.close();
+        try (RandomAccessFile raf = new RandomAccessFile(segment(0), "rw")) {
+            raf.setLength(raf.length() - 2);
+        }
+
+        assertDamaged();
+    }
+}
@@ -0,0 +1,144 @@
+package p5;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/**
+ * Tests that the {@link OrderNumberAllocator} never repeats a number across restarts.
+ * @author Siddharth, Ibtesaam
+ */
+public class OrderNumberAllocatorTest {
+
+    /** Block size used by the tests, small enough to cross several blocks. */
+    private static final int BLOCK_SIZE = 10;
+
+    /** Directory holding the high-water mark file of each test. */
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    /**
+     * Hands out the given number of order numbers from an allocator and closes it, as a process
+     * would before it stops.
+     *
+     * @param file  The file holding the high-water mark.
+     * @param count The number of order numbers to hand out.
+     * @return The last number handed out.
+     * @throws IOException If the file cannot be opened.
+     */
+    private static int handOut(File file, int count) throws IOException {
+        OrderNumberAllocator allocator = OrderNumberAllocator.open(file, BLOCK_SIZE, 0L);
+        int last = -1;
+        for (int i = 0; i < count; i++) {
+            last = allocator.next();
+        }
+        allocator.close();
+        return last;
+    }
+
+    @Test
+    public void numbersAreHandedOutInOrder() throws IOException {
+        File file = new File(folder.getRoot(), "order-numbers");
+        OrderNumberAllocator allocator = OrderNumberAllocator.open(file, BLOCK_SIZE, 0L);
+        for (int i = 0; i < 3 * BLOCK_SIZE; i++) {
+            assertEquals(i, allocator.next());
+        }
+        allocator.close();
+    }
+
+    @Test
+    public void restartResumesAfterTheReservedBlock() throws IOException {
+        File file = new File(folder.getRoot(), "order-numbers");
+        assertEquals(2, handOut(file, 3));
+        OrderNumberAllocator restarted = OrderNumberAllocator.open(file, BLOCK_SIZE, 0L);
+        assertEquals(BLOCK_SIZE, restarted.next());
+        restarted.close();
+    }
+
+    @Test
+    public void restartAfterSeveralBlocksNeverRepeatsANumber() throws IOException {
+        File file = new File(folder.getRoot(), "order-numbers");
+        assertEquals(24, handOut(file, 25));
+        assertEquals(34, handOut(file, 5));
+        OrderNumberAllocator restarted = OrderNumberAllocator.open(file, BLOCK_SIZE, 0L);
+        assertEquals(40, restarted.next());
+        restarted.close();
+    }
+
+    @Test
+    public void tornWriteOfTheNextMarkKeepsThePreviousOne() throws IOException {
+        File file = new File(folder.getRoot(), "order-numbers");
+        handOut(file, BLOCK_SIZE); // Reserves one block, in the first slot
+        try (RandomAccessFile raf = new RandomAccessFile(file, "rw")) {
+            raf.seek(16L); // The second slot, as if a crash cut its write short
+            raf.write(new byte[] {0x7F, -1, -1, -1, 0, 0});
+        }
+        OrderNumberAllocator restarted = OrderNumberAllocator.open(file, BLOCK_SIZE, 0L);
+        assertEquals(BLOCK_SIZE, restarted.next());
+        restarted.close();
+    }
+
+    @Test
+    public void numbersStartAboveOnesAlreadyHandedOutInMemory() throws IOException {
+        File file = new File(folder.getRoot(), "order-numbers");
+        OrderNumberAllocator allocator = OrderNumberAllocator.open(file, BLOCK_SIZE, 57L);
+        assertEquals(57, allocator.next());
+        allocator.close();
+    }
+
+    @Test
+    public void advancingPastRestoredOrdersSurvivesRestart() throws IOException {
+        File file = new File(folder.getRoot(), "order-numbers");
+        OrderNumberAllocator allocator = OrderNumberAllocator.open(file, BLOCK_SIZE, 0L);
+        allocator.advancePast(99);
+        assertEquals(100, allocator.next());
+        allocator.close();
+        OrderNumberAllocator restarted = OrderNumberAllocator.open(file, BLOCK_SIZE, 0L);
+        assertEquals(110, restarted.next());
+        restarted.close();
+    }
+
+    @Test
+    public void takingOverFromTheInMemoryAllocatorNeverRepeatsANumber() throws Exception {
+        File file = new File(folder.getRoot(), "order-numbers");
+        OrderNumberAllocator memory = new OrderNumberAllocator(null, BLOCK_SIZE, 0L);
+        int threads = 4;
+        int perThread = 20_000;
+        int[][] numbers = new int[threads][perThread];
+        CountDownLatch started = new CountDownLatch(threads);
+        Thread[] workers = new Thread[threads];
+        for (int t = 0; t < threads; t++) {
+            int[] handedOut = numbers[t];
+            workers[t] = new Thread(() -> {
+                started.countDown();
+                for (int i = 0; i < perThread; i++) {
+                    handedOut[i] = memory.next(); // Keeps using the old allocator throughout
+                }
+            });
+            workers[t].start();
+        }
+        started.await();
+        OrderNumberAllocator persistent = OrderNumberAllocator.takeOver(memory, file, 1000);
+        int fromPersistent = persistent.next();
+        for (Thread worker : workers) {
+            worker.join();
+        }
+        Set<Integer> seen = new HashSet<>();
+        seen.add(fromPersistent);
+        for (int[] handedOut : numbers) {
+            for (int number : handedOut) {
+                assertTrue("Repeated order number " + number, seen.add(number));
+            }
+        }
+        persistent.close();
+    }
+}
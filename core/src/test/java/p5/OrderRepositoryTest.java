@@ -0,0 +1,111 @@
+package p5;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.List;
+import org.junit.Test;
+
+/**
+ * Tests the versioned snapshots of the {@link OrderRepository}, including orders that share a number.
+ * @author Siddharth, Ibtesaam
+ */
+public class OrderRepositoryTest {
+
+    /**
+     * Creates an order holding one Build Your Own pizza.
+     *
+     * @param number   The order number.
+     * @param toppings The toppings of the pizza.
+     * @return The order.
+     */
+    static Order order(int number, Topping... toppings) {
+        Order order = new Order(number);
+        order.addPizza(Pizza.of(PizzaKind.BUILD_YOUR_OWN, Style.NY, Crust.HAND_TOSSED, Size.MEDIUM,
+                Toppings.maskOf(toppings)));
+        return order;
+    }
+
+    @Test
+    public void snapshotIsUnaffectedByLaterChanges() {
+        OrderRepository repository = new OrderRepository();
+        Order first = order(1);
+        repository.add(first);
+        OrderSnapshot before = repository.snapshot();
+
+        repository.add(order(2));
+        repository.remove(1);
+
+        assertEquals(Arrays.asList(first), before);
+        assertEquals(1, repository.snapshot().size());
+        assertEquals(2, repository.snapshot().get(0).getNumber());
+        assertTrue(repository.snapshot().version() > before.version());
+    }
+
+    @Test
+    public void addingARepeatedNumberReplacesTheStoredOrder() {
+        OrderRepository repository = new OrderRepository();
+        Order first = order(7);
+        Order second = order(7, Topping.HAM);
+        repository.add(first);
+        OrderSnapshot before = repository.snapshot();
+
+        repository.add(second);
+
+        assertEquals(1, repository.size());
+        assertSame(second, repository.get(7));
+        assertEquals(Arrays.asList(second), repository.snapshot());
+        assertEquals(Arrays.asList(first), before);
+    }
+
+    @Test
+    public void batchWithARepeatedNumberKeepsTheLastOrder() {
+        OrderRepository repository = new OrderRepository();
+        Order first = order(3);
+        Order other = order(4);
+        Order last = order(3, Topping.OLIVE);
+
+        repository.addAll(Arrays.asList(first, other, last));
+
+        assertEquals(2, repository.size());
+        assertSame(last, repository.get(3));
+        assertEquals(Arrays.asList(other, last), repository.snapshot());
+    }
+
+    @Test
+    public void removingAReplacedOrderLeavesTheNewOne() {
+        OrderRepository repository = new OrderRepository();
+        Order first = order(5);
+        Order second = order(5, Topping.BEEF);
+        repository.add(first);
+        repository.add(second);
+
+        assertFalse(repository.remove(first));
+        assertSame(second, repository.get(5));
+        assertTrue(repository.remove(second));
+        assertNull(repository.get(5));
+        assertEquals(0, repository.snapshot().size());
+    }
+
+    @Test
+    public void removeIfPublishesOneVersion() {
+        OrderRepository repository = new OrderRepository();
+        for (int number = 0; number < 10; number++) {
+            repository.add(order(number));
+        }
+        long version = repository.snapshot().version();
+
+        List<Order> removed = repository.removeIf(order -> order.getNumber() % 2 == 0);
+
+        assertEquals(5, removed.size());
+        assertEquals(5, repository.size());
+        assertEquals(version + 1, repository.snapshot().version());
+        for (Order order : repository.snapshot()) {
+            assertEquals(1, order.getNumber() % 2);
+        }
+    }
+}
@@ -0,0 +1,155 @@
+package p5;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.fail;
+
+import java.util.Arrays;
+import org.junit.Test;
+
+/**
+ * Tests that an {@link Order}'s running subtotal always equals the sum of its pizza prices.
+ * @author Siddharth, Ibtesaam
+ */
+public class OrderTest {
+
+    /**
+     * Creates a Build Your Own pizza, whose price changes with its size and toppings.
+     *
+     * @return The pizza.
+     */
+    private static Pizza buildYourOwn() {
+        return Pizza.of(PizzaKind.BUILD_YOUR_OWN, Style.NY, Crust.HAND_TOSSED, Size.SMALL,
+                Toppings.maskOf(Topping.HAM));
+    }
+
+    /**
+     * Checks that an order's subtotal is the sum of the prices of its pizzas.
+     *
+     * @param order The order.
+     */
+    private static void assertSubtotalMatches(Order order) {
+        long sum = 0L;
+        for (Pizza pizza : order.getPizzas()) {
+            sum += pizza.priceCents();
+        }
+        assertEquals(sum, order.getSubtotalCents());
+    }
+
+    @Test
+    public void subtotalFollowsPriceChanges() {
+        Order order = new Order(1);
+        Pizza pizza = buildYourOwn();
+        order.addPizza(pizza);
+        order.addPizza(Pizza.of(PizzaKind.DELUXE, Style.NY, Crust.BROOKLYN, Size.LARGE, 0));
+
+        pizza.setSize(Size.LARGE);
+        pizza.addTopping(Topping.ONION);
+
+        assertSubtotalMatches(order);
+    }
+
+    @Test
+    public void pizzaCannotBeAddedTwiceToAnOrder() {
+        Order order = new Order(1);
+        Pizza pizza = buildYourOwn();
+        order.addPizza(pizza);
+
+        try {
+            order.addPizza(pizza);
+            fail("A pizza was added to its order twice");
+        } catch (IllegalArgumentException expected) {
+            // Rejected
+        }
+        pizza.setSize(Size.MEDIUM);
+
+        assertEquals(1, order.getPizzas().size());
+        assertSubtotalMatches(order);
+    }
+
+    @Test
+    public void pizzaCannotBeAddedToASecondOrder() {
+        Order first = new Order(1);
+        Order second = new Order(2);
+        Pizza pizza = buildYourOwn();
+        first.addPizza(pizza);
+
+        try {
+            second.addPizza(pizza);
+            fail("A pizza was added to a second order");
+        } catch (IllegalArgumentException expected) {
+            // Rejected
+        }
+        pizza.addTopping(Topping.PINEAPPLE);
+
+        assertEquals(0, second.getPizzas().size());
+        assertSubtotalMatches(first);
+        assertSubtotalMatches(second);
+    }
+
+    @Test
+    public void removedPizzaCanBeAddedToAnotherOrder() {
+        Order first = new Order(1);
+        Order second = new Order(2);
+        Pizza pizza = buildYourOwn();
+        first.addPizza(pizza);
+        first.removePizza(pizza);
+
+        second.addPizza(pizza);
+        pizza.setSize(Size.LARGE);
+
+        assertSame(second, pizza.getOrder());
+        assertSubtotalMatches(first);
+        assertSubtotalMatches(second);
+    }
+
+    @Test
+    public void batchAddsEveryPizzaInOrder() {
+        Order order = new Order(1);
+        Pizza first = buildYourOwn();
+        Pizza second = Pizza.of(PizzaKind.MEATZZA, Style.CHICAGO, Crust.STUFFED, Size.SMALL, 0);
+        Pizza third = buildYourOwn();
+        order.addPizza(buildYourOwn());
+
+        order.addPizzas(Arrays.asList(first, second, third));
+        third.setSize(Size.LARGE);
+
+        assertEquals(Arrays.asList(first, second, third), order.getPizzas().subList(1, 4));
+        assertSame(order, first.getOrder());
+        assertSubtotalMatches(order);
+    }
+
+    @Test
+    public void batchWithARepeatedPizzaAddsNothing() {
+        Order order = new Order(1);
+        Pizza repeated = buildYourOwn();
+        Pizza other = buildYourOwn();
+
+        try {
+            order.addPizzas(Arrays.asList(other, repeated, repeated));
+            fail("A batch with a repeated pizza was added");
+        } catch (IllegalArgumentException expected) {
+            // Rejected
+        }
+
+        assertEquals(0, order.getPizzas().size());
+        assertNull(other.getOrder());
+        assertNull(repeated.getOrder());
+        order.addPizzas(Arrays.asList(other, repeated));
+        assertSubtotalMatches(order);
+    }
+
+    @Test
+    public void sharedSpecialtyPizzaCanBeAddedToManyOrders() {
+        Pizza deluxe = Pizza.of(PizzaKind.DELUXE, Style.CHICAGO, Crust.DEEP_DISH, Size.MEDIUM, 0);
+        Order first = new Order(1);
+        Order second = new Order(2);
+
+        first.addPizzas(Arrays.asList(deluxe, deluxe));
+        second.addPizza(deluxe);
+
+        assertEquals(2 * deluxe.priceCents(), first.getSubtotalCents());
+        assertEquals(deluxe.priceCents(), second.getSubtotalCents());
+    }
+}
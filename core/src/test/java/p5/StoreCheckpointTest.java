@@ -0,0 +1,163 @@
+package p5;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import static p5.OrderRepositoryTest.order;
+import static p5.StoreOrdersManagerTest.assertAnalyticsMatch;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/**
+ * Tests that a {@link StoreCheckpoint} together with the journal written after it restores the
+ * store exactly.
+ * @author Siddharth, Ibtesaam
+ */
+public class StoreCheckpointTest {
+
+    /** Directory holding the checkpoints and journal of each test. */
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    /**
+     * Replayer collecting the orders of a checkpoint.
+     */
+    private static final class Collector implements OrderJournal.Replayer {
+
+        /** The orders loaded so far. */
+        final List<Order> orders = new ArrayList<>();
+
+        @Override
+        public void orderAdded(Order order) {
+            orders.add(order);
+        }
+
+        @Override
+        public void orderRemoved(int number) {
+            fail("A checkpoint held a removal");
+        }
+    }
+
+    /**
+     * Lists the numbers of the orders in a store, in the order they were placed.
+     *
+     * @param store The store.
+     * @return The order numbers.
+     */
+    private static List<Integer> numbers(StoreOrdersManager store) {
+        List<Integer> numbers = new ArrayList<>();
+        for (Order order : store.getStoreOrders()) {
+            numbers.add(order.getNumber());
+        }
+        return numbers;
+    }
+
+    /**
+     * Finds the files in the test directory with a name prefix.
+     *
+     * @param prefix The name prefix.
+     * @return The files.
+     */
+    private File[] files(String prefix) {
+        return folder.getRoot().listFiles((directory, name) -> name.startsWith(prefix));
+    }
+
+    /**
+     * Opens a store on the test directory, as a restarted process would.
+     *
+     * @return The recovered store.
+     * @throws IOException If the checkpoint or journal cannot be read.
+     */
+    private StoreOrdersManager recover() throws IOException {
+        StoreOrdersManager store = new StoreOrdersManager();
+        store.openJournal(folder.getRoot(), OrderJournal.Durability.SYNC);
+        return store;
+    }
+
+    @Test
+    public void checkpointRoundTripsAtRecordedPrices() throws IOException {
+        OrderRepository repository = new OrderRepository();
+        Order repriced = new Order(2);
+        repriced.addPizza(Pizza.restore(PizzaKind.MEATZZA, Style.NY, Crust.PAN, Size.SMALL, 0, 1));
+        repository.add(order(1, Topping.HAM));
+        repository.add(repriced);
+        StoreCheckpoint.write(folder.getRoot(), 3L, repository.snapshot());
+
+        Collector collector = new Collector();
+        long segment = StoreCheckpoint.load(folder.getRoot(), collector);
+
+        assertEquals(3L, segment);
+        assertEquals(2, collector.orders.size());
+        assertEquals(repository.get(1).getSubtotalCents(), collector.orders.get(0).getSubtotalCents());
+        assertEquals(1, collector.orders.get(1).getSubtotalCents());
+    }
+
+    @Test
+    public void emptyDirectoryHasNoCheckpoint() throws IOException {
+        assertEquals(0L, StoreCheckpoint.load(folder.getRoot(), new Collector()));
+    }
+
+    @Test
+    public void corruptCheckpointIsReported() throws IOException {
+        OrderRepository repository = new OrderRepository();
+        repository.add(order(1));
+        StoreCheckpoint.write(folder.getRoot(), 1L, repository.snapshot());
+        try (RandomAccessFile raf = new RandomAccessFile(files("checkpoint-")[0], "rw")) {
+            raf.seek(raf.length() - 6);
+            raf.write(0x55);
+        }
+
+        try {
+            StoreCheckpoint.load(folder.getRoot(), new Collector());
+            fail("A corrupt checkpoint was loaded");
+        } catch (IOException expected) {
+            // Reported
+        }
+    }
+
+    @Test
+    public void checkpointAndLaterJournalRestoreTheStore() throws IOException {
+        StoreOrdersManager store = recover();
+        for (int number = 1; number <= 5; number++) {
+            store.addOrder(order(number, Toppings.valueOf(number)));
+        }
+        store.checkpoint();
+        store.removeOrder(2);
+        store.addOrders(Arrays.asList(order(6), order(7, Topping.ONION)));
+        store.removeOrders(order -> order.getNumber() == 4);
+
+        StoreOrdersManager recovered = recover();
+
+        assertEquals(Arrays.asList(1, 3, 5, 6, 7), numbers(recovered));
+        assertEquals(store.getAnalytics().getSubtotalCents(), recovered.getAnalytics().getSubtotalCents());
+        assertAnalyticsMatch(recovered);
+        assertEquals(1, files("checkpoint-").length);
+        assertEquals(1, files("journal-").length); // The segment the checkpoint covers is deleted
+        assertTrue(new Order().getNumber() > 7);
+    }
+
+    @Test
+    public void checkpointsSupersedeEachOther() throws IOException {
+        StoreOrdersManager store = recover();
+        store.addOrder(order(10));
+        store.checkpoint();
+        store.addOrder(order(11));
+        store.removeOrder(10);
+        store.checkpoint();
+        store.addOrder(order(12));
+
+        StoreOrdersManager recovered = recover();
+
+        assertEquals(Arrays.asList(11, 12), numbers(recovered));
+        assertAnalyticsMatch(recovered);
+        assertEquals(1, files("checkpoint-").length);
+    }
+}
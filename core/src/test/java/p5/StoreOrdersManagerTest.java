@@ -0,0 +1,240 @@
+package p5;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import static p5.OrderRepositoryTest.order;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/**
+ * Tests that the {@link StoreOrdersManager} keeps order numbers unique and its
+ * {@link SalesAnalytics} in step with the orders it holds.
+ * @author Siddharth, Ibtesaam
+ */
+public class StoreOrdersManagerTest {
+
+    /** Directory holding the journal of each test. */
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    /**
+     * Checks that the analytics of a store add up to exactly the orders in it.
+     *
+     * @param store The store.
+     */
+    static void assertAnalyticsMatch(StoreOrdersManager store) {
+        long subtotal = 0L;
+        long pizzas = 0L;
+        for (Order order : store.getStoreOrders()) {
+            subtotal += order.getSubtotalCents();
+            pizzas += order.getPizzas().size();
+        }
+        SalesAnalytics analytics = store.getAnalytics();
+        assertEquals(store.getOrderCount(), analytics.getOrderCount());
+        assertEquals(pizzas, analytics.getPizzaCount());
+        assertEquals(subtotal, analytics.getSubtotalCents());
+    }
+
+    /**
+     * Lists the numbers of some orders.
+     *
+     * @param orders The orders.
+     * @return The order numbers, in the same order.
+     */
+    static List<Integer> numbers(List<Order> orders) {
+        List<Integer> numbers = new ArrayList<>();
+        for (Order order : orders) {
+            numbers.add(order.getNumber());
+        }
+        return numbers;
+    }
+
+    @Test
+    public void orderWithAStoredNumberIsRejected() {
+        StoreOrdersManager store = new StoreOrdersManager();
+        Order first = order(1);
+        Order duplicate = order(1, Topping.HAM, Topping.OLIVE);
+        store.addOrder(first);
+
+        try {
+            store.addOrder(duplicate);
+            fail("An order with a stored number was placed");
+        } catch (IllegalStateException expected) {
+            // Rejected
+        }
+
+        assertSame(first, store.getOrder(1));
+        assertFalse(duplicate.isPlaced());
+        assertAnalyticsMatch(store);
+    }
+
+    @Test
+    public void placingTheSameOrderTwiceLeavesItPlaced() {
+        StoreOrdersManager store = new StoreOrdersManager();
+        Order order = order(2);
+        store.addOrder(order);
+
+        try {
+            store.addOrder(order);
+            fail("An order was placed twice");
+        } catch (IllegalStateException expected) {
+            // Rejected
+        }
+
+        assertTrue(order.isPlaced());
+        assertEquals(1, store.getOrderCount());
+        assertAnalyticsMatch(store);
+    }
+
+    @Test
+    public void batchWithARepeatedNumberPlacesNothing() {
+        StoreOrdersManager store = new StoreOrdersManager();
+        Order first = order(5);
+        Order other = order(6);
+        Order repeated = order(5, Topping.SPINACH);
+
+        try {
+            store.addOrders(Arrays.asList(first, other, repeated));
+            fail("A batch with a repeated number was placed");
+        } catch (IllegalStateException expected) {
+            // Rejected
+        }
+
+        assertEquals(0, store.getOrderCount());
+        assertFalse(first.isPlaced());
+        assertFalse(other.isPlaced());
+        assertAnalyticsMatch(store);
+
+        // The numbers claimed by the failed batch are free again
+        store.addOrders(Arrays.asList(first, other));
+        assertEquals(2, store.getOrderCount());
+        assertAnalyticsMatch(store);
+    }
+
+    @Test
+    public void removingAnOrderNotInTheStoreChangesNothing() {
+        StoreOrdersManager store = new StoreOrdersManager();
+        Order stored = order(8);
+        store.addOrder(stored);
+
+        store.removeOrder(order(8));
+
+        assertSame(stored, store.getOrder(8));
+        assertAnalyticsMatch(store);
+    }
+
+    @Test
+    public void analyticsFollowPlacementsAndRemovals() {
+        StoreOrdersManager store = new StoreOrdersManager();
+        for (int number = 10; number < 20; number++) {
+            store.addOrder(order(number, Toppings.valueOf(number % Topping.values().length)));
+        }
+        store.removeOrder(12);
+        store.removeOrders(15, 18);
+        assertNull(store.removeOrder(12));
+
+        assertEquals(6, store.getOrderCount());
+        assertAnalyticsMatch(store);
+    }
+
+    @Test
+    public void orderTooLargeToJournalStaysUnplaced() throws IOException {
+        StoreOrdersManager store = new StoreOrdersManager();
+        store.openJournal(folder.getRoot(), OrderJournal.Durability.SYNC);
+        Order oversized = OrderJournalTest.oversizedOrder(1);
+        Order small = order(2);
+
+        try {
+            store.addOrder(oversized);
+            fail("An order too large to journal was placed");
+        } catch (IllegalArgumentException expected) {
+            // Rejected
+        }
+        try {
+            store.addOrders(Arrays.asList(small, oversized));
+            fail("A batch with an order too large to journal was placed");
+        } catch (IllegalArgumentException expected) {
+            // Rejected
+        }
+
+        assertFalse(oversized.isPlaced());
+        assertFalse(small.isPlaced());
+        assertEquals(0, store.getOrderCount());
+        assertAnalyticsMatch(store);
+        store.addOrder(small);
+        StoreOrdersManager reopened = new StoreOrdersManager();
+        reopened.openJournal(folder.getRoot(), OrderJournal.Durability.SYNC);
+        assertEquals(1, reopened.getOrderCount());
+    }
+
+    @Test
+    public void batchIsPlacedAndJournaled() throws IOException {
+        StoreOrdersManager store = new StoreOrdersManager();
+        store.openJournal(folder.getRoot(), OrderJournal.Durability.SYNC);
+        Order first = order(21);
+        Order second = order(22, Topping.MUSHROOM);
+        Order third = order(23, Topping.BEEF, Topping.HAM);
+
+        store.addOrders(Arrays.asList(first, second, third));
+
+        assertTrue(first.isPlaced() && second.isPlaced() && third.isPlaced());
+        assertEquals(Arrays.asList(first, second, third), store.getStoreOrders());
+        assertAnalyticsMatch(store);
+        StoreOrdersManager reopened = new StoreOrdersManager();
+        reopened.openJournal(folder.getRoot(), OrderJournal.Durability.SYNC);
+        assertEquals(3, reopened.getOrderCount());
+        assertEquals(third.getSubtotalCents(), reopened.getOrder(23).getSubtotalCents());
+    }
+
+    @Test
+    public void bulkRemovalsAreAppliedAndJournaled() throws IOException {
+        StoreOrdersManager store = new StoreOrdersManager();
+        store.openJournal(folder.getRoot(), OrderJournal.Durability.SYNC);
+        for (int number = 30; number < 40; number++) {
+            store.addOrder(order(number));
+        }
+
+        List<Order> range = store.removeOrders(32, 35);
+        List<Order> odd = store.removeOrders(order -> order.getNumber() % 2 == 1);
+
+        assertEquals(Arrays.asList(32, 33, 34), numbers(range));
+        assertEquals(Arrays.asList(31, 35, 37, 39), numbers(odd));
+        assertEquals(Arrays.asList(30, 36, 38), numbers(store.getStoreOrders()));
+        assertTrue(store.removeOrders(order -> false).isEmpty());
+        assertAnalyticsMatch(store);
+        StoreOrdersManager reopened = new StoreOrdersManager();
+        reopened.openJournal(folder.getRoot(), OrderJournal.Durability.SYNC);
+        assertEquals(Arrays.asList(30, 36, 38), numbers(reopened.getStoreOrders()));
+        assertAnalyticsMatch(reopened);
+    }
+
+    @Test
+    public void replayingARepeatedNumberKeepsAnalyticsConsistent() throws IOException {
+        File directory = folder.getRoot();
+        Order first = order(3);
+        Order second = order(3, Topping.BBQ_CHICKEN, Topping.CHEDDAR);
+        // A journal written before numbers were checked can hold the same number twice
+        OrderJournal journal = OrderJournal.open(directory, OrderJournal.Durability.SYNC, 0L, null);
+        journal.logAdd(first);
+        journal.logAdd(second);
+        journal.close();
+
+        StoreOrdersManager store = new StoreOrdersManager();
+        store.openJournal(directory, OrderJournal.Durability.SYNC);
+
+        assertEquals(1, store.getOrderCount());
+        assertEquals(second.getSubtotalCents(), store.getOrder(3).getSubtotalCents());
+        assertAnalyticsMatch(store);
+    }
+}
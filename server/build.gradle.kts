@@ -0,0 +1,17 @@
+plugins {
+    application
+}
+
+// Embedded HTTP intake for online and kiosk orders, built on the JDK's own HTTP server.
+// Run it with ./gradlew :server:run --args="--port=8080 --journal=build/orders"
+tasks.withType<JavaCompile>().configureEach {
+    options.release.set(11)
+}
+
+dependencies {
+    implementation(project(":core"))
+}
+
+application {
+    mainClass.set("p5.server.OrderServer")
+}
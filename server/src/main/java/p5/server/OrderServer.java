@@ -0,0 +1,542 @@
+package p5.server;
+
+import com.sun.net.httpserver.Headers;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.net.InetSocketAddress;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.LongSupplier;
+
+import p5.BakeProfile;
+import p5.Metrics;
+import p5.Money;
+import p5.Order;
+import p5.OrderCodec;
+import p5.OrderExporter;
+import p5.OrderJournal;
+import p5.OrderNumberAllocator;
+import p5.OvenScheduler;
+import p5.StoreOrdersManager;
+
+/**
+ * Embedded HTTP endpoint that lets online and kiosk orders into the same
+ * {@link StoreOrdersManager} as the orders taken on the tablet. Built on the JDK's
+ * {@link HttpServer}, so it needs no dependencies; connections are kept alive between
+ * requests, and each request runs on its own virtual thread when the JVM has them
+ * (Java 21 and later) or on a pooled platform thread otherwise.
+ * <p>
+ * Endpoints:
+ * <ul>
+ *     <li>{@code POST /orders} places an order. The body is an order in the
+ *         {@link OrderCodec} encoding, sent as {@value #ORDER_CONTENT_TYPE}; its order number is
+ *         ignored and a new one is allocated. Answers {@code 201} with the placed order's number
+ *         and total as JSON.</li>
+ *     <li>{@code GET /orders} lists every store order as a JSON array in the
+ *         {@link OrderExporter} order format.</li>
+ *     <li>{@code GET /orders/{number}} gets one order, as a one-element array in the same format.</li>
+ *     <li>{@code DELETE /orders/{number}} removes an order; answers {@code 200} with its number,
+ *         or {@code 404} if there is no such order.</li>
+ *     <li>{@code GET /metrics} gets the {@link Metrics} in the Prometheus text format.</li>
+ * </ul>
+ * @author Siddharth, Ibtesaam
+ */
+public final class OrderServer {
+
+    /** Content type of an encoded order in a request body. */
+    public static final String ORDER_CONTENT_TYPE = "application/x-p5-order";
+
+    /** Path of the orders resource. */
+    private static final String ORDERS_PATH = "/orders";
+
+    /** Path of the metrics endpoint. */
+    private static final String METRICS_PATH = "/metrics";
+
+    /** Content type of the JSON responses. */
+    private static final String JSON_CONTENT_TYPE = "application/json; charset=utf-8";
+
+    /** Content type of the metrics, as expected by Prometheus. */
+    private static final String METRICS_CONTENT_TYPE = "text/plain; version=0.0.4; charset=utf-8";
+
+    /** Largest request body accepted; far more than any real order takes. */
+    private static final int MAX_BODY_SIZE = 64 * 1024;
+
+    /** Response length telling the server to send the body in chunks. */
+    private static final long CHUNKED = 0L;
+
+    static {
+        // Without TCP_NODELAY each small response waits for the client's delayed ACK, about
+        // 40 ms, which caps a kept-alive connection at a few dozen requests per second
+        if (System.getProperty("sun.net.httpserver.nodelay") == null) {
+            System.setProperty("sun.net.httpserver.nodelay", "true");
+        }
+    }
+
+    /** The store orders are placed in. */
+    private final StoreOrdersManager store;
+
+    /** Writes order listings. */
+    private final OrderExporter exporter = new OrderExporter(OrderExporter.Format.JSON, OrderExporter.Rows.ORDERS, false);
+
+    /** The underlying HTTP server. */
+    private final HttpServer server;
+
+    /** Runs the request handlers. */
+    private final ExecutorService executor;
+
+    /** Whether the handlers run on virtual threads. */
+    private final boolean virtualThreads;
+
+    /**
+     * Creates a server bound to an address. Call {@link #start()} to accept requests.
+     *
+     * @param address The address to listen on; port 0 picks a free port.
+     * @param backlog The number of connections the operating system queues while all handlers
+     *                are busy, or 0 for the system default.
+     * @param store   The store orders are placed in.
+     * @throws IOException If the address cannot be bound.
+     */
+    public OrderServer(InetSocketAddress address, int backlog, StoreOrdersManager store) throws IOException {
+        this.store = store;
+        ExecutorService virtual = newVirtualThreadExecutor();
+        this.virtualThreads = virtual != null;
+        this.executor = virtual != null ? virtual : newPlatformThreadExecutor();
+        this.server = HttpServer.create(address, backlog);
+        server.createContext(ORDERS_PATH, this::handleOrders);
+        server.createContext(METRICS_PATH, this::handleMetrics);
+        server.setExecutor(executor);
+    }
+
+    /**
+     * Runs the server until the process is stopped.
+     * <p>
+     * Options, all of the form {@code --name=value}:
+     * <ul>
+     *     <li>{@code port} port to listen on (default 8080),</li>
+     *     <li>{@code backlog} connections queued by the operating system (default 1024),</li>
+     *     <li>{@code journal} directory to journal orders to, which also keeps the order number
+     *         high-water mark; orders stay in memory if not given,</li>
+     *     <li>{@code durability} journal durability mode (default GROUP),</li>
+     *     <li>{@code ovens} number of ovens to schedule placed orders into, printing each pizza as
+     *         it goes in; no scheduling if not given.</li>
+     * </ul>
+     *
+     * @param args Options of the form {@code --name=value}.
+     * @throws IOException If the journal cannot be opened or the port cannot be bound.
+     */
+    public static void main(String[] args) throws IOException {
+        int port = 8080;
+        int backlog = 1024;
+        File journal = null;
+        OrderJournal.Durability durability = OrderJournal.Durability.GROUP;
+        int ovens = 0;
+        for (String arg : args) {
+            int equals = arg.indexOf('=');
+            if (!arg.startsWith("--") || equals < 0) {
+                throw new IllegalArgumentException("Expected --name=value, got " + arg);
+            }
+            String name = arg.substring(2, equals);
+            String value = arg.substring(equals + 1);
+            switch (name) {
+                case "port":
+                    port = Integer.parseInt(value);
+                    break;
+                case "backlog":
+                    backlog = Integer.parseInt(value);
+                    break;
+                case "journal":
+                    journal = new File(value);
+                    break;
+                case "durability":
+                    durability = OrderJournal.Durability.valueOf(value.toUpperCase(Locale.ROOT));
+                    break;
+                case "ovens":
+                    ovens = Integer.parseInt(value);
+                    break;
+                default:
+                    throw new IllegalArgumentException("Unknown option --" + name);
+            }
+        }
+        StoreOrdersManager store = StoreOrdersManager.getInstance();
+        if (journal != null) {
+            // Opening the journal creates the directory the order numbers are kept in
+            store.openJournal(journal, durability);
+            OrderNumberAllocator.persistTo(new File(journal, "order-numbers"), OrderNumberAllocator.DEFAULT_BLOCK_SIZE);
+            store.scheduleCheckpoints(5, TimeUnit.MINUTES);
+        }
+        if (ovens > 0) {
+            scheduleOvens(ovens);
+        }
+        OrderServer server = new OrderServer(new InetSocketAddress(port), backlog, store);
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> server.stop(1), "order-server-shutdown"));
+        server.start();
+        System.out.printf(Locale.ROOT, "Listening on port %d with %s threads, %d orders in the store%n",
+                server.getPort(), server.usesVirtualThreads() ? "virtual" : "platform", store.getOrderCount());
+    }
+
+    /**
+     * Schedules every order placed from now on into the store's ovens, printing each pizza as it
+     * goes in. Time is counted in seconds from this call; a background thread dispatches waiting
+     * pizzas every second as ovens become free.
+     *
+     * @param ovens The number of ovens.
+     */
+    private static void scheduleOvens(int ovens) {
+        OvenScheduler scheduler = new OvenScheduler(ovens, BakeProfile.standard(), OvenScheduler.Policy.FIFO);
+        long epoch = System.nanoTime();
+        LongSupplier clock = () -> TimeUnit.NANOSECONDS.toSeconds(System.nanoTime() - epoch);
+        scheduler.followPlacedOrders(clock, OrderServer::printAssignments);
+        ScheduledExecutorService ticker = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "oven-dispatch");
+            thread.setDaemon(true);
+            return thread;
+        });
+        ticker.scheduleAtFixedRate(() -> printAssignments(scheduler.dispatch(clock.getAsLong())),
+                1, 1, TimeUnit.SECONDS);
+    }
+
+    /**
+     * Prints the pizzas just put in an oven.
+     *
+     * @param assignments The pizzas.
+     */
+    private static void printAssignments(List<OvenScheduler.Assignment> assignments) {
+        for (OvenScheduler.Assignment assignment : assignments) {
+            System.out.printf(Locale.ROOT, "Oven %d: order %d, %s, out in %d min%n", assignment.getOven() + 1,
+                    assignment.getOrder().getNumber(), assignment.getPizza(),
+                    (assignment.getEnd() - assignment.getStart() + 59) / 60);
+        }
+    }
+
+    /**
+     * Starts accepting requests on a background thread.
+     */
+    public void start() {
+        server.start();
+    }
+
+    /**
+     * Stops accepting requests, waits for the ones in progress, and releases the threads.
+     *
+     * @param delaySeconds The longest time to wait for requests in progress.
+     */
+    public void stop(int delaySeconds) {
+        server.stop(delaySeconds);
+        executor.shutdown();
+    }
+
+    /**
+     * Gets the port the server listens on.
+     *
+     * @return The port.
+     */
+    public int getPort() {
+        return server.getAddress().getPort();
+    }
+
+    /**
+     * Checks whether requests are handled on virtual threads.
+     *
+     * @return True if each request runs on a virtual thread.
+     */
+    public boolean usesVirtualThreads() {
+        return virtualThreads;
+    }
+
+    /**
+     * Creates an executor starting a virtual thread per task. Looked up reflectively so the
+     * server still compiles for and runs on Java 11.
+     *
+     * @return The executor, or null if this JVM has no virtual threads.
+     */
+    private static ExecutorService newVirtualThreadExecutor() {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Creates an executor of daemon platform threads that grows with the number of requests in
+     * progress and reuses idle threads.
+     *
+     * @return The executor.
+     */
+    private static ExecutorService newPlatformThreadExecutor() {
+        AtomicInteger count = new AtomicInteger();
+        return Executors.newCachedThreadPool(runnable -> {
+            Thread thread = new Thread(runnable, "order-server-" + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Handles a request to the orders resource.
+     *
+     * @param exchange The request and response.
+     */
+    private void handleOrders(HttpExchange exchange) {
+        try {
+            String path = exchange.getRequestURI().getPath();
+            String method = exchange.getRequestMethod();
+            if (path.equals(ORDERS_PATH) || path.equals(ORDERS_PATH + "/")) {
+                if (method.equals("POST")) {
+                    placeOrder(exchange);
+                } else if (method.equals("GET")) {
+                    listOrders(exchange);
+                } else {
+                    methodNotAllowed(exchange, "GET, POST");
+                }
+                return;
+            }
+            int number = parseOrderNumber(path);
+            if (number < 0) {
+                sendText(exchange, 404, JSON_CONTENT_TYPE, "{\"error\":\"Not found\"}");
+            } else if (method.equals("GET")) {
+                getOrder(exchange, number);
+            } else if (method.equals("DELETE")) {
+                removeOrder(exchange, number);
+            } else {
+                methodNotAllowed(exchange, "GET, DELETE");
+            }
+        } catch (IllegalArgumentException | BufferUnderflowException e) {
+            sendError(exchange, 400, "Invalid order");
+        } catch (UncheckedIOException e) {
+            sendError(exchange, 503, "Order could not be saved");
+        } catch (IOException e) {
+            // The client went away; there is no one to tell
+        } finally {
+            exchange.close();
+        }
+    }
+
+    /**
+     * Places the order in the request body.
+     *
+     * @param exchange The request and response.
+     * @throws IOException If the request cannot be read or the response cannot be written.
+     */
+    private void placeOrder(HttpExchange exchange) throws IOException {
+        String contentType = exchange.getRequestHeaders().getFirst("Content-Type");
+        if (contentType == null || !contentType.startsWith(ORDER_CONTENT_TYPE)) {
+            sendError(exchange, 415, "Expected " + ORDER_CONTENT_TYPE);
+            return;
+        }
+        ByteBuffer body = readBody(exchange);
+        if (body == null) {
+            sendError(exchange, 413, "Order too large");
+            return;
+        }
+        OrderCodec.getVarint(body); // The client's order number is replaced by a local one
+        Order order = new Order();
+        OrderCodec.decodePizzas(body, order);
+        if (body.hasRemaining() || order.getPizzas().isEmpty()) {
+            throw new IllegalArgumentException("Order must hold one or more pizzas and nothing else");
+        }
+        store.addOrder(order);
+
+        StringBuilder json = new StringBuilder(64);
+        json.append("{\"order\":").append(order.getNumber())
+                .append(",\"pizzas\":").append(order.getPizzas().size()).append(",\"total\":");
+        Money.appendTo(json, order.getTotalCents()).append('}');
+        exchange.getResponseHeaders().set("Location", ORDERS_PATH + "/" + order.getNumber());
+        sendText(exchange, 201, JSON_CONTENT_TYPE, json.toString());
+    }
+
+    /**
+     * Sends every store order, streaming the listing in chunks so it is never held in memory.
+     *
+     * @param exchange The request and response.
+     * @throws IOException If the response cannot be written.
+     */
+    private void listOrders(HttpExchange exchange) throws IOException {
+        exchange.getResponseHeaders().set("Content-Type", JSON_CONTENT_TYPE);
+        exchange.sendResponseHeaders(200, CHUNKED);
+        try (OutputStream out = exchange.getResponseBody()) {
+            exporter.export(store.getStoreOrders(), Channels.newChannel(out));
+        }
+    }
+
+    /**
+     * Sends one store order.
+     *
+     * @param exchange The request and response.
+     * @param number   The order number.
+     * @throws IOException If the response cannot be written.
+     */
+    private void getOrder(HttpExchange exchange, int number) throws IOException {
+        Order order = store.getOrder(number);
+        if (order == null) {
+            sendError(exchange, 404, "No order " + number);
+            return;
+        }
+        ByteArrayOutputStream json = new ByteArrayOutputStream(512);
+        exporter.export(Collections.singletonList(order), Channels.newChannel(json));
+        exchange.getResponseHeaders().set("Content-Type", JSON_CONTENT_TYPE);
+        exchange.sendResponseHeaders(200, json.size());
+        try (OutputStream out = exchange.getResponseBody()) {
+            json.writeTo(out);
+        }
+    }
+
+    /**
+     * Removes a store order.
+     *
+     * @param exchange The request and response.
+     * @param number   The order number.
+     * @throws IOException If the response cannot be written.
+     */
+    private void removeOrder(HttpExchange exchange, int number) throws IOException {
+        if (store.removeOrder(number) == null) {
+            sendError(exchange, 404, "No order " + number);
+        } else {
+            // A 200 with a body rather than a 204: some HTTP/1.1 clients drop a kept-alive
+            // connection after a 204, which costs a reconnect per removal
+            sendText(exchange, 200, JSON_CONTENT_TYPE, "{\"order\":" + number + "}");
+        }
+    }
+
+    /**
+     * Handles a request to the metrics endpoint.
+     *
+     * @param exchange The request and response.
+     */
+    private void handleMetrics(HttpExchange exchange) {
+        try {
+            if (exchange.getRequestMethod().equals("GET")) {
+                sendText(exchange, 200, METRICS_CONTENT_TYPE, Metrics.getInstance().dump());
+            } else {
+                methodNotAllowed(exchange, "GET");
+            }
+        } catch (IOException e) {
+            // The client went away; there is no one to tell
+        } finally {
+            exchange.close();
+        }
+    }
+
+    /**
+     * Gets the order number at the end of a path such as {@code /orders/42}.
+     *
+     * @param path The request path.
+     * @return The order number, or -1 if the path does not name an order.
+     */
+    private static int parseOrderNumber(String path) {
+        int start = ORDERS_PATH.length() + 1;
+        if (path.length() <= start || path.length() > start + 10 || path.charAt(start - 1) != '/') {
+            return -1;
+        }
+        long number = 0L;
+        for (int i = start; i < path.length(); i++) {
+            char c = path.charAt(i);
+            if (c < '0' || c > '9') {
+                return -1;
+            }
+            number = number * 10 + (c - '0');
+        }
+        return number > Integer.MAX_VALUE ? -1 : (int) number;
+    }
+
+    /**
+     * Reads the whole request body.
+     *
+     * @param exchange The request.
+     * @return The body, ready to read, or null if it is larger than {@link #MAX_BODY_SIZE}.
+     * @throws IOException If the body cannot be read.
+     */
+    private static ByteBuffer readBody(HttpExchange exchange) throws IOException {
+        String length = exchange.getRequestHeaders().getFirst("Content-Length");
+        long declared = length == null ? -1L : Long.parseLong(length.trim());
+        if (declared > MAX_BODY_SIZE) {
+            return null;
+        }
+        // A body of known length is read into an exact-size array; a chunked one grows to the limit
+        byte[] bytes = new byte[declared >= 0 ? (int) declared : 512];
+        int size = 0;
+        try (InputStream in = exchange.getRequestBody()) {
+            while (true) {
+                if (size == bytes.length) {
+                    if (declared >= 0 || size == MAX_BODY_SIZE) {
+                        return in.read() < 0 ? ByteBuffer.wrap(bytes, 0, size) : null;
+                    }
+                    bytes = Arrays.copyOf(bytes, Math.min(size * 2, MAX_BODY_SIZE));
+                }
+                int read = in.read(bytes, size, bytes.length - size);
+                if (read < 0) {
+                    return ByteBuffer.wrap(bytes, 0, size);
+                }
+                size += read;
+            }
+        }
+    }
+
+    /**
+     * Answers that the method is not supported on a path.
+     *
+     * @param exchange The request and response.
+     * @param allowed  The methods the path supports.
+     * @throws IOException If the response cannot be written.
+     */
+    private static void methodNotAllowed(HttpExchange exchange, String allowed) throws IOException {
+        exchange.getResponseHeaders().set("Allow", allowed);
+        sendError(exchange, 405, "Method not allowed");
+    }
+
+    /**
+     * Sends a JSON error, unless a response has already been started.
+     *
+     * @param exchange The request and response.
+     * @param status   The HTTP status.
+     * @param message  The error message; must not need JSON escaping.
+     */
+    private static void sendError(HttpExchange exchange, int status, String message) {
+        if (exchange.getResponseCode() != -1) {
+            return;
+        }
+        try {
+            sendText(exchange, status, JSON_CONTENT_TYPE, "{\"error\":\"" + message + "\"}");
+        } catch (IOException e) {
+            // The client went away; there is no one to tell
+        }
+    }
+
+    /**
+     * Sends a text response with a known length, so the connection can be kept alive.
+     *
+     * @param exchange    The request and response.
+     * @param status      The HTTP status.
+     * @param contentType The content type.
+     * @param text        The response body.
+     * @throws IOException If the response cannot be written.
+     */
+    private static void sendText(HttpExchange exchange, int status, String contentType, String text)
+            throws IOException {
+        byte[] bytes = text.getBytes(StandardCharsets.UTF_8);
+        Headers headers = exchange.getResponseHeaders();
+        headers.set("Content-Type", contentType);
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+}